@@ -1,6 +1,6 @@
 
 /*
- * Copyright (c) 1997, 2020, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1997, 2026, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -29,8 +29,12 @@ package com.sun.crypto.provider;
 import java.security.InvalidKeyException;
 import java.security.ProviderException;
 import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
 
 import jdk.internal.vm.annotation.IntrinsicCandidate;
+import sun.security.action.GetIntegerAction;
 import sun.security.util.ArrayUtil;
 
 
@@ -43,11 +47,25 @@ import sun.security.util.ArrayUtil;
  *
  * <p>NOTE: This class does not deal with buffering or padding.
  *
+ * <p>As each block only depends on itself and on the previous cipher
+ * block, AES decryption of at least
+ * {@code jdk.crypto.cbc.parallelDecryptThreshold} bytes is split into
+ * chunks decrypted in parallel in the common fork-join pool. The system
+ * property is not set by default, which disables parallel decryption.
+ *
  * @author Gigi Ankeny
  */
 
 class CipherBlockChaining extends FeedbackCipher  {
 
+    // minimum number of bytes decrypted in parallel, 0 if disabled
+    private static final int PARALLEL_THRESHOLD = Math.max(0,
+            GetIntegerAction.privilegedGetProperty(
+                    "jdk.crypto.cbc.parallelDecryptThreshold", 0));
+
+    // minimum number of bytes decrypted by a task
+    private static final int MIN_CHUNK_SIZE = 256 * 1024;
+
     /*
      * random bytes that are initialized with iv
      */
@@ -201,9 +219,76 @@ class CipherBlockChaining extends FeedbackCipher  {
         ArrayUtil.blockSizeCheck(cipherLen, blockSize);
         ArrayUtil.nullAndBoundsCheck(cipher, cipherOffset, cipherLen);
         ArrayUtil.nullAndBoundsCheck(plain, plainOffset, cipherLen);
+        if (PARALLEL_THRESHOLD > 0 && cipherLen >= PARALLEL_THRESHOLD
+                && embeddedCipher instanceof AESCrypt
+                && (cipher != plain || plainOffset + cipherLen <= cipherOffset
+                        || cipherOffset + cipherLen <= plainOffset)) {
+            int chunks = Math.min(ForkJoinPool.getCommonPoolParallelism(),
+                    cipherLen / MIN_CHUNK_SIZE);
+            if (chunks > 1) {
+                return parallelDecrypt(cipher, cipherOffset, cipherLen,
+                        plain, plainOffset, chunks);
+            }
+        }
         return implDecrypt(cipher, cipherOffset, cipherLen, plain, plainOffset);
     }
 
+    /**
+     * Decrypts the given cipher text, which does not overlap the plain
+     * text, in the given number of chunks, each decrypted by a task with
+     * its own feedback register, starting from the cipher block before
+     * the chunk. The embedded cipher is shared by the tasks, as AESCrypt
+     * does not modify its state when decrypting.
+     */
+    private int parallelDecrypt(byte[] cipher, int cipherOffset, int cipherLen,
+                                byte[] plain, int plainOffset, int chunks) {
+        int blocks = cipherLen / blockSize;
+        ChunkDecrypter[] tasks = new ChunkDecrypter[chunks];
+        int start = 0;
+        for (int i = 0; i < chunks; i++) {
+            int end = (int) ((long) blocks * (i + 1) / chunks) * blockSize;
+            CipherBlockChaining cbc = new CipherBlockChaining(embeddedCipher);
+            if (i == 0) {
+                System.arraycopy(r, 0, cbc.r, 0, blockSize);
+            } else {
+                System.arraycopy(cipher, cipherOffset + start - blockSize,
+                        cbc.r, 0, blockSize);
+            }
+            tasks[i] = new ChunkDecrypter(cbc, cipher, cipherOffset + start,
+                    end - start, plain, plainOffset + start);
+            start = end;
+        }
+        ForkJoinTask.invokeAll(tasks);
+        System.arraycopy(cipher, cipherOffset + cipherLen - blockSize,
+                r, 0, blockSize);
+        return cipherLen;
+    }
+
+    @SuppressWarnings("serial")
+    private static final class ChunkDecrypter extends RecursiveAction {
+        private final CipherBlockChaining cbc;
+        private final byte[] cipher;
+        private final int cipherOffset;
+        private final int cipherLen;
+        private final byte[] plain;
+        private final int plainOffset;
+
+        ChunkDecrypter(CipherBlockChaining cbc, byte[] cipher, int cipherOffset,
+                       int cipherLen, byte[] plain, int plainOffset) {
+            this.cbc = cbc;
+            this.cipher = cipher;
+            this.cipherOffset = cipherOffset;
+            this.cipherLen = cipherLen;
+            this.plain = plain;
+            this.plainOffset = plainOffset;
+        }
+
+        @Override
+        protected void compute() {
+            cbc.implDecrypt(cipher, cipherOffset, cipherLen, plain, plainOffset);
+        }
+    }
+
     @IntrinsicCandidate
     private int implDecrypt(byte[] cipher, int cipherOffset, int cipherLen,
                             byte[] plain, int plainOffset)
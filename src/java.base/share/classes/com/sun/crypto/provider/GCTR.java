@@ -1,6 +1,6 @@
 
 /*
- * Copyright (c) 2013, 2020, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2013, 2026, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -30,10 +30,15 @@
 
 package com.sun.crypto.provider;
 
+import java.lang.ref.Reference;
+import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.util.Arrays;
 
+import jdk.internal.access.JavaNioAccess;
+import jdk.internal.access.SharedSecrets;
+import jdk.internal.misc.Unsafe;
+
 /**
  * This class represents the GCTR function defined in NIST 800-38D
  * under section 6.5.  With a given cipher object and initial counter
@@ -48,15 +53,29 @@ import java.util.Arrays;
  * by using CounterMode.implCrypt() if HotSpot VM supports it on the
  * architecture.
  *
+ * When the buffers passed to update or doFinal are not both backed by
+ * arrays, the key stream is generated by CounterMode.implCrypt() in
+ * strides of up to KEYSTREAM_LEN bytes, and xor-ed directly from the
+ * input memory to the output memory, which may be the same. The memory
+ * sessions of the buffers, if any, are acquired meanwhile, as by the
+ * channels, so that a buffer of a closed memory segment is rejected.
+ *
  * <p>This function is used in the implementation of GCM mode.
  *
  * @since 1.8
  */
 final class GCTR extends CounterMode implements GCM {
 
+    private static final Unsafe UNSAFE = Unsafe.getUnsafe();
+    private static final JavaNioAccess NIO_ACCESS = SharedSecrets.getJavaNioAccess();
+
     // Maximum buffer size rotating ByteBuffer->byte[] intrinsic copy
     private static final int MAX_LEN = 1024;
+    // Maximum key stream size generated at once for direct buffers
+    private static final int KEYSTREAM_LEN = 4096;
+    private static final byte[] ZEROS = new byte[KEYSTREAM_LEN];
     private byte[] block;
+    private byte[] keystream;
 
     GCTR(SymmetricCipher cipher, byte[] initialCounterBlk) {
         super(cipher);
@@ -77,9 +96,9 @@ final class GCTR extends CounterMode implements GCM {
 
     // return the number of blocks until the lower 32 bits roll over
     private long blocksUntilRollover() {
-        ByteBuffer buf = ByteBuffer.wrap(counter, counter.length - 4, 4);
-        buf.order(ByteOrder.BIG_ENDIAN);
-        long ctr32 = 0xFFFFFFFFL & buf.getInt();
+        int n = counter.length;
+        long ctr32 = (counter[n - 4] & 0xFFL) << 24 | (counter[n - 3] & 0xFF) << 16
+                | (counter[n - 2] & 0xFF) << 8 | (counter[n - 1] & 0xFF);
         long blocksLeft = (1L << 32) - ctr32;
         return blocksLeft;
     }
@@ -210,6 +229,15 @@ final class GCTR extends CounterMode implements GCM {
         }
 
         // Direct bytebuffer operation
+        len = src.remaining() - (src.remaining() % blockSize);
+        if (canXor(src, dst)) {
+            if (dst.remaining() < len) {
+                throw new BufferOverflowException();
+            }
+            xorKeystream(src, dst, len);
+            return len;
+        }
+
         long blocksLeft = blocksUntilRollover();
         int numOfCompleteBlocks = src.remaining() / blockSize;
         if (numOfCompleteBlocks >= blocksLeft) {
@@ -226,7 +254,6 @@ final class GCTR extends CounterMode implements GCM {
             return numOfCompleteBlocks * blockSize;
         }
 
-        len = src.remaining() - (src.remaining() % blockSize);
         int processed = len;
         byte[] in = new byte[Math.min(MAX_LEN, len)];
         while (processed > MAX_LEN) {
@@ -241,6 +268,109 @@ final class GCTR extends CounterMode implements GCM {
         return len;
     }
 
+    /**
+     * Returns true if the given buffers can be processed by xorKeystream:
+     * both are either direct or backed by an accessible array, and the
+     * output is writable. As for the other paths, the output may be the
+     * input, or start before it, but must not start inside the input past
+     * its start: GaloisCounterMode copies such input beforehand.
+     */
+    private static boolean canXor(ByteBuffer src, ByteBuffer dst) {
+        return (src.isDirect() || src.hasArray())
+                && (dst.isDirect() || dst.hasArray()) && !dst.isReadOnly();
+    }
+
+    // The base and address of the memory at the position of the buffer,
+    // obtained as by the channels, without the checks of DirectBuffer
+    private static Object base(ByteBuffer buf) {
+        return NIO_ACCESS.getBufferBase(buf);
+    }
+
+    private static long address(ByteBuffer buf) {
+        return NIO_ACCESS.getBufferAddress(buf) + buf.position();
+    }
+
+    /**
+     * Encrypts len bytes, a multiple of blockSize, from src to dst, which
+     * have been checked by canXor, and advances both buffers. The buffers
+     * are processed forward, 8 bytes at a time.
+     *
+     * As the memory is accessed without the checks of the buffers, the
+     * memory sessions of the buffers, if any, are acquired for the duration
+     * of the access, so that they cannot be closed meanwhile.
+     *
+     * @throws IllegalStateException if the session of a buffer is closed
+     */
+    private void xorKeystream(ByteBuffer src, ByteBuffer dst, int len) {
+        Runnable srcGuard = NIO_ACCESS.acquireSession(src, false);
+        try {
+            Runnable dstGuard = NIO_ACCESS.acquireSession(dst, false);
+            try {
+                xorKeystream(src, base(src), address(src),
+                             dst, base(dst), address(dst), len);
+            } finally {
+                releaseSession(dstGuard);
+            }
+        } finally {
+            releaseSession(srcGuard);
+        }
+        src.position(src.position() + len);
+        dst.position(dst.position() + len);
+    }
+
+    private static void releaseSession(Runnable guard) {
+        if (guard != null) {
+            guard.run();
+        }
+    }
+
+    private void xorKeystream(ByteBuffer src, Object srcBase, long srcAddress,
+                              ByteBuffer dst, Object dstBase, long dstAddress,
+                              int len) {
+        try {
+            int processed = 0;
+            long blocksLeft = blocksUntilRollover();
+            if (len / blockSize >= blocksLeft) {
+                // Counter Mode encryption cannot be used because counter will
+                // roll over incorrectly. Use GCM-specific code instead.
+                checkBlock();
+                for (; processed < len; processed += blockSize) {
+                    embeddedCipher.encryptBlock(counter, 0, block, 0);
+                    xor(srcBase, srcAddress + processed,
+                        dstBase, dstAddress + processed, block, blockSize);
+                    GaloisCounterMode.increment32(counter);
+                }
+            } else {
+                if (keystream == null) {
+                    keystream = new byte[KEYSTREAM_LEN];
+                }
+                while (processed < len) {
+                    int n = Math.min(KEYSTREAM_LEN, len - processed);
+                    // the key stream is the encryption of zeros
+                    encrypt(ZEROS, 0, n, keystream, 0);
+                    xor(srcBase, srcAddress + processed,
+                        dstBase, dstAddress + processed, keystream, n);
+                    processed += n;
+                }
+            }
+        } finally {
+            Reference.reachabilityFence(src);
+            Reference.reachabilityFence(dst);
+        }
+    }
+
+    // xor len bytes, a multiple of 8, of the given key stream into dst
+    private static void xor(Object srcBase, long srcAddress,
+                            Object dstBase, long dstAddress,
+                            byte[] keystream, int len) {
+        for (int i = 0; i < len; i += 8) {
+            long k = UNSAFE.getLongUnaligned(keystream,
+                    Unsafe.ARRAY_BYTE_BASE_OFFSET + i);
+            long v = UNSAFE.getLongUnaligned(srcBase, srcAddress + i);
+            UNSAFE.putLongUnaligned(dstBase, dstAddress + i, v ^ k);
+        }
+    }
+
     /**
      * doFinal operation by using update() for any full block operations needed,
      * then operating on the final bytes in the input buffer.
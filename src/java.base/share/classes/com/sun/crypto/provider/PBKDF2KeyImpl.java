@@ -1,6 +1,6 @@
 
 /*
- * Copyright (c) 2005, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2005, 2026, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -31,19 +31,25 @@ import java.lang.ref.Reference;
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinTask;
 import java.security.MessageDigest;
 import java.security.KeyRep;
 import java.security.GeneralSecurityException;
 import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
 import java.security.spec.InvalidKeySpecException;
 import javax.crypto.Mac;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 
 import jdk.internal.ref.CleanerFactory;
+import sun.security.action.GetIntegerAction;
 
 /**
  * This class represents a PBE key derived using PBKDF2 defined
@@ -52,6 +58,13 @@ import jdk.internal.ref.CleanerFactory;
  *    to bytes using UTF-8 character encoding.
  * 2) salt, iteration count, and to be derived key length are supplied
  *
+ * The HMAC of the PRF is computed from the digest states after the inner
+ * and outer padded keys, which are computed once per key. The blocks of
+ * a key longer than the PRF output are derived in parallel in the common
+ * fork-join pool. If the {@code jdk.crypto.pbkdf2.cacheSize} system
+ * property is set, up to that many derived keys are cached, see
+ * {@link DerivedKeyCache}.
+ *
  * @author Valerie Peng
  *
  */
@@ -69,6 +82,10 @@ final class PBKDF2KeyImpl implements javax.crypto.interfaces.PBEKey {
                                 // see writeReplace method
     private Mac prf;
 
+    // minimum number of PRF iterations of a key for its blocks to be
+    // derived in parallel
+    private static final int PARALLEL_ITERATIONS = 4096;
+
     private static byte[] getPasswordBytes(char[] passwd) {
         CharBuffer cb = CharBuffer.wrap(passwd);
         ByteBuffer bb = UTF_8.encode(cb);
@@ -119,7 +136,8 @@ final class PBKDF2KeyImpl implements javax.crypto.interfaces.PBEKey {
                 throw new InvalidKeySpecException("Key length is negative");
             }
             this.prf = Mac.getInstance(prfAlgo, SunJCE.getInstance());
-            this.key = deriveKey(prf, passwdBytes, salt, iterCount, keyLength);
+            this.key = DerivedKeyCache.derive(prf, passwdBytes, salt,
+                    iterCount, keyLength);
         } catch (NoSuchAlgorithmException nsae) {
             // not gonna happen; re-throw just in case
             throw new InvalidKeySpecException(nsae);
@@ -139,6 +157,74 @@ final class PBKDF2KeyImpl implements javax.crypto.interfaces.PBEKey {
 
     private static byte[] deriveKey(final Mac prf, final byte[] password,
             byte[] salt, int iterCount, int keyLengthInBit) {
+        PrecomputedHmac hmac = PrecomputedHmac.of(prf.getAlgorithm(), password);
+        if (hmac == null) {
+            return deriveKeyWithMac(prf, password, salt, iterCount,
+                    keyLengthInBit);
+        }
+        int keyLength = keyLengthInBit/8;
+        byte[] key = new byte[keyLength];
+        int hlen = hmac.length();
+        int intL = (keyLength + hlen - 1)/hlen; // ceiling
+        try {
+            if (intL > 1 && iterCount >= PARALLEL_ITERATIONS) {
+                ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[intL];
+                for (int i = 1; i <= intL; i++) {
+                    final int index = i;
+                    tasks[i - 1] = ForkJoinTask.adapt(() -> {
+                        deriveBlock(hmac, salt, iterCount, index, key);
+                        return null;
+                    });
+                }
+                ForkJoinTask.invokeAll(tasks);
+            } else {
+                for (int i = 1; i <= intL; i++) {
+                    deriveBlock(hmac, salt, iterCount, i, key);
+                }
+            }
+        } catch (RuntimeException re) {
+            Arrays.fill(key, (byte) 0x00);
+            throw re;
+        } finally {
+            hmac.clear();
+        }
+        return key;
+    }
+
+    // Derives the given block of the key, T_i in PKCS#5
+    private static void deriveBlock(PrecomputedHmac hmac, byte[] salt,
+            int iterCount, int i, byte[] key) {
+        int hlen = hmac.length();
+        byte[] ui = new byte[hlen];
+        byte[] ti = new byte[hlen];
+        try {
+            byte[] ibytes = new byte[4];
+            ibytes[3] = (byte) i;
+            ibytes[2] = (byte) ((i >> 8) & 0xff);
+            ibytes[1] = (byte) ((i >> 16) & 0xff);
+            ibytes[0] = (byte) ((i >> 24) & 0xff);
+            hmac.compute(salt, ibytes, ui);
+            System.arraycopy(ui, 0, ti, 0, ui.length);
+
+            for (int j = 2; j <= iterCount; j++) {
+                hmac.compute(ui, null, ui);
+                // XOR the intermediate Ui's together.
+                for (int k = 0; k < ui.length; k++) {
+                    ti[k] ^= ui[k];
+                }
+            }
+            int offset = (i - 1) * hlen;
+            System.arraycopy(ti, 0, key, offset, Math.min(hlen, key.length - offset));
+        } catch (GeneralSecurityException gse) {
+            throw new RuntimeException("Error deriving PBKDF2 keys", gse);
+        } finally {
+            Arrays.fill(ui, (byte) 0x00);
+            Arrays.fill(ti, (byte) 0x00);
+        }
+    }
+
+    private static byte[] deriveKeyWithMac(final Mac prf, final byte[] password,
+            byte[] salt, int iterCount, int keyLengthInBit) {
         int keyLength = keyLengthInBit/8;
         byte[] key = new byte[keyLength];
         try {
@@ -211,6 +297,193 @@ final class PBKDF2KeyImpl implements javax.crypto.interfaces.PBEKey {
         return key;
     }
 
+    /**
+     * HMAC, as defined in RFC 2104, computed from the states of the digest
+     * after the inner and outer padded keys, so that each computation only
+     * digests the message and the inner hash. The digest states are never
+     * updated, each computation works on clones, so that an instance may
+     * be used by several threads.
+     */
+    private static final class PrecomputedHmac {
+        private final MessageDigest inner;
+        private final MessageDigest outer;
+        private final int length;
+
+        private PrecomputedHmac(MessageDigest inner, MessageDigest outer) {
+            this.inner = inner;
+            this.outer = outer;
+            this.length = inner.getDigestLength();
+        }
+
+        /**
+         * Returns the HMAC with the given algorithm and key, or null if the
+         * algorithm is not supported or its digest cannot be cloned.
+         */
+        static PrecomputedHmac of(String algorithm, byte[] key) {
+            String digest;
+            int blockLen;
+            switch (algorithm.toUpperCase(Locale.ENGLISH)) {
+                case "HMACSHA1" -> { digest = "SHA-1"; blockLen = 64; }
+                case "HMACSHA224" -> { digest = "SHA-224"; blockLen = 64; }
+                case "HMACSHA256" -> { digest = "SHA-256"; blockLen = 64; }
+                case "HMACSHA384" -> { digest = "SHA-384"; blockLen = 128; }
+                case "HMACSHA512" -> { digest = "SHA-512"; blockLen = 128; }
+                case "HMACSHA512/224" -> { digest = "SHA-512/224"; blockLen = 128; }
+                case "HMACSHA512/256" -> { digest = "SHA-512/256"; blockLen = 128; }
+                default -> { return null; }
+            }
+            byte[] k = null;
+            byte[] pad = new byte[blockLen];
+            try {
+                MessageDigest inner = MessageDigest.getInstance(digest);
+                if (!(inner instanceof Cloneable)) {
+                    return null;
+                }
+                MessageDigest outer = (MessageDigest) inner.clone();
+                k = key.length > blockLen ? inner.digest(key) : key.clone();
+                for (int i = 0; i < blockLen; i++) {
+                    byte b = i < k.length ? k[i] : 0;
+                    pad[i] = (byte) (b ^ 0x36);
+                }
+                inner.update(pad);
+                for (int i = 0; i < blockLen; i++) {
+                    byte b = i < k.length ? k[i] : 0;
+                    pad[i] = (byte) (b ^ 0x5c);
+                }
+                outer.update(pad);
+                return new PrecomputedHmac(inner, outer);
+            } catch (NoSuchAlgorithmException | CloneNotSupportedException e) {
+                return null;
+            } finally {
+                if (k != null) {
+                    Arrays.fill(k, (byte) 0x00);
+                }
+                Arrays.fill(pad, (byte) 0x00);
+            }
+        }
+
+        int length() {
+            return length;
+        }
+
+        /**
+         * Computes the HMAC of the given data followed by the given data2,
+         * if not null, into out, which may be data.
+         */
+        void compute(byte[] data, byte[] data2, byte[] out)
+                throws GeneralSecurityException {
+            try {
+                MessageDigest md = (MessageDigest) inner.clone();
+                md.update(data);
+                if (data2 != null) {
+                    md.update(data2);
+                }
+                md.digest(out, 0, length);
+                md = (MessageDigest) outer.clone();
+                md.update(out, 0, length);
+                md.digest(out, 0, length);
+            } catch (CloneNotSupportedException e) {
+                throw new GeneralSecurityException(e);
+            }
+        }
+
+        // Clears the digest states, which are derived from the key
+        void clear() {
+            inner.reset();
+            outer.reset();
+        }
+    }
+
+    /**
+     * A bounded cache of derived keys, enabled by setting the
+     * {@code jdk.crypto.pbkdf2.cacheSize} system property to the number of
+     * keys to cache, for applications that derive the same keys repeatedly.
+     *
+     * The cache is keyed by an HMAC-SHA256, under a key generated for the
+     * lifetime of the VM, of the PRF, the key length, the iteration count,
+     * the salt and the password, so that neither the password nor a plain
+     * digest of it, which would be cheaper to attack than the derived key,
+     * is retained. The least recently used key is evicted when the cache
+     * is full, and evicted keys are zeroed. The cache hands out copies of
+     * the keys.
+     */
+    private static final class DerivedKeyCache {
+        private static final int SIZE = Math.max(0,
+                GetIntegerAction.privilegedGetProperty(
+                        "jdk.crypto.pbkdf2.cacheSize", 0));
+
+        private static final DerivedKeyCache INSTANCE =
+                SIZE > 0 ? new DerivedKeyCache() : null;
+
+        private final SecretKeySpec macKey;
+        private final Map<ByteBuffer, byte[]> keys =
+                new LinkedHashMap<>(16, 0.75f, true) {
+                    @java.io.Serial
+                    private static final long serialVersionUID = 1L;
+
+                    @Override
+                    protected boolean removeEldestEntry(
+                            Map.Entry<ByteBuffer, byte[]> eldest) {
+                        if (size() > SIZE) {
+                            Arrays.fill(eldest.getValue(), (byte) 0x00);
+                            return true;
+                        }
+                        return false;
+                    }
+                };
+
+        private DerivedKeyCache() {
+            byte[] k = new byte[32];
+            new SecureRandom().nextBytes(k);
+            macKey = new SecretKeySpec(k, "HmacSHA256");
+            Arrays.fill(k, (byte) 0x00);
+        }
+
+        /**
+         * Derives the given key, or returns a copy of it if it is cached.
+         */
+        static byte[] derive(Mac prf, byte[] password, byte[] salt,
+                int iterCount, int keyLengthInBit) {
+            DerivedKeyCache cache = INSTANCE;
+            if (cache == null) {
+                return deriveKey(prf, password, salt, iterCount, keyLengthInBit);
+            }
+            ByteBuffer id = cache.id(prf.getAlgorithm(), password, salt,
+                    iterCount, keyLengthInBit);
+            synchronized (cache.keys) {
+                byte[] key = cache.keys.get(id);
+                if (key != null) {
+                    return key.clone();
+                }
+            }
+            byte[] key = deriveKey(prf, password, salt, iterCount, keyLengthInBit);
+            synchronized (cache.keys) {
+                byte[] old = cache.keys.put(id, key.clone());
+                if (old != null) {
+                    Arrays.fill(old, (byte) 0x00);
+                }
+            }
+            return key;
+        }
+
+        private ByteBuffer id(String prfAlgo, byte[] password, byte[] salt,
+                int iterCount, int keyLengthInBit) {
+            try {
+                Mac mac = Mac.getInstance("HmacSHA256", SunJCE.getInstance());
+                mac.init(macKey);
+                mac.update(prfAlgo.toUpperCase(Locale.ENGLISH).getBytes(UTF_8));
+                mac.update(ByteBuffer.allocate(16).putInt(keyLengthInBit)
+                        .putInt(iterCount).putInt(salt.length)
+                        .putInt(password.length).flip());
+                mac.update(salt);
+                mac.update(password);
+                return ByteBuffer.wrap(mac.doFinal());
+            } catch (GeneralSecurityException gse) {
+                throw new RuntimeException("Error deriving PBKDF2 keys", gse);
+            }
+        }
+    }
+
     public byte[] getEncoded() {
         // The key is zeroized by finalize()
         // The reachability fence ensures finalize() isn't called early
@@ -1,6 +1,6 @@
 
 /*
- * Copyright (c) 2000, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2000, 2026, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -28,6 +28,7 @@ package java.nio;
 
 import jdk.internal.access.JavaLangRefAccess;
 import jdk.internal.access.SharedSecrets;
+import jdk.internal.event.DirectMemoryReservationStallEvent;
 import jdk.internal.misc.Unsafe;
 import jdk.internal.misc.VM;
 import jdk.internal.misc.VM.BufferPool;
@@ -93,11 +94,21 @@ class Bits {                            // package-private
     // direct buffer memory.  This value may be changed during VM
     // initialization if it is launched with "-XX:MaxDirectMemorySize=<size>".
     private static volatile long MAX_MEMORY = VM.maxDirectMemory();
-    private static final AtomicLong RESERVED_MEMORY = new AtomicLong();
+    // The total capacity is checked against the limit on every reservation,
+    // so it is a single counter, updated with compare-and-set. The memory
+    // used and the count are only read for monitoring, so they are striped
+    // to spread the updates of concurrent allocations and summed on read.
+    private static final StripedCounter RESERVED_MEMORY = new StripedCounter();
     private static final AtomicLong TOTAL_CAPACITY = new AtomicLong();
-    private static final AtomicLong COUNT = new AtomicLong();
+    private static final StripedCounter COUNT = new StripedCounter();
     private static volatile boolean MEMORY_LIMIT_SET;
 
+    // If true, a reservation that exceeds the limit fails immediately,
+    // rather than after waiting for reference processing, triggering a
+    // GC, and retrying for up to about 0.5 s. Set from the system property
+    // jdk.nio.reserveMemoryFailFast, when the limit is set.
+    private static volatile boolean FAIL_FAST;
+
     // max. number of sleeps during try-reserving with exponentially
     // increasing delay before throwing OutOfMemoryError:
     // 1, 2, 4, 8, 16, 32, 64, 128, 256 (total 511 ms ~ 0.5 s)
@@ -111,6 +122,8 @@ class Bits {                            // package-private
 
         if (!MEMORY_LIMIT_SET && VM.initLevel() >= 1) {
             MAX_MEMORY = VM.maxDirectMemory();
+            FAIL_FAST = Boolean.parseBoolean(
+                    VM.getSavedProperty("jdk.nio.reserveMemoryFailFast"));
             MEMORY_LIMIT_SET = true;
         }
 
@@ -119,8 +132,18 @@ class Bits {                            // package-private
             return;
         }
 
+        if (FAIL_FAST) {
+            throw outOfMemoryError(size);
+        }
+
+        DirectMemoryReservationStallEvent event = null;
+        if (DirectMemoryReservationStallEvent.isTurnedOn()) {
+            event = new DirectMemoryReservationStallEvent();
+            event.begin();
+        }
         final JavaLangRefAccess jlra = SharedSecrets.getJavaLangRefAccess();
         boolean interrupted = false;
+        boolean reserved = false;
         try {
 
             // Retry allocation until success or there are no more
@@ -136,6 +159,7 @@ class Bits {                            // package-private
                     refprocActive = true;
                 }
                 if (tryReserveMemory(size, cap)) {
+                    reserved = true;
                     return;
                 }
             } while (refprocActive);
@@ -156,6 +180,7 @@ class Bits {                            // package-private
             int sleeps = 0;
             while (true) {
                 if (tryReserveMemory(size, cap)) {
+                    reserved = true;
                     return;
                 }
                 if (sleeps >= MAX_SLEEPS) {
@@ -173,12 +198,18 @@ class Bits {                            // package-private
             }
 
             // no luck
-            throw new OutOfMemoryError
-                ("Cannot reserve "
-                 + size + " bytes of direct buffer memory (allocated: "
-                 + RESERVED_MEMORY.get() + ", limit: " + MAX_MEMORY +")");
+            throw outOfMemoryError(size);
 
         } finally {
+            if (event != null) {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.size = size;
+                    event.capacity = cap;
+                    event.reserved = reserved;
+                    event.commit();
+                }
+            }
             if (interrupted) {
                 // don't swallow interrupts
                 Thread.currentThread().interrupt();
@@ -186,29 +217,77 @@ class Bits {                            // package-private
         }
     }
 
+    private static OutOfMemoryError outOfMemoryError(long size) {
+        return new OutOfMemoryError
+            ("Cannot reserve "
+             + size + " bytes of direct buffer memory (allocated: "
+             + RESERVED_MEMORY.sum() + ", limit: " + MAX_MEMORY +")");
+    }
+
     private static boolean tryReserveMemory(long size, long cap) {
 
         // -XX:MaxDirectMemorySize limits the total capacity rather than the
         // actual memory usage, which will differ when buffers are page
         // aligned.
+        //
+        // The capacity is only added if the result is within the limit, so
+        // that a reservation never fails because of one that is in progress.
         long totalCap;
         while (cap <= MAX_MEMORY - (totalCap = TOTAL_CAPACITY.get())) {
             if (TOTAL_CAPACITY.compareAndSet(totalCap, totalCap + cap)) {
-                RESERVED_MEMORY.addAndGet(size);
-                COUNT.incrementAndGet();
+                RESERVED_MEMORY.add(size);
+                COUNT.add(1);
                 return true;
             }
         }
-
         return false;
     }
 
 
     static void unreserveMemory(long size, long cap) {
-        long cnt = COUNT.decrementAndGet();
-        long reservedMem = RESERVED_MEMORY.addAndGet(-size);
+        COUNT.add(-1);
+        RESERVED_MEMORY.add(-size);
         long totalCap = TOTAL_CAPACITY.addAndGet(-cap);
-        assert cnt >= 0 && reservedMem >= 0 && totalCap >= 0;
+        assert totalCap >= 0;
+    }
+
+    /**
+     * A counter whose updates are spread over cache line padded stripes,
+     * selected by thread, and whose value is the sum of the stripes.
+     * Unlike LongAdder, it does not depend on java.lang.invoke, which
+     * may not be initialized when the first direct buffer is allocated.
+     */
+    static final class StripedCounter {
+        // longs per stripe: a stripe is two cache lines apart from the next
+        private static final int PAD = 16;
+        private static final long BASE = Unsafe.ARRAY_LONG_BASE_OFFSET;
+        private static final int SHIFT = 31 - Integer.numberOfLeadingZeros(
+                Unsafe.ARRAY_LONG_INDEX_SCALE * PAD);
+
+        private final long[] cells;
+        private final int mask;
+
+        StripedCounter() {
+            int n = Runtime.getRuntime().availableProcessors();
+            int stripes = Integer.highestOneBit(Math.min(64, Math.max(1, n)) * 2 - 1);
+            cells = new long[(stripes + 1) * PAD];
+            mask = stripes - 1;
+        }
+
+        void add(long x) {
+            long id = Thread.currentThread().threadId();
+            int stripe = (int) (id ^ (id >>> 32)) & mask;
+            // stripe 0 starts one padding after the array header
+            UNSAFE.getAndAddLong(cells, BASE + ((long) (stripe + 1) << SHIFT), x);
+        }
+
+        long sum() {
+            long sum = 0;
+            for (int i = 1; i <= mask + 1; i++) {
+                sum += UNSAFE.getLongVolatile(cells, BASE + ((long) i << SHIFT));
+            }
+            return sum;
+        }
     }
 
     static final BufferPool BUFFER_POOL = new BufferPool() {
@@ -218,7 +297,7 @@ class Bits {                            // package-private
         }
         @Override
         public long getCount() {
-            return Bits.COUNT.get();
+            return Bits.COUNT.sum();
         }
         @Override
         public long getTotalCapacity() {
@@ -226,7 +305,7 @@ class Bits {                            // package-private
         }
         @Override
         public long getMemoryUsed() {
-            return Bits.RESERVED_MEMORY.get();
+            return Bits.RESERVED_MEMORY.sum();
         }
     };
 
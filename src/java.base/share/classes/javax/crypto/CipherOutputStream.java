@@ -1,6 +1,6 @@
 
 /*
- * Copyright (c) 1997, 2022, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1997, 2026, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -73,6 +73,10 @@ import java.io.*;
 
 public class CipherOutputStream extends FilterOutputStream {
 
+    // maximum number of bytes passed to the cipher by one update, so that
+    // the size of obuffer does not depend on the length of the writes
+    private static final int MAX_UPDATE_LEN = 16 * 1024;
+
     // the cipher engine to use to process stream data
     private final Cipher cipher;
 
@@ -96,6 +100,9 @@ public class CipherOutputStream extends FilterOutputStream {
      * This reduces allocation for authenticated decryption
      * that never returns data from update
      *
+     * obuffer is at least doubled when it grows, so that it is not
+     * reallocated every time the length of the writes increases
+     *
      * @param inLen the input length (in bytes)
      */
     private void ensureCapacity(int inLen) {
@@ -104,7 +111,8 @@ public class CipherOutputStream extends FilterOutputStream {
         }
         int minLen = cipher.getOutputSize(inLen);
         if (obuffer.length < minLen) {
-            obuffer = new byte[minLen];
+            obuffer = new byte[Math.max(minLen,
+                    (int) Math.min(2L * obuffer.length, Integer.MAX_VALUE))];
         }
     }
 
@@ -200,6 +208,22 @@ public class CipherOutputStream extends FilterOutputStream {
      */
     @Override
     public void write(byte[] b, int off, int len) throws IOException {
+        if (len <= MAX_UPDATE_LEN || off < 0 || off > b.length - len) {
+            // bad arguments are rejected by the cipher before any output
+            update(b, off, len);
+            return;
+        }
+        // large writes are passed to the cipher in pieces, which produce
+        // the same output as a single update
+        while (len > 0) {
+            int n = Math.min(len, MAX_UPDATE_LEN);
+            update(b, off, n);
+            off += n;
+            len -= n;
+        }
+    }
+
+    private void update(byte[] b, int off, int len) throws IOException {
         ensureCapacity(len);
         try {
             // initial obuffer is assigned by update/doFinal;
@@ -1,6 +1,6 @@
 
 /*
- * Copyright (c) 2014, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2014, 2026, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -27,6 +27,8 @@
 package jdk.internal.jimage;
 
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
 import java.util.Objects;
 
 /**
@@ -63,7 +65,29 @@ public class ImageLocation {
     static long[] decompress(ByteBuffer bytes, int offset) {
         Objects.requireNonNull(bytes);
         long[] attributes = new long[ATTRIBUTE_COUNT];
+        decode(bytes, offset, attributes);
+        return attributes;
+    }
+
+    /**
+     * Decompresses the attributes of the location at the given offset,
+     * looking them up in the given cache first, and caching them if they
+     * were not cached.
+     */
+    static long[] decompress(ByteBuffer bytes, int offset, AttributeCache cache) {
+        Objects.requireNonNull(bytes);
+        long[] attributes = new long[ATTRIBUTE_COUNT];
+        if (cache.get(offset, attributes)) {
+            return attributes;
+        }
+        // clear what a partial hit may have left
+        Arrays.fill(attributes, 0L);
+        decode(bytes, offset, attributes);
+        cache.put(offset, attributes);
+        return attributes;
+    }
 
+    private static void decode(ByteBuffer bytes, int offset, long[] attributes) {
         int limit = bytes.limit();
         while (offset < limit) {
             int data = bytes.get(offset++) & 0xFF;
@@ -80,7 +104,118 @@ public class ImageLocation {
             attributes[kind] = readValue(length, bytes, offset, limit);
             offset += length;
         }
-        return attributes;
+    }
+
+    /**
+     * A table of decoded location attributes, indexed by location offset,
+     * so that an image reader does not decode the attribute stream of a
+     * location on every lookup.
+     *
+     * The table is off-heap, allocated on first use, and direct-mapped: a
+     * location is cached in the slot selected by a hash of its offset,
+     * replacing the location cached there. Each attribute is stored in a
+     * long together with the offset of its location, so that the table is
+     * read and written without locking: a slot that is being overwritten
+     * with another location reads as a miss. Locations with an attribute
+     * value wider than {@value #VALUE_BITS} bits are not cached, and the
+     * table is disabled for locations tables too large for the offset to
+     * fit in the remaining bits, or on 32-bit platforms, where a long may
+     * not be accessed at once.
+     */
+    static final class AttributeCache {
+        private static final int VALUE_BITS = 40;
+        private static final long VALUE_MASK = (1L << VALUE_BITS) - 1;
+        private static final int MAX_LOCATIONS_SIZE = (1 << (Long.SIZE - VALUE_BITS)) - 1;
+        private static final int MIN_SLOTS = 1 << 6;
+        private static final int MAX_SLOTS = 1 << 14;
+        // attributes other than ATTRIBUTE_END
+        private static final int SLOT_SIZE = (ATTRIBUTE_COUNT - 1) * Long.BYTES;
+
+        private final boolean enabled;
+        private final int shift;
+        private volatile ByteBuffer table;
+
+        /**
+         * Creates a table for a locations table of the given size.
+         */
+        AttributeCache(int locationsSize) {
+            // about one slot per location of 16 bytes
+            int slots = Integer.highestOneBit(
+                    Math.max(MIN_SLOTS, Math.min(MAX_SLOTS, locationsSize / 16)));
+            this.shift = Integer.SIZE - Integer.numberOfTrailingZeros(slots);
+            this.enabled = locationsSize <= MAX_LOCATIONS_SIZE && is64Bit();
+        }
+
+        private static boolean is64Bit() {
+            try {
+                return "64".equals(System.getProperty("sun.arch.data.model"));
+            } catch (SecurityException ex) {
+                return false;
+            }
+        }
+
+        private int slotPosition(int offset) {
+            return ((offset * 0x9E3779B9) >>> shift) * SLOT_SIZE;
+        }
+
+        /**
+         * Looks up the attributes of the location at the given offset.
+         * Returns false if they are not cached, in which case the given
+         * array may have been partially written.
+         */
+        boolean get(int offset, long[] attributes) {
+            ByteBuffer table = this.table;
+            if (table == null) {
+                return false;
+            }
+            long tag = (long)(offset + 1) << VALUE_BITS;
+            int position = slotPosition(offset);
+            for (int kind = ATTRIBUTE_END + 1; kind < ATTRIBUTE_COUNT; kind++) {
+                long entry = table.getLong(position);
+                if ((entry & ~VALUE_MASK) != tag) {
+                    return false;
+                }
+                attributes[kind] = entry & VALUE_MASK;
+                position += Long.BYTES;
+            }
+            return true;
+        }
+
+        /**
+         * Caches the attributes of the location at the given offset.
+         */
+        void put(int offset, long[] attributes) {
+            if (!enabled) {
+                return;
+            }
+            for (int kind = ATTRIBUTE_END + 1; kind < ATTRIBUTE_COUNT; kind++) {
+                if ((attributes[kind] & ~VALUE_MASK) != 0) {
+                    return;
+                }
+            }
+            ByteBuffer table = this.table;
+            if (table == null) {
+                table = allocate();
+            }
+            long tag = (long)(offset + 1) << VALUE_BITS;
+            int position = slotPosition(offset);
+            for (int kind = ATTRIBUTE_END + 1; kind < ATTRIBUTE_COUNT; kind++) {
+                table.putLong(position, tag | attributes[kind]);
+                position += Long.BYTES;
+            }
+        }
+
+        private synchronized ByteBuffer allocate() {
+            ByteBuffer table = this.table;
+            if (table == null) {
+                int slots = 1 << (Integer.SIZE - shift);
+                // a zero offset tag matches no location
+                table = ByteBuffer.allocateDirect(slots * SLOT_SIZE)
+                        .order(ByteOrder.nativeOrder());
+                this.table = table;
+            }
+            return table;
+        }
     }
 
     public static byte[] compress(long[] attributes) {
@@ -176,6 +311,87 @@ public class ImageLocation {
                 moduleOffset, parentOffset, baseOffset, extOffset, strings);
     }
 
+    /**
+     * Verifies that the location with the given attributes has the given
+     * name, of the form accepted by {@link #verify(String)}, given as the
+     * modified UTF-8 bytes in which the strings of the image are stored.
+     * The bytes are compared with those of the nul-terminated strings in
+     * the given strings table, so that neither the name nor the strings of
+     * the location are decoded.
+     */
+    static boolean verify(byte[] name, int offset, int length,
+                          long[] attributes, ByteBuffer strings) {
+        Objects.requireNonNull(name);
+        if (offset < 0 || length < 0 || offset > name.length - length) {
+            throw new IndexOutOfBoundsException();
+        }
+        int index = offset;
+        int end = offset + length;
+        int moduleOffset = (int)attributes[ATTRIBUTE_MODULE];
+        if (moduleOffset != 0) {
+            if (index >= end || name[index++] != '/') {
+                return false;
+            }
+            int moduleLen = match(strings, moduleOffset, name, index, end);
+            if (moduleLen < 0) {
+                return false;
+            }
+            index += moduleLen;
+            if (index >= end || name[index++] != '/') {
+                return false;
+            }
+        }
+        int parentOffset = (int)attributes[ATTRIBUTE_PARENT];
+        if (parentOffset != 0) {
+            int parentLen = match(strings, parentOffset, name, index, end);
+            if (parentLen < 0) {
+                return false;
+            }
+            index += parentLen;
+            if (index >= end || name[index++] != '/') {
+                return false;
+            }
+        }
+        int baseLen = match(strings, (int)attributes[ATTRIBUTE_BASE], name, index, end);
+        if (baseLen < 0) {
+            return false;
+        }
+        index += baseLen;
+        int extOffset = (int)attributes[ATTRIBUTE_EXTENSION];
+        if (extOffset != 0) {
+            if (index >= end || name[index++] != '.') {
+                return false;
+            }
+            int extLen = match(strings, extOffset, name, index, end);
+            if (extLen < 0) {
+                return false;
+            }
+            index += extLen;
+        }
+        return index == end;
+    }
+
+    /**
+     * Returns the length of the nul-terminated string at the given offset
+     * of the strings table if the given bytes start with it, or -1.
+     */
+    private static int match(ByteBuffer strings, int stringOffset,
+                             byte[] bytes, int index, int end) {
+        int limit = strings.limit();
+        int i = stringOffset;
+        while (i < limit) {
+            byte b = strings.get(i);
+            if (b == 0) {
+                return i - stringOffset;
+            }
+            if (index >= end || bytes[index++] != b) {
+                return -1;
+            }
+            i++;
+        }
+        throw new InternalError("Unterminated jimage string");
+    }
+
     private static long readValue(int length, ByteBuffer buffer, int offset, int limit) {
         long value = 0;
         for (int j = 0; j < length; j++) {
@@ -1,6 +1,6 @@
 
 /*
- * Copyright (c) 2014, 2016, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2014, 2026, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -27,8 +27,10 @@ package jdk.internal.jimage.decompressor;
 
 import java.io.DataInputStream;
 import java.io.IOException;
+import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
-import java.util.ArrayList;
+import java.nio.IntBuffer;
+import java.util.AbstractList;
 import java.util.List;
 
 /**
@@ -47,15 +49,152 @@ public class CompressIndexes {
     private static final int HEADER_WIDTH = 3;
     private static final int HEADER_SHIFT = Byte.SIZE - HEADER_WIDTH;
 
+    /**
+     * Decompresses all the values of a flow.
+     *
+     * @param values the compressed flow
+     * @return the decompressed values
+     * @throws IllegalArgumentException if the flow has a value with an
+     *         invalid header, or ends within a value
+     */
     public static List<Integer> decompressFlow(byte[] values) {
-        List<Integer> lst = new ArrayList<>();
+        final int[] decompressed = decompressFlowToArray(values);
+        return new AbstractList<Integer>() {
+            @Override
+            public Integer get(int index) {
+                return decompressed[index];
+            }
 
-        for (int i = 0; i < values.length; i += getHeaderLength(values[i])) {
-            int decompressed = decompress(values, i);
-            lst.add(decompressed);
+            @Override
+            public int size() {
+                return decompressed.length;
+            }
+        };
+    }
+
+    /**
+     * Decompresses all the values of a flow.
+     *
+     * @param values the compressed flow
+     * @return the decompressed values
+     * @throws IllegalArgumentException if the flow has a value with an
+     *         invalid header, or ends within a value
+     */
+    public static int[] decompressFlowToArray(byte[] values) {
+        ByteBuffer buffer = ByteBuffer.wrap(values);
+        int[] result = new int[count(buffer)];
+        decompressFlow(buffer, IntBuffer.wrap(result));
+        if (buffer.hasRemaining()) {
+            int i = buffer.position();
+            byte header = buffer.get(i);
+            if (getHeaderLength(header) == 0) {
+                throw new IllegalArgumentException("invalid header: " + header
+                        + " at offset " + i);
+            }
+            throw new IllegalArgumentException("truncated value at offset " + i);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of complete values in the remaining bytes of a
+     * flow, up to the first value with an invalid header, if any, without
+     * decompressing them or changing the buffer position.
+     *
+     * @param values the compressed flow
+     * @return the number of values
+     */
+    public static int count(ByteBuffer values) {
+        int count = 0;
+        int limit = values.limit();
+        for (int i = values.position(); i < limit; ) {
+            int size = getHeaderLength(values.get(i));
+            if (size == 0 || i + size > limit) {
+                break;
+            }
+            i += size;
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Decompresses values from a flow, which may be a slice of a mapped
+     * image, into an int buffer, without allocating. Decompresses as many
+     * complete values as are remaining in the flow and fit in the result,
+     * and advances the positions of both buffers past them; an incomplete
+     * value at the end of the flow, or a value with an invalid header, is
+     * left in the flow.
+     *
+     * @param values the compressed flow
+     * @param result the buffer receiving the values
+     * @return the number of values decompressed
+     */
+    public static int decompressFlow(ByteBuffer values, IntBuffer result) {
+        int i = values.position();
+        int limit = values.limit();
+        int n = 0;
+        if (result.hasArray()) {
+            int[] array = result.array();
+            int offset = result.arrayOffset() + result.position();
+            int max = result.remaining();
+            while (n < max && i < limit) {
+                byte header = values.get(i);
+                int size = getHeaderLength(header);
+                if (size == 0 || i + size > limit) {
+                    break;
+                }
+                array[offset + n++] = decompress(values, i, header, size);
+                i += size;
+            }
+            result.position(result.position() + n);
+        } else {
+            while (result.hasRemaining() && i < limit) {
+                byte header = values.get(i);
+                int size = getHeaderLength(header);
+                if (size == 0 || i + size > limit) {
+                    break;
+                }
+                result.put(decompress(values, i, header, size));
+                n++;
+                i += size;
+            }
+        }
+        values.position(i);
+        return n;
+    }
+
+    /**
+     * Reads a value from a flow, advancing the buffer position past it.
+     *
+     * @param values the compressed flow
+     * @return the decompressed value
+     * @throws BufferUnderflowException if the flow ends within the value
+     * @throws IllegalArgumentException if the header of the value is invalid
+     */
+    public static int readInt(ByteBuffer values) {
+        int i = values.position();
+        byte header = values.get(i);
+        int size = getHeaderLength(header);
+        if (size == 0) {
+            throw new IllegalArgumentException("invalid header: " + header);
+        }
+        if (i + size > values.limit()) {
+            throw new BufferUnderflowException();
         }
+        values.position(i + size);
+        return decompress(values, i, header, size);
+    }
 
-        return lst;
+    private static int decompress(ByteBuffer values, int offset, byte header, int size) {
+        int result = getHeaderValue(header);
+        // For each value byte
+        for (int i = 1; i < size; i++) {
+            // Merge byte value.
+            result <<= Byte.SIZE;
+            result |= values.get(offset + i) & 0xFF;
+        }
+        return result;
     }
 
     public static int readInt(DataInputStream cr) throws IOException {
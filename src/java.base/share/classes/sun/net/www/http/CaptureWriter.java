@@ -0,0 +1,322 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package sun.net.www.http;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import jdk.internal.misc.InnocuousThread;
+import sun.security.action.GetIntegerAction;
+import sun.util.logging.PlatformLogger;
+
+/**
+ * Passes the traffic captured by {@link HttpCaptureOutputStream} and
+ * {@link HttpCaptureInputStream} to their {@link HttpCapture} on a background
+ * thread, so that capturing does not add file I/O to the thread that sends
+ * a request or reads a response.
+ *
+ * Captured bytes, in both directions, are copied to a single bounded,
+ * lock-free, multi-producer queue, so that they reach the capture in the
+ * order they were sent and received. A single daemon thread drains the
+ * queue in batches: each chunk is passed to its capture while holding the
+ * lock of the capture, and then every capture the batch wrote to is
+ * flushed once. A chunk that would exceed the capacity of the queue, in
+ * slots or in bytes, is dropped and counted instead of blocking the
+ * caller; the number of dropped bytes is logged.
+ *
+ * The following system properties are supported:
+ *   sun.net.http.captureBufferSize: the maximum number of bytes queued,
+ *       default 4 MiB.
+ *   sun.net.http.captureSampling: capture 1 out of every n captures, that
+ *       is, connections, default 1, that is, every capture.
+ */
+final class CaptureWriter {
+
+    private static final int SLOTS = 4096;
+    private static final int MASK = SLOTS - 1;
+
+    private static final long MAX_BYTES = Math.max(0,
+            GetIntegerAction.privilegedGetProperty(
+                    "sun.net.http.captureBufferSize", 4 * 1024 * 1024));
+    private static final int SAMPLING = Math.max(1,
+            GetIntegerAction.privilegedGetProperty(
+                    "sun.net.http.captureSampling", 1));
+
+    private static final CaptureWriter INSTANCE = new CaptureWriter();
+
+    // single byte chunks, shared as they are never modified
+    private static final byte[][] BYTES = new byte[256][];
+    static {
+        for (int i = 0; i < BYTES.length; i++) {
+            BYTES[i] = new byte[] {(byte) i};
+        }
+    }
+
+    // A captured chunk, or a flush request if data is null
+    private record Record(HttpCapture capture, byte[] data, boolean received) { }
+
+    // Bounded MPMC queue: a slot may be written when its sequence is equal
+    // to the enqueue position, and read when it is equal to the position
+    // plus one. Only the writer thread dequeues.
+    private final AtomicReferenceArray<Record> slots = new AtomicReferenceArray<>(SLOTS);
+    private final AtomicLongArray sequences = new AtomicLongArray(SLOTS);
+    private final AtomicLong enqueuePos = new AtomicLong();
+    private long dequeuePos;  // writer thread only
+
+    private final AtomicLong queuedBytes = new AtomicLong();
+    private final LongAdder droppedBytes = new LongAdder();
+    private final AtomicLong captures = new AtomicLong();
+    // whether each capture is sampled, guarded by itself
+    private final Map<HttpCapture, Boolean> sampled = new WeakHashMap<>();
+
+    private volatile Thread writer;
+    private volatile boolean parked;
+
+    private CaptureWriter() {
+        for (int i = 0; i < SLOTS; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    static CaptureWriter get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns true if the given capture is to be captured, as per the
+     * sampling rate. The decision is made once per capture, so that both
+     * directions of a connection are either captured or not.
+     */
+    boolean sample(HttpCapture capture) {
+        if (SAMPLING == 1) {
+            return true;
+        }
+        synchronized (sampled) {
+            return sampled.computeIfAbsent(capture,
+                    c -> captures.getAndIncrement() % SAMPLING == 0);
+        }
+    }
+
+    /**
+     * Queues the given byte to be passed to the given capture as sent.
+     */
+    void sent(HttpCapture capture, int b) {
+        queue(capture, BYTES[b & 0xff], false);
+    }
+
+    /**
+     * Queues the given bytes to be passed to the given capture as sent.
+     * The bytes are dropped if the queue is full.
+     */
+    void sent(HttpCapture capture, byte[] b, int off, int len) {
+        queue(capture, b, off, len, false);
+    }
+
+    /**
+     * Queues the given byte to be passed to the given capture as received.
+     */
+    void received(HttpCapture capture, int b) {
+        queue(capture, BYTES[b & 0xff], true);
+    }
+
+    /**
+     * Queues the given bytes to be passed to the given capture as received.
+     * The bytes are dropped if the queue is full.
+     */
+    void received(HttpCapture capture, byte[] b, int off, int len) {
+        queue(capture, b, off, len, true);
+    }
+
+    /**
+     * Queues a request to flush the given capture.
+     */
+    void flush(HttpCapture capture) {
+        offer(new Record(capture, null, false));
+    }
+
+    private void queue(HttpCapture capture, byte[] b, int off, int len, boolean received) {
+        if (len <= 0) {
+            return;
+        }
+        byte[] data = new byte[len];
+        System.arraycopy(b, off, data, 0, len);
+        queue(capture, data, received);
+    }
+
+    private void queue(HttpCapture capture, byte[] data, boolean received) {
+        int len = data.length;
+        if (queuedBytes.addAndGet(len) > MAX_BYTES) {
+            queuedBytes.addAndGet(-len);
+            droppedBytes.add(len);
+            return;
+        }
+        if (!offer(new Record(capture, data, received))) {
+            queuedBytes.addAndGet(-len);
+            droppedBytes.add(len);
+        }
+    }
+
+    /**
+     * Returns the number of bytes dropped since the VM started.
+     */
+    long droppedBytes() {
+        return droppedBytes.sum();
+    }
+
+    private boolean offer(Record record) {
+        long pos = enqueuePos.get();
+        while (true) {
+            int index = (int) pos & MASK;
+            long seq = sequences.get(index);
+            if (seq == pos) {
+                if (enqueuePos.compareAndSet(pos, pos + 1)) {
+                    slots.set(index, record);
+                    sequences.set(index, pos + 1);
+                    break;
+                }
+                pos = enqueuePos.get();
+            } else if (seq < pos) {
+                return false;  // full
+            } else {
+                pos = enqueuePos.get();
+            }
+        }
+        Thread t = writer;
+        if (t == null) {
+            startWriter();
+        } else if (parked) {
+            LockSupport.unpark(t);
+        }
+        return true;
+    }
+
+    private Record poll() {
+        int index = (int) dequeuePos & MASK;
+        if (sequences.get(index) != dequeuePos + 1) {
+            return null;  // empty, or the slot is not published yet
+        }
+        Record record = slots.get(index);
+        slots.set(index, null);
+        sequences.set(index, dequeuePos + SLOTS);
+        dequeuePos++;
+        return record;
+    }
+
+    private synchronized void startWriter() {
+        if (writer == null) {
+            Thread t = InnocuousThread.newSystemThread("HttpCapture Writer", this::run);
+            t.setDaemon(true);
+            writer = t;
+            t.start();
+        }
+    }
+
+    private void run() {
+        HttpCapture[] written = new HttpCapture[16];
+        long reportedDrops = 0;
+        while (true) {
+            int n = 0;
+            Record record;
+            while ((record = poll()) != null) {
+                HttpCapture capture = record.capture();
+                try {
+                    if (record.data() != null) {
+                        queuedBytes.addAndGet(-record.data().length);
+                        write(capture, record.data(), record.received());
+                    }
+                    // remember the capture to flush it after the batch
+                    int i = 0;
+                    while (i < n && written[i] != capture) {
+                        i++;
+                    }
+                    if (i == n) {
+                        if (n == written.length) {
+                            flushAll(written, n);
+                            n = 0;
+                        }
+                        written[n++] = capture;
+                    }
+                } catch (IOException | RuntimeException e) {
+                    // the capture file is not writable, nothing to report to
+                }
+            }
+            flushAll(written, n);
+            long drops = droppedBytes.sum();
+            if (drops != reportedDrops) {
+                PlatformLogger logger = PlatformLogger.getLogger(
+                        "sun.net.www.protocol.http.HttpURLConnection");
+                if (logger.isLoggable(PlatformLogger.Level.WARNING)) {
+                    logger.warning("HttpCapture: " + (drops - reportedDrops)
+                            + " bytes dropped, capture queue full");
+                }
+                reportedDrops = drops;
+            }
+            parked = true;
+            if (isEmpty()) {
+                LockSupport.parkNanos(this, 100_000_000L);
+            }
+            parked = false;
+        }
+    }
+
+    // Passes a chunk to its capture, which only takes single bytes, while
+    // holding its lock, so that the lock is taken once per chunk.
+    private static void write(HttpCapture capture, byte[] data, boolean received)
+            throws IOException {
+        synchronized (capture) {
+            if (received) {
+                for (byte b : data) {
+                    capture.received(b);
+                }
+            } else {
+                for (byte b : data) {
+                    capture.sent(b);
+                }
+            }
+        }
+    }
+
+    private boolean isEmpty() {
+        int index = (int) dequeuePos & MASK;
+        return sequences.get(index) != dequeuePos + 1;
+    }
+
+    private static void flushAll(HttpCapture[] captures, int n) {
+        for (int i = 0; i < n; i++) {
+            try {
+                captures[i].flush();
+            } catch (IOException e) {
+            }
+            captures[i] = null;
+        }
+    }
+}
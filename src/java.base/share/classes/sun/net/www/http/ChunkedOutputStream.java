@@ -1,6 +1,6 @@
 
 /*
- * Copyright (c) 2004, 2020, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2004, 2026, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -30,15 +30,31 @@ import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 import sun.nio.cs.US_ASCII;
+import sun.security.action.GetBooleanAction;
 
 /**
  * OutputStream that sends the output to the underlying stream using chunked
  * encoding as specified in RFC 2068.
+ *
+ * Each chunk is written to the underlying stream with a single write.
+ * If the system property sun.net.http.chunkedOutput.gathering is true,
+ * the stream works in gathering mode, which minimizes the number of writes
+ * to, and flushes of, the underlying stream: the underlying stream is
+ * flushed, and checked for errors, once per call to write instead of once
+ * per chunk; the chunk size adapts to the size of the writes, growing up
+ * to MAX_CHUNK_SIZE while writes are larger than chunks, and shrinking
+ * back to the requested size when writes become small; and a write larger
+ * than MAX_CHUNK_SIZE that finds no data buffered is sent as a single
+ * chunk.
  */
 public class ChunkedOutputStream extends OutputStream {
 
     /* Default chunk size (including chunk header) if not specified */
     static final int DEFAULT_CHUNK_SIZE = 4096;
+    /* Maximum chunk size (including chunk header) in gathering mode */
+    static final int MAX_CHUNK_SIZE = 64 * 1024;
+    private static final boolean GATHERING =
+            GetBooleanAction.privilegedGetProperty("sun.net.http.chunkedOutput.gathering");
     private static final byte[] CRLF = {'\r', '\n'};
     private static final int CRLF_SIZE = CRLF.length;
     private static final byte[] FOOTER = CRLF;
@@ -66,6 +82,17 @@ public class ChunkedOutputStream extends OutputStream {
     /* header for a complete Chunk */
     private byte[] completeHeader;
 
+    /* whether the chunk size adapts to the size of the writes */
+    private final boolean gathering;
+    /* the gross chunk size requested, and the current one */
+    private final int minChunkGrossSize;
+    private int chunkGrossSize;
+    /* moving average of the size of the writes, in gathering mode */
+    private int averageWriteSize;
+    /* whether the underlying stream had an error at the end of the last
+     * write, in gathering mode */
+    private boolean failed;
+
     private final Lock writeLock = new ReentrantLock();
 
     /* return the size of the header for a particular chunk size */
@@ -90,11 +117,27 @@ public class ChunkedOutputStream extends OutputStream {
     }
 
     public ChunkedOutputStream(PrintStream o, int size) {
+        this(o, size, GATHERING);
+    }
+
+    ChunkedOutputStream(PrintStream o, int size, boolean gathering) {
         out = o;
 
         if (size <= 0) {
             size = DEFAULT_CHUNK_SIZE;
         }
+        this.gathering = gathering;
+        minChunkGrossSize = size;
+        setChunkSize(size);
+    }
+
+    /* Sets the gross chunk size, keeping the data buffered, if any. The
+     * data buffered must fit in a chunk of the new size. */
+    private void setChunkSize(int size) {
+        chunkGrossSize = size;
+        byte[] oldBuf = buf;
+        int oldHeaderSize = preferedHeaderSize;
+        int buffered = this.size;
 
         /* Adjust the size to cater for the chunk header - eg: if the
          * preferred chunk size is 1k this means the chunk size should
@@ -128,6 +171,46 @@ public class ChunkedOutputStream extends OutputStream {
         /* start with an initial buffer */
         buf = new byte[preferredChunkGrossSize];
         reset();
+
+        if (buffered > 0) {
+            assert buffered < preferredChunkDataSize;
+            System.arraycopy(oldBuf, oldHeaderSize, buf, preferedHeaderSize, buffered);
+            count += buffered;
+            this.size = buffered;
+            spaceInCurrentChunk -= buffered;
+        }
+    }
+
+    /*
+     * Adapts the chunk size to the size of the writes, in gathering mode.
+     * The chunk size doubles while the average write does not fit in a
+     * chunk, and halves, between chunks, when the average write is less
+     * than a quarter of a chunk.
+     */
+    private void adaptChunkSize(int len) {
+        int avg = averageWriteSize;
+        averageWriteSize = avg + ((Math.min(len, MAX_CHUNK_SIZE) - avg) >> 2);
+        if (averageWriteSize > preferredChunkDataSize
+                && chunkGrossSize < MAX_CHUNK_SIZE) {
+            setChunkSize(Math.min(chunkGrossSize * 2, MAX_CHUNK_SIZE));
+        } else if (averageWriteSize < preferredChunkDataSize / 4
+                && chunkGrossSize > minChunkGrossSize && size == 0) {
+            setChunkSize(Math.max(chunkGrossSize / 2, minChunkGrossSize));
+        }
+    }
+
+    /*
+     * Writes the given data as a single chunk, with a single write, while
+     * the internal buffer is empty.
+     */
+    private void writeChunk(byte[] b, int off, int len) {
+        int headerSize = getHeaderSize(len);
+        byte[] chunk = new byte[headerSize + len + FOOTER_SIZE];
+        System.arraycopy(getHeader(len), 0, chunk, 0, headerSize);
+        System.arraycopy(b, off, chunk, headerSize, len);
+        chunk[headerSize + len] = FOOTER[0];
+        chunk[headerSize + len + 1] = FOOTER[1];
+        out.write(chunk, 0, chunk.length);
     }
 
     /*
@@ -142,9 +225,9 @@ public class ChunkedOutputStream extends OutputStream {
      */
      private void flush(boolean flushAll) {
         if (spaceInCurrentChunk == 0) {
-            /* flush a completed chunk to underlying stream */
+            /* write a completed chunk to underlying stream, which is
+             * flushed by the caller */
             out.write(buf, 0, preferredChunkGrossSize);
-            out.flush();
             reset();
         } else if (flushAll){
             /* complete the last chunk and flush it to underlying stream */
@@ -208,6 +291,12 @@ public class ChunkedOutputStream extends OutputStream {
             } else if (len == 0) {
                 return;
             }
+            if (gathering) {
+                if (failed) {
+                    return;
+                }
+                adaptChunkSize(len);
+            }
 
             /* if b[] contains enough data then one loop cycle creates one complete
              * data chunk with a header, body and a footer, and then flushes the
@@ -217,10 +306,19 @@ public class ChunkedOutputStream extends OutputStream {
              */
             int bytesToWrite = len;
             int inputIndex = off;  /* the index of the byte[] currently being written */
+            boolean written = false;  /* whether any chunk was written */
 
             do {
+                /* no data buffered and more than the largest chunk: send
+                 * the data as is, in a chunk of its own */
+                if (gathering && size == 0 && bytesToWrite > MAX_CHUNK_SIZE) {
+                    writeChunk(b, inputIndex, bytesToWrite);
+                    bytesToWrite = 0;
+                    written = true;
+                }
+
                 /* enough data to complete a chunk */
-                if (bytesToWrite >= spaceInCurrentChunk) {
+                else if (bytesToWrite >= spaceInCurrentChunk) {
 
                     /* header */
                     for (int i = 0; i < completeHeader.length; i++)
@@ -238,7 +336,8 @@ public class ChunkedOutputStream extends OutputStream {
                     spaceInCurrentChunk = 0; //chunk is complete
 
                     flush(false);
-                    if (checkError()) {
+                    written = true;
+                    if (!gathering && checkError()) {
                         break;
                     }
                 }
@@ -259,6 +358,16 @@ public class ChunkedOutputStream extends OutputStream {
                     /* do not write header if not enough bytes to build a chunk yet */
                 }
             } while (bytesToWrite > 0);
+
+            /* flush the chunks written, if any, checking for errors once
+             * per write in gathering mode, checkError flushes */
+            if (written) {
+                if (gathering) {
+                    failed = checkError();
+                } else {
+                    out.flush();
+                }
+            }
         } finally {
             writeLock.unlock();
         }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2009, 2026, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -28,45 +28,51 @@ import java.io.*;
 
 /**
  * A Simple FilterOutputStream subclass to capture HTTP traffic.
- * Every byte written is also passed to the HttpCapture class.
+ * Every byte written is also passed to the HttpCapture class, on a
+ * background thread, see {@link CaptureWriter}. If the capture falls
+ * behind, captured bytes are dropped rather than slowing the stream down.
+ * The bytes read from the connection are captured the same way, by
+ * {@link HttpCaptureInputStream}.
  *
  * @author jccollet
  */
 public class HttpCaptureOutputStream extends FilterOutputStream {
     private HttpCapture capture = null;
+    private final CaptureWriter writer = CaptureWriter.get();
+    /* whether the capture is sampled, as per the sampling rate */
+    private final boolean sampled;
 
     public HttpCaptureOutputStream(OutputStream out, HttpCapture cap) {
         super(out);
         capture = cap;
+        sampled = writer.sample(cap);
     }
 
     @Override
     public void write(int b) throws IOException {
-        capture.sent(b);
+        if (sampled) {
+            writer.sent(capture, b);
+        }
         out.write(b);
     }
 
     @Override
     public void write(byte[] ba) throws IOException {
-        for (byte b : ba) {
-            capture.sent(b);
-        }
-        out.write(ba);
+        write(ba, 0, ba.length);
     }
 
     @Override
     public void write(byte[] b, int off, int len) throws IOException {
-        for (int i = off; i < len; i++) {
-            capture.sent(b[i]);
+        if (sampled) {
+            writer.sent(capture, b, off, len);
         }
         out.write(b, off, len);
     }
 
     @Override
     public void flush() throws IOException {
-        try {
-            capture.flush();
-        } catch (IOException iOException) {
+        if (sampled) {
+            writer.flush(capture);
         }
         super.flush();
     }
@@ -0,0 +1,322 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package sun.nio.ch;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import jdk.internal.misc.TerminatingThreadLocal;
+import jdk.internal.misc.VM.BufferPool;
+import sun.security.action.GetPropertyAction;
+
+/**
+ * An arena of direct byte buffers that are recycled by explicit release,
+ * rather than freed when their cleaner runs, for short-lived I/O buffers.
+ *
+ * <p> Buffers are allocated in size classes, the powers of two from
+ * {@value #MIN_CLASS_SIZE} bytes to {@value #MAX_CLASS_SIZE} bytes, with
+ * {@link ByteBuffer#allocateDirect}, so the memory of the arena is
+ * accounted as direct buffer memory and counts against
+ * {@code -XX:MaxDirectMemorySize}; recycling a buffer saves the
+ * reservation, the allocation and the cleaner of a new buffer. Larger
+ * requests are allocated, and freed on release, without being pooled.
+ *
+ * <p> Each thread caches a few released buffers of each size class, in a
+ * cache that is returned to the arena when the thread terminates; for a
+ * virtual thread, the cache is that of its carrier. Beyond that, released
+ * buffers are kept in the shared pool of their class, up to a total of
+ * {@code jdk.nio.directBufferArena.maxPooledSize} bytes, 64 MiB by default.
+ * A buffer released when the pool is full is freed immediately.
+ *
+ * <p> A buffer obtained from the arena must be released at most once, its
+ * duplicates and slices must not be used after it is released, and it must
+ * not be freed by other means.
+ *
+ * <p> The arena is monitored through {@link #BUFFER_POOL}, the buffer pool
+ * named {@code "direct-arena"}: its count and total capacity are those of
+ * the buffers allocated by the arena, whether in use or pooled, and its
+ * memory used is the capacity of the buffers in use. The number of bytes
+ * pooled and the high-water mark of the bytes in use are available from
+ * this class.
+ */
+public final class DirectBufferArena {
+
+    static final int MIN_CLASS_SIZE = 512;
+    static final int MAX_CLASS_SIZE = 1024 * 1024;
+    private static final int MIN_CLASS_SHIFT = Integer.numberOfTrailingZeros(MIN_CLASS_SIZE);
+    private static final int CLASSES =
+            Integer.numberOfTrailingZeros(MAX_CLASS_SIZE) - MIN_CLASS_SHIFT + 1;
+
+    // buffers cached per thread and size class
+    private static final int THREAD_CACHE_SIZE = 4;
+
+    private static final long MAX_POOLED_SIZE = maxPooledSize();
+
+    private static long maxPooledSize() {
+        String s = GetPropertyAction.privilegedGetProperty(
+                "jdk.nio.directBufferArena.maxPooledSize");
+        if (s != null) {
+            try {
+                return Math.max(0, Long.parseLong(s));
+            } catch (NumberFormatException e) {
+                // use default
+            }
+        }
+        return 64L * 1024 * 1024;
+    }
+
+    private static final SizeClass[] SIZE_CLASSES = new SizeClass[CLASSES];
+    static {
+        for (int i = 0; i < CLASSES; i++) {
+            SIZE_CLASSES[i] = new SizeClass(MIN_CLASS_SIZE << i);
+        }
+    }
+
+    private static final AtomicLong COUNT = new AtomicLong();
+    private static final AtomicLong TOTAL_CAPACITY = new AtomicLong();
+    private static final AtomicLong IN_USE = new AtomicLong();
+    private static final AtomicLong POOLED = new AtomicLong();
+    private static final AtomicLong HIGH_WATER = new AtomicLong();
+
+    private static final TerminatingThreadLocal<ThreadCache> THREAD_CACHE =
+            new TerminatingThreadLocal<>() {
+                @Override
+                protected ThreadCache initialValue() {
+                    return new ThreadCache();
+                }
+                @Override
+                protected void threadTerminated(ThreadCache cache) {
+                    cache.returnAll();
+                }
+            };
+
+    private DirectBufferArena() { }
+
+    /**
+     * Returns a direct buffer whose position is zero and whose limit is
+     * the given size. Its capacity may be larger than the given size.
+     */
+    public static ByteBuffer allocate(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("negative size: " + size);
+        }
+        ByteBuffer buf;
+        int sizeClass = sizeClass(size);
+        if (sizeClass < 0) {
+            buf = ByteBuffer.allocateDirect(size);
+        } else {
+            buf = THREAD_CACHE.get().poll(sizeClass);
+            if (buf == null) {
+                buf = SIZE_CLASSES[sizeClass].poll();
+            }
+            if (buf == null) {
+                buf = ByteBuffer.allocateDirect(SIZE_CLASSES[sizeClass].size);
+                COUNT.incrementAndGet();
+                TOTAL_CAPACITY.addAndGet(buf.capacity());
+            } else {
+                buf.clear();
+            }
+            long inUse = IN_USE.addAndGet(buf.capacity());
+            long highWater;
+            while (inUse > (highWater = HIGH_WATER.get())
+                    && !HIGH_WATER.compareAndSet(highWater, inUse)) { }
+        }
+        buf.limit(size);
+        return buf;
+    }
+
+    /**
+     * Releases a buffer obtained from {@link #allocate}, to be reused by a
+     * later allocation, or freed.
+     */
+    public static void release(ByteBuffer buf) {
+        int capacity = buf.capacity();
+        int sizeClass = sizeClass(capacity);
+        if (sizeClass < 0 || SIZE_CLASSES[sizeClass].size != capacity) {
+            // not pooled
+            free(buf);
+            return;
+        }
+        IN_USE.addAndGet(-capacity);
+        if (!THREAD_CACHE.get().offer(sizeClass, buf)) {
+            pool(sizeClass, buf);
+        }
+    }
+
+    // Returns a buffer to the shared pool of its class, or frees it if the
+    // pool is full.
+    private static void pool(int sizeClass, ByteBuffer buf) {
+        int capacity = buf.capacity();
+        if (POOLED.addAndGet(capacity) <= MAX_POOLED_SIZE) {
+            SIZE_CLASSES[sizeClass].offer(buf);
+        } else {
+            POOLED.addAndGet(-capacity);
+            COUNT.decrementAndGet();
+            TOTAL_CAPACITY.addAndGet(-capacity);
+            free(buf);
+        }
+    }
+
+    private static void free(ByteBuffer buf) {
+        var cleaner = ((DirectBuffer) buf).cleaner();
+        if (cleaner != null) {
+            cleaner.clean();
+        }
+    }
+
+    /**
+     * Returns the number of bytes in the shared pools, excluding the
+     * thread caches.
+     */
+    public static long pooledBytes() {
+        return POOLED.get();
+    }
+
+    /**
+     * Returns the capacity of the buffers allocated and not yet released.
+     */
+    public static long inUseBytes() {
+        return IN_USE.get();
+    }
+
+    /**
+     * Returns the highest capacity of the buffers in use at any one time.
+     */
+    public static long highWaterBytes() {
+        return HIGH_WATER.get();
+    }
+
+    // Returns the index of the smallest class that fits the given size,
+    // or -1 if the size is larger than the largest class.
+    private static int sizeClass(int size) {
+        if (size <= MIN_CLASS_SIZE) {
+            return 0;
+        }
+        int sizeClass = 32 - Integer.numberOfLeadingZeros(size - 1) - MIN_CLASS_SHIFT;
+        return sizeClass < CLASSES ? sizeClass : -1;
+    }
+
+    // A shared pool of the released buffers of a size class
+    private static final class SizeClass {
+        final int size;
+        private final ReentrantLock lock = new ReentrantLock();
+        private ByteBuffer[] buffers = new ByteBuffer[8];
+        private int count;
+
+        SizeClass(int size) {
+            this.size = size;
+        }
+
+        ByteBuffer poll() {
+            lock.lock();
+            try {
+                if (count == 0) {
+                    return null;
+                }
+                ByteBuffer buf = buffers[--count];
+                buffers[count] = null;
+                POOLED.addAndGet(-buf.capacity());
+                return buf;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void offer(ByteBuffer buf) {
+            lock.lock();
+            try {
+                if (count == buffers.length) {
+                    ByteBuffer[] newBuffers = new ByteBuffer[count * 2];
+                    System.arraycopy(buffers, 0, newBuffers, 0, count);
+                    buffers = newBuffers;
+                }
+                buffers[count++] = buf;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // The buffers cached by a thread
+    private static final class ThreadCache {
+        private final ByteBuffer[][] buffers = new ByteBuffer[CLASSES][THREAD_CACHE_SIZE];
+        private final int[] counts = new int[CLASSES];
+
+        ByteBuffer poll(int sizeClass) {
+            int n = counts[sizeClass];
+            if (n == 0) {
+                return null;
+            }
+            counts[sizeClass] = --n;
+            ByteBuffer buf = buffers[sizeClass][n];
+            buffers[sizeClass][n] = null;
+            return buf;
+        }
+
+        boolean offer(int sizeClass, ByteBuffer buf) {
+            int n = counts[sizeClass];
+            if (n == THREAD_CACHE_SIZE) {
+                return false;
+            }
+            buffers[sizeClass][n] = buf;
+            counts[sizeClass] = n + 1;
+            return true;
+        }
+
+        void returnAll() {
+            for (int i = 0; i < CLASSES; i++) {
+                ByteBuffer buf;
+                while ((buf = poll(i)) != null) {
+                    pool(i, buf);
+                }
+            }
+        }
+    }
+
+    /**
+     * The buffer pool of the arena, to be reported by the
+     * {@code BufferPoolMXBean} named {@code "direct-arena"}.
+     */
+    public static final BufferPool BUFFER_POOL = new BufferPool() {
+        @Override
+        public String getName() {
+            return "direct-arena";
+        }
+        @Override
+        public long getCount() {
+            return COUNT.get();
+        }
+        @Override
+        public long getTotalCapacity() {
+            return TOTAL_CAPACITY.get();
+        }
+        @Override
+        public long getMemoryUsed() {
+            return IN_USE.get();
+        }
+    };
+}
@@ -1,6 +1,6 @@
 
 /*
- * Copyright (c) 2000, 2019, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2000, 2026, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -34,12 +34,21 @@ import java.nio.charset.CoderResult;
 import java.nio.charset.CharacterCodingException;
 import java.nio.charset.MalformedInputException;
 
+import jdk.internal.misc.Unsafe;
 
 abstract class UnicodeDecoder extends CharsetDecoder {
 
     protected static final char BYTE_ORDER_MARK = (char) 0xfeff;
     protected static final char REVERSED_MARK = (char) 0xfffe;
 
+    private static final Unsafe U = Unsafe.getUnsafe();
+
+    // lane masks of four chars in a long
+    private static final long SURROGATE_MASK = 0xF800F800F800F800L;
+    private static final long SURROGATE_BITS = 0xD800D800D800D800L;
+    private static final long LANE_ONES      = 0x0001000100010001L;
+    private static final long LANE_HIGHS     = 0x8000800080008000L;
+
     protected static final int NONE = 0;
     protected static final int BIG = 1;
     protected static final int LITTLE = 2;
@@ -66,30 +75,31 @@ abstract class UnicodeDecoder extends CharsetDecoder {
     }
 
     protected CoderResult decodeLoop(ByteBuffer src, CharBuffer dst) {
+        // Byte Order Mark interpretation
+        if (currentByteOrder == NONE && src.remaining() > 1) {
+            int pos = src.position();
+            char c = (char)(((src.get(pos) & 0xff) << 8) | (src.get(pos + 1) & 0xff));
+            if (c == BYTE_ORDER_MARK) {
+                currentByteOrder = BIG;
+                src.position(pos + 2);
+            } else if (c == REVERSED_MARK) {
+                currentByteOrder = LITTLE;
+                src.position(pos + 2);
+            } else {
+                currentByteOrder = defaultByteOrder;
+            }
+        }
+
+        if (src.hasArray() && dst.hasArray()) {
+            decodeArrayLoop(src, dst);
+        }
+
         int mark = src.position();
 
         try {
             while (src.remaining() > 1) {
                 int b1 = src.get() & 0xff;
                 int b2 = src.get() & 0xff;
-
-                // Byte Order Mark interpretation
-                if (currentByteOrder == NONE) {
-                    char c = (char)((b1 << 8) | b2);
-                    if (c == BYTE_ORDER_MARK) {
-                        currentByteOrder = BIG;
-                        mark += 2;
-                        continue;
-                    } else if (c == REVERSED_MARK) {
-                        currentByteOrder = LITTLE;
-                        mark += 2;
-                        continue;
-                    } else {
-                        currentByteOrder = defaultByteOrder;
-                        // FALL THROUGH to process b1, b2 normally
-                    }
-                }
-
                 char c = decode(b1, b2);
 
                 // Surrogates
@@ -124,6 +134,74 @@ abstract class UnicodeDecoder extends CharsetDecoder {
         }
     }
 
+    /**
+     * Decodes the well-formed input of array-backed buffers four chars at a
+     * time, reading each block of eight bytes as a long in the current byte
+     * order and checking all four chars for surrogates at once. A block that
+     * holds a surrogate is decoded one char, or surrogate pair, at a time.
+     * Stops at malformed input, and when fewer than eight bytes, or fewer
+     * than four chars of space, remain, leaving the rest to the byte-wise
+     * loop, which reports the result.
+     */
+    private void decodeArrayLoop(ByteBuffer src, CharBuffer dst) {
+        byte[] sa = src.array();
+        int soff = src.arrayOffset();
+        int sp = soff + src.position();
+        char[] da = dst.array();
+        int doff = dst.arrayOffset();
+        int dp = doff + dst.position();
+
+        // the chars that are both available and fit in the destination
+        int n = Math.min((src.limit() - src.position()) >> 1,
+                         dst.limit() - dst.position());
+        int sl = sp + (n << 1);
+        boolean big = currentByteOrder == BIG;
+
+        while (sp <= sl - 8) {
+            long v = U.getLongUnaligned(sa, Unsafe.ARRAY_BYTE_BASE_OFFSET + sp, big);
+            if (!hasSurrogate(v)) {
+                if (big) {
+                    da[dp]     = (char)(v >>> 48);
+                    da[dp + 1] = (char)(v >>> 32);
+                    da[dp + 2] = (char)(v >>> 16);
+                    da[dp + 3] = (char)v;
+                } else {
+                    da[dp]     = (char)v;
+                    da[dp + 1] = (char)(v >>> 16);
+                    da[dp + 2] = (char)(v >>> 32);
+                    da[dp + 3] = (char)(v >>> 48);
+                }
+                sp += 8;
+                dp += 4;
+                continue;
+            }
+            char c = U.getCharUnaligned(sa, Unsafe.ARRAY_BYTE_BASE_OFFSET + sp, big);
+            if (Character.isHighSurrogate(c)) {
+                char c2 = U.getCharUnaligned(sa, Unsafe.ARRAY_BYTE_BASE_OFFSET + sp + 2, big);
+                if (!Character.isLowSurrogate(c2))
+                    break;
+                da[dp]     = c;
+                da[dp + 1] = c2;
+                sp += 4;
+                dp += 2;
+            } else if (Character.isLowSurrogate(c)) {
+                break;
+            } else {
+                da[dp++] = c;
+                sp += 2;
+            }
+        }
+        src.position(sp - soff);
+        dst.position(dp - doff);
+    }
+
+    // Returns true if any of the four chars in the given long is a surrogate
+    private static boolean hasSurrogate(long v) {
+        // a lane is zero if and only if its char is a surrogate
+        long x = (v & SURROGATE_MASK) ^ SURROGATE_BITS;
+        return ((x - LANE_ONES) & ~x & LANE_HIGHS) != 0;
+    }
+
     protected void implReset() {
         currentByteOrder = expectedByteOrder;
     }
@@ -1,6 +1,6 @@
 
 /*
- * Copyright (c) 2003, 2022, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2003, 2026, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -27,6 +27,8 @@
 package sun.security.jca;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 import java.security.AccessController;
 import java.security.PrivilegedAction;
@@ -34,6 +36,8 @@ import java.security.Provider;
 import java.security.Provider.Service;
 import java.security.Security;
 
+import sun.security.action.GetPropertyAction;
+
 /**
  * List of Providers. Used to represent the provider preferences.
  *
@@ -56,6 +60,18 @@ import java.security.Security;
  * cloning and synchronization in consumers. The add() and remove() style
  * methods are static in order to avoid confusion about the immutability.
  *
+ * If the system property jdk.security.provider.lookupCache is set to
+ * true, each ProviderList caches the services found for each type and
+ * algorithm, as an immutable list in precedence order, so that repeated
+ * lookups neither walk nor load the providers. As instances are
+ * immutable, a list returned by add(), insertAt() or remove() starts
+ * with an empty cache, and the cache of the previous list is discarded
+ * with it. The first lookup that misses loads all providers of the list,
+ * and nothing is cached if one of them cannot be loaded. Changes made to
+ * the services of a Provider after it has been looked up are not seen
+ * by the cache, which is why it is not enabled by default. The hits and
+ * misses of all caches are counted, see cacheHits() and cacheMisses().
+ *
  * @author  Andreas Sterbenz
  * @since   1.5
  */
@@ -71,6 +87,17 @@ public final class ProviderList {
     // constant for an ProviderList with no elements
     static final ProviderList EMPTY = new ProviderList(PC0, true);
 
+    // whether lookups are cached, see the class description
+    private static final boolean LOOKUP_CACHE = Boolean.parseBoolean(
+            GetPropertyAction.privilegedGetProperty(
+                    "jdk.security.provider.lookupCache"));
+
+    // maximum number of lookups cached per ProviderList
+    static final int MAX_CACHE_SIZE = 1024;
+
+    private static final LongAdder CACHE_HITS = new LongAdder();
+    private static final LongAdder CACHE_MISSES = new LongAdder();
+
     // list of all jdk.security.provider.preferred entries
     private static PreferredList preferredPropList = null;
 
@@ -150,6 +177,10 @@ public final class ProviderList {
     // flag indicating whether all configs have been loaded successfully
     private volatile boolean allLoaded;
 
+    // services found, keyed by alternating types and algorithms,
+    // or null if lookups are not cached
+    private final Map<List<String>, List<Service>> cache;
+
     // List returned by providers()
     private final List<Provider> userList = new AbstractList<>() {
         public int size() {
@@ -165,8 +196,14 @@ public final class ProviderList {
      * Create a new ProviderList from an array of configs
      */
     private ProviderList(ProviderConfig[] configs, boolean allLoaded) {
+        this(configs, allLoaded, LOOKUP_CACHE);
+    }
+
+    private ProviderList(ProviderConfig[] configs, boolean allLoaded,
+            boolean cached) {
         this.configs = configs;
         this.allLoaded = allLoaded;
+        this.cache = cached ? new ConcurrentHashMap<>() : null;
     }
 
     /**
@@ -203,6 +240,7 @@ public final class ProviderList {
             i++;
         }
         configs = configList.toArray(PC0);
+        cache = LOOKUP_CACHE ? new ConcurrentHashMap<>() : null;
 
         // Load config entries for use when getInstance is called
         entry = Security.getProperty("jdk.security.provider.preferred");
@@ -257,7 +295,9 @@ public final class ProviderList {
             newConfigs.add(newConfig);
         }
         ProviderConfig[] configArray = newConfigs.toArray(PC0);
-        return new ProviderList(configArray, false);
+        // loading all providers to cache lookups would defeat the
+        // purpose of the list
+        return new ProviderList(configArray, false, false);
     }
 
     public int size() {
@@ -366,6 +406,13 @@ public final class ProviderList {
      * algorithm.
      */
     public Service getService(String type, String name) {
+        if (cache != null) {
+            List<Service> services = cachedServices(type, name);
+            if (services != null) {
+                return services.isEmpty() ? null : services.get(0);
+            }
+        }
+
         ArrayList<PreferredEntry> pList;
         int i;
 
@@ -401,6 +448,12 @@ public final class ProviderList {
      * The List returned is NOT thread safe.
      */
     public List<Service> getServices(String type, String algorithm) {
+        if (cache != null) {
+            List<Service> services = cachedServices(type, algorithm);
+            if (services != null) {
+                return services;
+            }
+        }
         return new ServiceList(type, algorithm);
     }
 
@@ -419,9 +472,80 @@ public final class ProviderList {
     }
 
     public List<Service> getServices(List<ServiceId> ids) {
+        if (cache != null) {
+            List<String> key = new ArrayList<>(ids.size() * 2);
+            for (ServiceId id : ids) {
+                if (id.type == null || id.algorithm == null) {
+                    key = null;
+                    break;
+                }
+                key.add(id.type);
+                key.add(id.algorithm);
+            }
+            List<Service> services = cachedServices(key, ids);
+            if (services != null) {
+                return services;
+            }
+        }
         return new ServiceList(ids);
     }
 
+    // Returns the cached services of the given type and algorithm, or
+    // null if they cannot be cached.
+    private List<Service> cachedServices(String type, String algorithm) {
+        return cachedServices((type == null || algorithm == null)
+                ? null : List.of(type, algorithm), null);
+    }
+
+    // Returns the cached services of the given key, looking them up with
+    // the given ids, or with the type and algorithm of the key if ids is
+    // null, on a miss. Returns null if they cannot be cached: if the key
+    // is null, the cache is full, or a provider fails to load. Every
+    // lookup not served from the cache is counted as a miss.
+    private List<Service> cachedServices(List<String> key,
+            List<ServiceId> ids) {
+        List<Service> services = (key == null) ? null : cache.get(key);
+        if (services != null) {
+            CACHE_HITS.increment();
+            return services;
+        }
+        CACHE_MISSES.increment();
+        if (key == null || cache.size() >= MAX_CACHE_SIZE
+                || loadAll() != configs.length) {
+            return null;
+        }
+        ServiceList list = (ids == null)
+                ? new ServiceList(key.get(0), key.get(1))
+                : new ServiceList(ids);
+        services = List.copyOf(list);
+        List<Service> previous = cache.putIfAbsent(key, services);
+        return (previous != null) ? previous : services;
+    }
+
+    /**
+     * Returns the number of lookups served from the caches of all
+     * ProviderLists since the VM started.
+     */
+    public static long cacheHits() {
+        return CACHE_HITS.sum();
+    }
+
+    /**
+     * Returns the number of lookups not served from the caches of all
+     * ProviderLists since the VM started, whether or not they could then
+     * be cached.
+     */
+    public static long cacheMisses() {
+        return CACHE_MISSES.sum();
+    }
+
+    /**
+     * Returns whether lookups are cached.
+     */
+    public static boolean isCacheEnabled() {
+        return LOOKUP_CACHE;
+    }
+
     /**
      * Inner class for a List of Services. Custom List implementation in
      * order to delay Provider initialization and lookup.
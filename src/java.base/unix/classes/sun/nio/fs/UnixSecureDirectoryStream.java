@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2008, 2022, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2008, 2026, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -27,10 +27,18 @@ package sun.nio.fs;
 
 import java.nio.file.*;
 import java.nio.file.attribute.*;
+import java.nio.channels.FileChannel;
 import java.nio.channels.SeekableByteChannel;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.io.IOException;
+import java.security.AccessControlContext;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
 
 import static sun.nio.fs.UnixNativeDispatcher.*;
 import static sun.nio.fs.UnixConstants.*;
@@ -42,6 +50,17 @@ import static sun.nio.fs.UnixConstants.*;
 class UnixSecureDirectoryStream
     implements SecureDirectoryStream<Path>
 {
+    // number of files deleted or copied by one task of a tree operation
+    private static final int FILE_BATCH_SIZE = 256;
+
+    // maximum number of exceptions suppressed by the exception thrown by
+    // a tree operation
+    private static final int MAX_SUPPRESSED = 16;
+
+    // maximum number of tasks of a tree operation forked, and not yet
+    // joined, by one task
+    private static final int MAX_FORKED = 64;
+
     private final UnixDirectoryStream ds;
     private final int dfd;
 
@@ -73,6 +92,86 @@ class UnixSecureDirectoryStream
         return ds.iterator(this);
     }
 
+    /**
+     * An entry of a directory: its name, relative to the directory, and its
+     * attributes, which are those of the link if the entry is a symbolic link.
+     */
+    record Entry(Path name, PosixFileAttributes attributes) { }
+
+    /**
+     * Returns an iterator over the entries of this directory together with
+     * their attributes, for use by the tree operations below.
+     *
+     * The attributes of each entry are read as the entry is returned, with
+     * one fstatat call relative to the directory file descriptor, without
+     * following symbolic links, as by {@link #getFileAttributeView(Path,
+     * Class, LinkOption...)}. An entry that is removed before its
+     * attributes are read is skipped, and no entry is returned once the
+     * stream is closed. As with {@link #iterator()}, the iterator may be
+     * obtained only once, and the stream filter, if any, applies.
+     *
+     * The file tree walker of {@link Files} does not use this method, nor
+     * the tree operations below; they are reachable only from within this
+     * package.
+     */
+    Iterator<Entry> entries() {
+        return new EntryIterator(ds.iterator(this));
+    }
+
+    private class EntryIterator implements Iterator<Entry> {
+        private final Iterator<Path> names;
+        private Entry next;
+
+        EntryIterator(Iterator<Path> names) {
+            this.names = names;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && names.hasNext()) {
+                next = readEntry((UnixPath)names.next().getFileName());
+            }
+            return next != null;
+        }
+
+        @Override
+        public Entry next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            Entry entry = next;
+            next = null;
+            return entry;
+        }
+
+        // Returns the entry of the given name, or null if the entry was
+        // removed or the stream is closed
+        private Entry readEntry(UnixPath name) {
+            // permission check using name resolved against original path
+            // of directory
+            @SuppressWarnings("removal")
+            SecurityManager sm = System.getSecurityManager();
+            if (sm != null) {
+                ds.directory().resolve(name).checkRead();
+                sm.checkPermission(new RuntimePermission("accessUserInformation"));
+            }
+
+            ds.readLock().lock();
+            try {
+                if (!ds.isOpen())
+                    return null;
+                try {
+                    return new Entry(name, UnixFileAttributes.get(dfd, name, false));
+                } catch (UnixException x) {
+                    if (x.errno() != ENOENT)
+                        throw new DirectoryIteratorException(x.asIOException(name));
+                    return null;
+                }
+            } finally {
+                ds.readLock().unlock();
+            }
+        }
+    }
+
     private UnixPath getName(Path obj) {
         if (obj == null)
             throw new NullPointerException();
@@ -271,6 +370,542 @@ class UnixSecureDirectoryStream
         }
     }
 
+    /**
+     * Reads the attributes of a file in this directory, without following
+     * symbolic links.
+     */
+    private UnixFileAttributes readAttributes(UnixPath file) throws IOException {
+        // permission check using name resolved against original path of directory
+        @SuppressWarnings("removal")
+        SecurityManager sm = System.getSecurityManager();
+        if (sm != null) {
+            ds.directory().resolve(file).checkRead();
+        }
+
+        ds.readLock().lock();
+        try {
+            if (!ds.isOpen())
+                throw new ClosedDirectoryStreamException();
+            try {
+                return UnixFileAttributes.get(dfd, file, false);
+            } catch (UnixException x) {
+                x.rethrowAsIOException(file);
+                return null;    // keep compiler happy
+            }
+        } finally {
+            ds.readLock().unlock();
+        }
+    }
+
+    /**
+     * Deletes a file in this directory and, if it is a directory, the tree
+     * below it, without following symbolic links.
+     *
+     * Each directory of the tree is opened relative to the file descriptor
+     * of its parent, and its entries are deleted relative to its own file
+     * descriptor, so the deletion cannot escape the tree when a directory is
+     * concurrently replaced by a symbolic link. Subdirectories, and batches
+     * of up to {@value #FILE_BATCH_SIZE} files, are deleted in parallel by
+     * tasks of a fork/join pool dedicated to tree operations, so that their
+     * blocking I/O does not hold up the common pool. The tasks run with the
+     * access control context of the caller. Entries removed concurrently are
+     * ignored. When an entry cannot be deleted, the other entries are still
+     * deleted, and the first failure is thrown at the end, with some of the
+     * later ones suppressed.
+     */
+    void deleteTree(Path obj) throws IOException {
+        UnixPath file = getName(obj);
+        if (!readAttributes(file).isDirectory()) {
+            deleteFile(file);
+            return;
+        }
+        DeleteTree task = new DeleteTree(this, file);
+        task.context(callerContext());
+        TreePool.POOL.invoke(task);
+        task.rethrow();
+    }
+
+    /**
+     * Copies a file in this directory to a file in another (open) directory
+     * and, if it is a directory, the tree below it, without following
+     * symbolic links: a symbolic link is copied as a link. The permissions
+     * of the files and directories are copied, modified by the umask.
+     *
+     * As with {@link #deleteTree}, the tree is walked relative to directory
+     * file descriptors, and subdirectories and batches of files are copied
+     * in parallel. The copy is made under a temporary name in the target
+     * directory, and then moved to the target name, so a partial copy is
+     * never visible under that name; if the copy fails, the partial copy is
+     * deleted. The target file must not exist.
+     */
+    void copyTree(Path fromObj, SecureDirectoryStream<Path> dir, Path toObj)
+        throws IOException
+    {
+        UnixPath from = getName(fromObj);
+        UnixPath to = getName(toObj);
+        if (dir == null)
+            throw new NullPointerException();
+        if (!(dir instanceof UnixSecureDirectoryStream))
+            throw new ProviderMismatchException();
+        UnixSecureDirectoryStream that = (UnixSecureDirectoryStream)dir;
+
+        UnixFileAttributes attrs = readAttributes(from);
+        try {
+            that.readAttributes(to);
+            throw new FileAlreadyExistsException(to.toString());
+        } catch (NoSuchFileException ignore) { }
+
+        UnixPath tmp = (UnixPath)to.resolveSibling(".copy-" +
+            Long.toHexString(ThreadLocalRandom.current().nextLong()));
+        CopyTree task = new CopyTree(this, from, attrs, that, tmp);
+        task.context(callerContext());
+        TreePool.POOL.invoke(task);
+        if (task.failure == null) {
+            try {
+                that.move(tmp, that, to);
+                return;
+            } catch (IOException x) {
+                task.failed(x);
+            }
+        }
+        try {
+            that.deleteTree(tmp);
+        } catch (NoSuchFileException ignore) {
+        } catch (IOException x) {
+            task.failed(x);
+        }
+        task.rethrow();
+    }
+
+    // Returns the access control context of the caller, or null if there
+    // is no security manager
+    @SuppressWarnings("removal")
+    private static AccessControlContext callerContext() {
+        return (System.getSecurityManager() != null) ? AccessController.getContext() : null;
+    }
+
+    /**
+     * The pool of the tasks of tree operations, whose threads are daemon
+     * threads that are started on demand.
+     */
+    private static class TreePool {
+        static final ForkJoinPool POOL = new ForkJoinPool(
+            Math.max(2, Runtime.getRuntime().availableProcessors()),
+            pool -> {
+                ForkJoinWorkerThread t =
+                    ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                t.setName("SecureDirectoryStream-" + t.getName());
+                return t;
+            },
+            null, false);
+    }
+
+    /**
+     * A task of a tree operation, which records the failures of the
+     * operation, rather than completing abnormally, so that one failure
+     * does not stop the operation on the rest of the tree. The task runs
+     * with the access control context of the caller of the operation, if
+     * there is a security manager.
+     */
+    @SuppressWarnings("serial")
+    private abstract static class TreeTask extends RecursiveAction {
+        // tasks forked and not yet joined, oldest first
+        private final ArrayDeque<TreeTask> forked = new ArrayDeque<>();
+        private RuntimeException forkedException;
+        @SuppressWarnings("removal")
+        private AccessControlContext acc;
+        IOException failure;
+
+        @SuppressWarnings("removal")
+        final void context(AccessControlContext acc) {
+            this.acc = acc;
+        }
+
+        @Override
+        @SuppressWarnings("removal")
+        protected final void compute() {
+            if (acc == null) {
+                run();
+            } else {
+                AccessController.doPrivileged((PrivilegedAction<Void>) () -> {
+                    run();
+                    return null;
+                }, acc);
+            }
+        }
+
+        abstract void run();
+
+        /**
+         * Forks a task, after joining the forked tasks that are done, and
+         * the oldest ones if {@value #MAX_FORKED} tasks are pending, so that
+         * tasks, and their batches, are released once they complete.
+         */
+        final void fork(TreeTask task) {
+            TreeTask t;
+            while ((t = forked.peekFirst()) != null
+                    && (t.isDone() || forked.size() >= MAX_FORKED)) {
+                join(forked.pollFirst());
+            }
+            task.context(acc);
+            forked.addLast(task);
+            task.fork();
+        }
+
+        private void join(TreeTask task) {
+            try {
+                task.join();
+                if (task.failure != null)
+                    failed(task.failure);
+            } catch (RuntimeException x) {
+                if (forkedException == null) {
+                    forkedException = x;
+                } else {
+                    forkedException.addSuppressed(x);
+                }
+            }
+        }
+
+        final void failed(IOException x) {
+            if (failure == null) {
+                failure = x;
+            } else if (failure.getSuppressed().length < MAX_SUPPRESSED) {
+                failure.addSuppressed(x);
+            }
+        }
+
+        /**
+         * Waits for the forked tasks to complete, collecting their failures.
+         * Must be called before closing the directories they use.
+         */
+        final void joinForked() {
+            TreeTask task;
+            while ((task = forked.pollFirst()) != null) {
+                join(task);
+            }
+            RuntimeException exc = forkedException;
+            forkedException = null;
+            if (exc != null)
+                throw exc;
+        }
+
+        final void close(UnixSecureDirectoryStream dir) {
+            try {
+                dir.close();
+            } catch (IOException x) {
+                failed(x);
+            }
+        }
+
+        final void rethrow() throws IOException {
+            if (failure != null)
+                throw failure;
+        }
+    }
+
+    /**
+     * Deletes a directory in a parent directory, and the tree below it.
+     */
+    @SuppressWarnings("serial")
+    private static class DeleteTree extends TreeTask {
+        private final UnixSecureDirectoryStream parent;
+        private final Path name;
+
+        DeleteTree(UnixSecureDirectoryStream parent, Path name) {
+            this.parent = parent;
+            this.name = name;
+        }
+
+        @Override
+        void run() {
+            UnixSecureDirectoryStream dir;
+            try {
+                dir = (UnixSecureDirectoryStream)
+                    parent.newDirectoryStream(name, LinkOption.NOFOLLOW_LINKS);
+            } catch (NoSuchFileException ignore) {
+                return;
+            } catch (IOException x) {
+                failed(x);
+                return;
+            }
+            try {
+                deleteEntries(dir);
+            } finally {
+                try {
+                    joinForked();
+                } finally {
+                    close(dir);
+                }
+            }
+            if (failure == null) {
+                try {
+                    parent.deleteDirectory(name);
+                } catch (NoSuchFileException ignore) {
+                } catch (IOException x) {
+                    failed(x);
+                }
+            }
+        }
+
+        private void deleteEntries(UnixSecureDirectoryStream dir) {
+            Path[] files = new Path[FILE_BATCH_SIZE];
+            int n = 0;
+            try {
+                Iterator<Entry> entries = dir.entries();
+                while (entries.hasNext()) {
+                    Entry entry = entries.next();
+                    if (entry.attributes().isDirectory()) {
+                        fork(new DeleteTree(dir, entry.name()));
+                    } else {
+                        files[n++] = entry.name();
+                        if (n == FILE_BATCH_SIZE) {
+                            fork(new DeleteFiles(dir, files));
+                            files = new Path[FILE_BATCH_SIZE];
+                            n = 0;
+                        }
+                    }
+                }
+            } catch (DirectoryIteratorException x) {
+                failed(x.getCause());
+            }
+            // delete the last batch in this task
+            deleteFiles(this, dir, files);
+        }
+    }
+
+    /**
+     * Deletes a batch of files in a directory.
+     */
+    @SuppressWarnings("serial")
+    private static class DeleteFiles extends TreeTask {
+        private final UnixSecureDirectoryStream dir;
+        private final Path[] files;
+
+        DeleteFiles(UnixSecureDirectoryStream dir, Path[] files) {
+            this.dir = dir;
+            this.files = files;
+        }
+
+        @Override
+        void run() {
+            deleteFiles(this, dir, files);
+        }
+    }
+
+    // Deletes the files of a batch, which ends at the first null element
+    private static void deleteFiles(TreeTask task,
+                                    UnixSecureDirectoryStream dir,
+                                    Path[] files)
+    {
+        for (int i = 0; i < files.length && files[i] != null; i++) {
+            try {
+                dir.deleteFile(files[i]);
+            } catch (NoSuchFileException ignore) {
+            } catch (IOException x) {
+                task.failed(x);
+            }
+        }
+    }
+
+    /**
+     * Copies a file in a source directory to a target directory and, if it
+     * is a directory, the tree below it.
+     */
+    @SuppressWarnings("serial")
+    private static class CopyTree extends TreeTask {
+        private final UnixSecureDirectoryStream source;
+        private final Path name;
+        private final PosixFileAttributes attrs;
+        private final UnixSecureDirectoryStream target;
+        private final Path targetName;
+
+        CopyTree(UnixSecureDirectoryStream source,
+                 Path name,
+                 PosixFileAttributes attrs,
+                 UnixSecureDirectoryStream target,
+                 Path targetName)
+        {
+            this.source = source;
+            this.name = name;
+            this.attrs = attrs;
+            this.target = target;
+            this.targetName = targetName;
+        }
+
+        @Override
+        void run() {
+            try {
+                if (attrs.isDirectory()) {
+                    copyDirectory();
+                } else {
+                    copyFile(source, name, attrs, target, targetName);
+                }
+            } catch (IOException x) {
+                failed(x);
+            }
+        }
+
+        private void copyDirectory() throws IOException {
+            // directories are created by path, there is no mkdirat; the new
+            // directory is then opened without following links, and writable
+            // by its owner until its entries are copied
+            UnixPath path = target.ds.directory().resolve(targetName);
+            @SuppressWarnings("removal")
+            SecurityManager sm = System.getSecurityManager();
+            if (sm != null) {
+                path.checkWrite();
+            }
+            int mode = UnixFileModeAttribute.toUnixMode(attrs.permissions());
+            try {
+                mkdir(path, mode | S_IRUSR | S_IWUSR | S_IXUSR);
+            } catch (UnixException x) {
+                x.rethrowAsIOException(path);
+            }
+
+            UnixSecureDirectoryStream src = (UnixSecureDirectoryStream)
+                source.newDirectoryStream(name, LinkOption.NOFOLLOW_LINKS);
+            try {
+                UnixSecureDirectoryStream dst = (UnixSecureDirectoryStream)
+                    target.newDirectoryStream(targetName, LinkOption.NOFOLLOW_LINKS);
+                try {
+                    try {
+                        copyEntries(src, dst);
+                    } finally {
+                        joinForked();
+                    }
+                    if (failure == null) {
+                        dst.getFileAttributeView(PosixFileAttributeView.class)
+                            .setPermissions(attrs.permissions());
+                    }
+                } finally {
+                    close(dst);
+                }
+            } finally {
+                close(src);
+            }
+        }
+
+        private void copyEntries(UnixSecureDirectoryStream src,
+                                 UnixSecureDirectoryStream dst)
+        {
+            Entry[] files = new Entry[FILE_BATCH_SIZE];
+            int n = 0;
+            try {
+                Iterator<Entry> entries = src.entries();
+                while (entries.hasNext()) {
+                    Entry entry = entries.next();
+                    if (entry.attributes().isDirectory()) {
+                        fork(new CopyTree(src, entry.name(), entry.attributes(),
+                                          dst, entry.name()));
+                    } else {
+                        files[n++] = entry;
+                        if (n == FILE_BATCH_SIZE) {
+                            fork(new CopyFiles(src, files, dst));
+                            files = new Entry[FILE_BATCH_SIZE];
+                            n = 0;
+                        }
+                    }
+                }
+            } catch (DirectoryIteratorException x) {
+                failed(x.getCause());
+            }
+            // copy the last batch in this task
+            copyFiles(this, src, files, dst);
+        }
+    }
+
+    /**
+     * Copies a batch of files, which are not directories, in a source
+     * directory to a target directory.
+     */
+    @SuppressWarnings("serial")
+    private static class CopyFiles extends TreeTask {
+        private final UnixSecureDirectoryStream source;
+        private final Entry[] files;
+        private final UnixSecureDirectoryStream target;
+
+        CopyFiles(UnixSecureDirectoryStream source,
+                  Entry[] files,
+                  UnixSecureDirectoryStream target)
+        {
+            this.source = source;
+            this.files = files;
+            this.target = target;
+        }
+
+        @Override
+        void run() {
+            copyFiles(this, source, files, target);
+        }
+    }
+
+    // Copies the files of a batch, which ends at the first null element
+    private static void copyFiles(TreeTask task,
+                                  UnixSecureDirectoryStream source,
+                                  Entry[] files,
+                                  UnixSecureDirectoryStream target)
+    {
+        for (int i = 0; i < files.length && files[i] != null; i++) {
+            Entry entry = files[i];
+            try {
+                copyFile(source, entry.name(), entry.attributes(),
+                         target, entry.name());
+            } catch (IOException x) {
+                task.failed(x);
+            }
+        }
+    }
+
+    // Copies a regular file or a symbolic link
+    private static void copyFile(UnixSecureDirectoryStream source,
+                                 Path name,
+                                 PosixFileAttributes attrs,
+                                 UnixSecureDirectoryStream target,
+                                 Path targetName)
+        throws IOException
+    {
+        if (attrs.isRegularFile()) {
+            FileAttribute<?> perms =
+                PosixFilePermissions.asFileAttribute(attrs.permissions());
+            try (FileChannel in = (FileChannel)source.newByteChannel(name,
+                     Set.of(StandardOpenOption.READ, LinkOption.NOFOLLOW_LINKS));
+                 FileChannel out = (FileChannel)target.newByteChannel(targetName,
+                     Set.of(StandardOpenOption.WRITE, StandardOpenOption.CREATE_NEW,
+                            LinkOption.NOFOLLOW_LINKS),
+                     perms))
+            {
+                long size = in.size();
+                long position = 0L;
+                while (position < size) {
+                    long n = in.transferTo(position, size - position, out);
+                    if (n <= 0)
+                        break;
+                    position += n;
+                }
+            }
+        } else if (attrs.isSymbolicLink()) {
+            // there is no readlinkat or symlinkat, use paths
+            UnixPath link = source.ds.directory().resolve(name);
+            UnixPath newLink = target.ds.directory().resolve(targetName);
+            @SuppressWarnings("removal")
+            SecurityManager sm = System.getSecurityManager();
+            if (sm != null) {
+                sm.checkPermission(new LinkPermission("symbolic"));
+                link.checkRead();
+                newLink.checkWrite();
+            }
+            try {
+                symlink(readlink(link), newLink);
+            } catch (UnixException x) {
+                x.rethrowAsIOException(link, newLink);
+            }
+        } else {
+            throw new FileSystemException(
+                source.ds.directory().resolve(name).toString(), null,
+                "Not a regular file, directory or symbolic link");
+        }
+    }
+
     @SuppressWarnings("unchecked")
     private <V extends FileAttributeView> V getFileAttributeViewImpl(UnixPath file,
                                                                      Class<V> type,
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package sun.management;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+
+import sun.security.jca.ProviderList;
+
+/**
+ * The {@code jdk.security.jca:type=ProviderListCache} MBean, which exposes
+ * the statistics of the security provider lookup cache, see
+ * {@link ProviderList}: the {@code Enabled}, {@code Hits}, {@code Misses}
+ * and {@code HitRate} read-only attributes.
+ *
+ * <p> This is a dynamic MBean, so that the package of this class need not be
+ * exported for the MBean to be introspected.
+ */
+public final class ProviderListCacheImpl implements DynamicMBean {
+
+    public static final String OBJECT_NAME = "jdk.security.jca:type=ProviderListCache";
+
+    private static final MBeanAttributeInfo[] ATTRIBUTES = {
+        new MBeanAttributeInfo("Enabled", "boolean",
+                "Whether provider lookups are cached", true, false, true),
+        new MBeanAttributeInfo("Hits", "long",
+                "Number of lookups served from the cache", true, false, false),
+        new MBeanAttributeInfo("Misses", "long",
+                "Number of lookups not served from the cache", true, false, false),
+        new MBeanAttributeInfo("HitRate", "double",
+                "Ratio of the hits to all lookups, or 0 if none",
+                true, false, false)
+    };
+
+    public ProviderListCacheImpl() {
+    }
+
+    public ObjectName getObjectName() {
+        return Util.newObjectName(OBJECT_NAME);
+    }
+
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+        switch (attribute) {
+            case "Enabled":
+                return ProviderList.isCacheEnabled();
+            case "Hits":
+                return ProviderList.cacheHits();
+            case "Misses":
+                return ProviderList.cacheMisses();
+            case "HitRate":
+                long hits = ProviderList.cacheHits();
+                long lookups = hits + ProviderList.cacheMisses();
+                return lookups == 0 ? 0.0d : (double) hits / lookups;
+            default:
+                throw new AttributeNotFoundException(attribute);
+        }
+    }
+
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException(attribute.getName() + " is read-only");
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] attributes) {
+        var list = new AttributeList();
+        for (String name : attributes) {
+            try {
+                list.add(new Attribute(name, getAttribute(name)));
+            } catch (AttributeNotFoundException e) {
+                // omitted, as per the specification of getAttributes
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    @Override
+    public Object invoke(String actionName, Object[] params, String[] signature)
+            throws ReflectionException {
+        throw new ReflectionException(new NoSuchMethodException(actionName));
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        return new MBeanInfo(ProviderListCacheImpl.class.getName(),
+                "Statistics of the security provider lookup cache",
+                ATTRIBUTES.clone(), null, null, null);
+    }
+}
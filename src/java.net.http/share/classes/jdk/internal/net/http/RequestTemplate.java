@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package jdk.internal.net.http;
+
+import java.net.URI;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiPredicate;
+import java.util.function.UnaryOperator;
+
+import jdk.internal.net.http.common.HttpHeadersBuilder;
+import jdk.internal.net.http.common.Utils;
+
+/**
+ * The parts of an HTTP/2 request header block that are shared by the
+ * requests with the same method, scheme and authority.
+ *
+ * <p> A template is compiled once for each method, scheme and authority,
+ * and then remembers the last pseudo header fields and the last filtered
+ * user headers it produced. A request that has the same path and query,
+ * and user headers equal to those of a previous request, reuses the
+ * same immutable {@link HttpHeaders} instances, so that neither the
+ * pseudo header fields are rebuilt nor the user headers are filtered
+ * again. This also makes it cheap for the header encoder to recognize
+ * a header block it has already encoded.
+ *
+ * <p> Templates are shared by all clients, the filtered user headers
+ * being keyed by the identity of the filters applied to them, see
+ * {@link Utils#CONTEXT_RESTRICTED}. At most {@value #MAX_TEMPLATES}
+ * templates are kept.
+ */
+final class RequestTemplate {
+
+    static final int MAX_TEMPLATES = 256;
+
+    private static final ConcurrentHashMap<Key, RequestTemplate> TEMPLATES =
+            new ConcurrentHashMap<>();
+
+    private record Key(String method, String scheme, String host, int port) { }
+
+    private record PseudoHeaders(String path, String query, HttpHeaders headers) { }
+
+    private record UserHeaders(HttpHeaders headers,
+                               BiPredicate<String, String> connectionFilter,
+                               BiPredicate<String, String> contextFilter,
+                               HttpHeaders filtered) { }
+
+    private final String method;
+    private final String scheme;
+    private final String authority;
+    private final String defaultPath;
+
+    // the last values produced, replaced on a miss
+    private volatile PseudoHeaders lastPseudoHeaders;
+    private volatile UserHeaders lastUserHeaders;
+
+    private RequestTemplate(Key key) {
+        assert key.host() != null;
+        this.method = key.method();
+        this.scheme = key.scheme();
+        this.authority = key.port() != -1 ? key.host() + ":" + key.port() : key.host();
+        this.defaultPath = method.equalsIgnoreCase("OPTIONS") ? "*" : "/";
+    }
+
+    /**
+     * Returns the template of the given request.
+     */
+    static RequestTemplate of(HttpRequest request) {
+        URI uri = request.uri();
+        Key key = new Key(request.method(), uri.getScheme(), uri.getHost(), uri.getPort());
+        RequestTemplate template = TEMPLATES.get(key);
+        if (template == null) {
+            if (TEMPLATES.size() >= MAX_TEMPLATES) {
+                TEMPLATES.clear();
+            }
+            template = TEMPLATES.computeIfAbsent(key, RequestTemplate::new);
+        }
+        return template;
+    }
+
+    /**
+     * Returns the pseudo header fields of the given request, which must
+     * be a request of this template.
+     */
+    HttpHeaders pseudoHeaders(HttpRequest request) {
+        URI uri = request.uri();
+        String path = uri.getRawPath();
+        String query = uri.getRawQuery();
+        PseudoHeaders last = lastPseudoHeaders;
+        if (last != null && Objects.equals(last.path(), path)
+                && Objects.equals(last.query(), query)) {
+            return last.headers();
+        }
+        HttpHeaders headers = createPseudoHeaders(path, query);
+        lastPseudoHeaders = new PseudoHeaders(path, query, headers);
+        return headers;
+    }
+
+    private HttpHeaders createPseudoHeaders(String path, String query) {
+        HttpHeadersBuilder hdrs = new HttpHeadersBuilder();
+        hdrs.setHeader(":method", method);
+        hdrs.setHeader(":scheme", scheme);
+        hdrs.setHeader(":authority", authority);
+        if (path == null || path.isEmpty()) {
+            path = defaultPath;
+        }
+        if (query != null) {
+            path += "?" + query;
+        }
+        hdrs.setHeader(":path", Utils.encode(path));
+        return hdrs.build();
+    }
+
+    /**
+     * Returns the given user headers filtered by the given filters. The
+     * {@code filter} function applies the filters, and is only called if
+     * the result is not already known.
+     */
+    HttpHeaders userHeaders(HttpHeaders headers,
+                            BiPredicate<String, String> connectionFilter,
+                            BiPredicate<String, String> contextFilter,
+                            UnaryOperator<HttpHeaders> filter) {
+        UserHeaders last = lastUserHeaders;
+        if (last != null && last.connectionFilter() == connectionFilter
+                && last.contextFilter() == contextFilter
+                && (last.headers() == headers || last.headers().equals(headers))) {
+            return last.filtered();
+        }
+        HttpHeaders filtered = filter.apply(headers);
+        lastUserHeaders = new UserHeaders(headers, connectionFilter, contextFilter, filtered);
+        return filtered;
+    }
+}
@@ -1,6 +1,6 @@
 
 /*
- * Copyright (c) 2015, 2023, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2015, 2026, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -31,7 +31,6 @@ import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.VarHandle;
-import java.net.URI;
 import java.net.http.HttpResponse.BodyHandler;
 import java.net.http.HttpResponse.ResponseInfo;
 import java.nio.ByteBuffer;
@@ -40,7 +39,6 @@ import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentLinkedDeque;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Flow;
 import java.util.concurrent.Flow.Subscription;
@@ -103,7 +101,9 @@ class Stream<T> extends ExchangeImpl<T> {
     private static final String COOKIE_HEADER = "Cookie";
     final Logger debug = Utils.getDebugLogger(this::dbgString, Utils.DEBUG);
 
-    final ConcurrentLinkedQueue<Http2Frame> inputQ = new ConcurrentLinkedQueue<>();
+    // Frames are added by the connection reader and drained in batches
+    // by the scheduler, see schedule()
+    final BatchingQueue<Http2Frame> inputQ = new BatchingQueue<>();
     final SequentialScheduler sched =
             SequentialScheduler.lockingScheduler(this::schedule);
     final SubscriptionBase userSubscription =
@@ -121,6 +121,7 @@ class Stream<T> extends ExchangeImpl<T> {
     final HttpRequestImpl request;
     final HeadersConsumer rspHeadersConsumer;
     final HttpHeadersBuilder responseHeadersBuilder;
+    final RequestTemplate requestTemplate;
     final HttpHeaders requestPseudoHeaders;
     volatile HttpResponse.BodySubscriber<T> responseSubscriber;
     final HttpRequest.BodyPublisher requestPublisher;
@@ -443,7 +444,8 @@ class Stream<T> extends ExchangeImpl<T> {
         this.requestPublisher = request.requestPublisher;  // may be null
         this.responseHeadersBuilder = new HttpHeadersBuilder();
         this.rspHeadersConsumer = new HeadersConsumer();
-        this.requestPseudoHeaders = createPseudoHeaders(request);
+        this.requestTemplate = RequestTemplate.of(request);
+        this.requestPseudoHeaders = requestTemplate.pseudoHeaders(request);
         this.windowUpdater = new StreamWindowUpdateSender(connection);
     }
 
@@ -700,10 +702,19 @@ class Stream<T> extends ExchangeImpl<T> {
         if (contentLength > 0) {
             h.setHeader("content-length", Long.toString(contentLength));
         }
-        HttpHeaders sysh = filterHeaders(h.build());
-        HttpHeaders userh = filterHeaders(request.getUserHeaders());
-        // Filter context restricted from userHeaders
-        userh = HttpHeaders.of(userh.map(), Utils.CONTEXT_RESTRICTED(client()));
+        BiPredicate<String, String> filter = connection().headerFilter(request);
+        HttpHeaders sysh = filterHeaders(h.build(), filter);
+        // Filter context restricted from userHeaders. User headers are
+        // usually the same from one request to the next, so the filtered
+        // headers of the previous request of the template are reused if
+        // they were filtered alike.
+        BiPredicate<String, String> restricted = Utils.CONTEXT_RESTRICTED(client());
+        HttpHeaders userh = requestTemplate.userHeaders(request.getUserHeaders(),
+                filter, restricted, headers -> {
+                    headers = filterHeaders(headers, filter);
+                    return restricted == Utils.ACCEPT_ALL
+                            ? headers : HttpHeaders.of(headers.map(), restricted);
+                });
 
         // Don't override Cookie values that have been set by the CookieHandler.
         final HttpHeaders uh = userh;
@@ -757,45 +768,14 @@ class Stream<T> extends ExchangeImpl<T> {
         }
     }
 
-    private HttpHeaders filterHeaders(HttpHeaders headers) {
-        HttpConnection conn = connection();
-        BiPredicate<String, String> filter = conn.headerFilter(request);
+    private HttpHeaders filterHeaders(HttpHeaders headers,
+                                      BiPredicate<String, String> filter) {
         if (needsFiltering(headers, filter)) {
             return HttpHeaders.of(headers.map(), filter);
         }
         return headers;
     }
 
-    private static HttpHeaders createPseudoHeaders(HttpRequest request) {
-        HttpHeadersBuilder hdrs = new HttpHeadersBuilder();
-        String method = request.method();
-        hdrs.setHeader(":method", method);
-        URI uri = request.uri();
-        hdrs.setHeader(":scheme", uri.getScheme());
-        String host = uri.getHost();
-        int port = uri.getPort();
-        assert host != null;
-        if (port != -1) {
-            hdrs.setHeader(":authority", host + ":" + port);
-        } else {
-            hdrs.setHeader(":authority", host);
-        }
-        String query = uri.getRawQuery();
-        String path = uri.getRawPath();
-        if (path == null || path.isEmpty()) {
-            if (method.equalsIgnoreCase("OPTIONS")) {
-                path = "*";
-            } else {
-                path = "/";
-            }
-        }
-        if (query != null) {
-            path += "?" + query;
-        }
-        hdrs.setHeader(":path", Utils.encode(path));
-        return hdrs.build();
-    }
-
     HttpHeaders getRequestPseudoHeaders() {
         return requestPseudoHeaders;
     }
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package jdk.internal.net.http.common;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A multi-producer, single-consumer queue which the consumer drains in
+ * batches.
+ *
+ * <p> Producers append to an array based buffer under a short lock. When the
+ * consumer runs out of elements, it swaps that buffer with its own, now
+ * empty, buffer, taking all the elements added so far in a single lock
+ * acquisition. The consumer then works through the batch without any
+ * synchronization. Unlike a linked queue, adding an element does not
+ * allocate, except when a buffer grows.
+ *
+ * <p> The {@link #peek()}, {@link #poll()} and {@link #remove()} methods
+ * must only be called by the consumer, typically from a
+ * {@link SequentialScheduler} task. The other methods may be called by any
+ * thread.
+ *
+ * @param <T> the type of the elements
+ */
+public final class BatchingQueue<T> {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicInteger size = new AtomicInteger();
+    private ArrayDeque<T> incoming = new ArrayDeque<>(); // guarded by lock
+    private ArrayDeque<T> batch = new ArrayDeque<>();    // consumer only
+
+    /**
+     * Appends the given element.
+     *
+     * @param element the element, not null
+     */
+    public void add(T element) {
+        lock.lock();
+        try {
+            incoming.addLast(element);
+            size.incrementAndGet();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns, without removing it, the first element, or {@code null} if
+     * the queue is empty. Consumer only.
+     */
+    public T peek() {
+        if (batch.isEmpty()) {
+            nextBatch();
+        }
+        return batch.peekFirst();
+    }
+
+    /**
+     * Removes and returns the first element, or {@code null} if the queue is
+     * empty. Consumer only.
+     */
+    public T poll() {
+        if (batch.isEmpty()) {
+            nextBatch();
+        }
+        T element = batch.pollFirst();
+        if (element != null) {
+            size.decrementAndGet();
+        }
+        return element;
+    }
+
+    /**
+     * Removes the first element, which must have been returned by
+     * {@link #peek()}. Consumer only.
+     */
+    public void remove() {
+        batch.removeFirst();
+        size.decrementAndGet();
+    }
+
+    /**
+     * Returns true if the queue is empty.
+     */
+    public boolean isEmpty() {
+        return size.get() == 0;
+    }
+
+    /**
+     * Returns the number of elements in the queue.
+     */
+    public int size() {
+        return size.get();
+    }
+
+    private void nextBatch() {
+        assert batch.isEmpty();
+        lock.lock();
+        try {
+            ArrayDeque<T> next = incoming;
+            incoming = batch;
+            batch = next;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,345 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package jdk.internal.net.http.common;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A pool of heap or direct byte buffers, intended to be owned by an
+ * {@code HttpClient} and used in place of {@link Utils#getBuffer()} on
+ * the data paths of its connections.
+ *
+ * <p> Buffers are pooled in size classes, which are the powers of two from
+ * {@value #MIN_CLASS_SIZE} bytes up to the smallest power of two not less
+ * than {@link Utils#BUFSIZE}. A request for a larger buffer is served by a
+ * plain allocation. Released buffers are retained in stripes, and a thread
+ * always uses the same stripe, so that buffers tend to be reused by the
+ * thread that released them without any thread local state, which would
+ * pin buffers to every short-lived virtual thread. The number of buffers
+ * retained per size class and stripe is bounded, buffers released beyond
+ * that bound are left to the garbage collector. Stripes are guarded by
+ * locks that are never waited for: if a stripe is busy, the buffer is
+ * allocated, or dropped, instead.
+ *
+ * <p> A buffer obtained from the pool must be released at most once, and
+ * must not be used after it is released. A buffer that is not released is
+ * not a leak as such, it is just not reused. When {@link Utils#DEBUG} is
+ * enabled, the allocation site of each outstanding buffer is recorded, a
+ * buffer released twice, or not obtained from this pool, is reported, and
+ * the buffers still outstanding when the pool is closed are reported.
+ *
+ * <p> The following net properties are supported:
+ * <ul>
+ *     <li> {@code jdk.httpclient.bufferPool.retain}: the maximum number of
+ *     buffers retained per size class and stripe, {@code 0} disables
+ *     pooling. Default: 16.
+ *     <li> {@code jdk.httpclient.bufferPool.direct}: whether the pool
+ *     allocates direct buffers. Default: false.
+ * </ul>
+ */
+public final class BufferPool {
+
+    static final int MIN_CLASS_SIZE = 4 * 1024;
+
+    private static final int RETAIN = Math.max(0,
+            Utils.getIntegerNetProperty("jdk.httpclient.bufferPool.retain", 16));
+    private static final boolean DIRECT =
+            Boolean.parseBoolean(Utils.getNetProperty("jdk.httpclient.bufferPool.direct"));
+    private static final int STRIPES = stripes();
+
+    private static final AtomicLong IDS = new AtomicLong();
+
+    private final Logger debug = Utils.getDebugLogger(this::dbgString, Utils.DEBUG);
+    private final long id = IDS.incrementAndGet();
+    private final String name;
+    private final boolean direct;
+    private final int retain;
+    private final int[] classSizes;
+    private final Stripe[] stripes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder outstanding = new LongAdder();
+
+    // allocation sites of outstanding buffers, only when debugging
+    private final Map<ByteBuffer, Throwable> allocations =
+            Utils.DEBUG ? Collections.synchronizedMap(new IdentityHashMap<>()) : null;
+
+    private volatile boolean closed;
+
+    /**
+     * Creates a pool configured by the net properties.
+     *
+     * @param name a name identifying the owner of the pool, for debugging
+     */
+    public BufferPool(String name) {
+        this(name, DIRECT, RETAIN);
+    }
+
+    BufferPool(String name, boolean direct, int retain) {
+        this.name = name;
+        this.direct = direct;
+        this.retain = retain;
+        int maxClassSize = Math.max(MIN_CLASS_SIZE,
+                Integer.highestOneBit(Math.max(1, Utils.BUFSIZE - 1)) << 1);
+        int classes = Integer.numberOfTrailingZeros(maxClassSize)
+                - Integer.numberOfTrailingZeros(MIN_CLASS_SIZE) + 1;
+        classSizes = new int[classes];
+        for (int i = 0; i < classes; i++) {
+            classSizes[i] = MIN_CLASS_SIZE << i;
+        }
+        stripes = new Stripe[retain == 0 ? 0 : STRIPES];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe(classes, retain);
+        }
+    }
+
+    private static int stripes() {
+        int n = Runtime.getRuntime().availableProcessors();
+        return Integer.highestOneBit(Math.min(64, Math.max(1, n)) * 2 - 1);
+    }
+
+    /**
+     * Returns a buffer of {@link Utils#BUFSIZE} bytes.
+     */
+    public ByteBuffer getBuffer() {
+        return getBuffer(Utils.BUFSIZE);
+    }
+
+    /**
+     * Returns a buffer whose position is zero and whose limit is the given
+     * size. The capacity of the buffer may be larger than the given size.
+     */
+    public ByteBuffer getBuffer(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("negative size: " + size);
+        }
+        int sizeClass = sizeClass(size);
+        ByteBuffer buf = null;
+        if (sizeClass >= 0 && stripes.length > 0) {
+            buf = stripe().poll(sizeClass);
+        }
+        if (buf != null) {
+            hits.increment();
+            buf.clear();
+        } else {
+            misses.increment();
+            int capacity = sizeClass >= 0 ? classSizes[sizeClass] : size;
+            buf = direct ? ByteBuffer.allocateDirect(capacity)
+                         : ByteBuffer.allocate(capacity);
+        }
+        buf.limit(size);
+        outstanding.increment();
+        if (allocations != null) {
+            allocations.put(buf, new Throwable("buffer allocated"));
+        }
+        return buf;
+    }
+
+    /**
+     * Returns a buffer obtained from this pool to the pool. The buffer
+     * must not be used by the caller after this method is called.
+     */
+    public void release(ByteBuffer buf) {
+        if (allocations != null && allocations.remove(buf) == null) {
+            if (debug.on()) {
+                debug.log("releasing a buffer that is not outstanding: %s",
+                        (Object) buf);
+            }
+            return;
+        }
+        outstanding.decrement();
+        if (closed || buf.isReadOnly() || buf.isDirect() != direct) {
+            return;
+        }
+        int sizeClass = sizeClass(buf.capacity());
+        if (sizeClass >= 0 && classSizes[sizeClass] == buf.capacity()
+                && stripes.length > 0) {
+            stripe().offer(sizeClass, buf);
+        }
+    }
+
+    /**
+     * Releases all the buffers in the given list, and clears the list.
+     */
+    public void release(List<ByteBuffer> bufs) {
+        for (int i = 0; i < bufs.size(); i++) {
+            release(bufs.get(i));
+        }
+        bufs.clear();
+    }
+
+    /**
+     * Drops the retained buffers, and stops retaining released buffers.
+     * When debugging, reports the buffers that are still outstanding.
+     */
+    public void close() {
+        closed = true;
+        for (Stripe stripe : stripes) {
+            stripe.clear();
+        }
+        if (allocations != null && debug.on()) {
+            List<Throwable> sites;
+            synchronized (allocations) {
+                sites = new ArrayList<>(allocations.values());
+            }
+            for (Throwable site : sites) {
+                debug.log("buffer not released", site);
+            }
+        }
+    }
+
+    /** Returns the number of buffers served from the pool. */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /** Returns the number of buffers allocated because none was pooled. */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /** Returns the number of buffers obtained and not yet released. */
+    public long outstanding() {
+        return outstanding.sum();
+    }
+
+    /** Returns the number of buffers currently retained by the pool. */
+    public int retained() {
+        int n = 0;
+        for (Stripe stripe : stripes) {
+            n += stripe.size();
+        }
+        return n;
+    }
+
+    // Returns the index of the smallest class that fits the given
+    // size, or -1 if the size is larger than the largest class.
+    private int sizeClass(int size) {
+        if (size <= MIN_CLASS_SIZE) {
+            return 0;
+        }
+        int sizeClass = 32 - Integer.numberOfLeadingZeros(size - 1)
+                - Integer.numberOfTrailingZeros(MIN_CLASS_SIZE);
+        return sizeClass < classSizes.length ? sizeClass : -1;
+    }
+
+    private Stripe stripe() {
+        long tid = Thread.currentThread().threadId();
+        return stripes[(int) (tid ^ (tid >>> 16)) & (stripes.length - 1)];
+    }
+
+    String dbgString() {
+        return "BufferPool(" + name + ")#" + id;
+    }
+
+    @Override
+    public String toString() {
+        return dbgString() + "[direct=" + direct + ", retain=" + retain
+                + ", hits=" + hits() + ", misses=" + misses()
+                + ", outstanding=" + outstanding()
+                + ", retained=" + retained() + "]";
+    }
+
+    // Bounded stacks of released buffers, one per size class
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final ByteBuffer[][] stacks;
+        private final int[] sizes;
+
+        Stripe(int classes, int retain) {
+            stacks = new ByteBuffer[classes][retain];
+            sizes = new int[classes];
+        }
+
+        ByteBuffer poll(int sizeClass) {
+            if (!lock.tryLock()) {
+                return null;
+            }
+            try {
+                int n = sizes[sizeClass];
+                if (n == 0) {
+                    return null;
+                }
+                sizes[sizeClass] = --n;
+                ByteBuffer buf = stacks[sizeClass][n];
+                stacks[sizeClass][n] = null;
+                return buf;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void offer(int sizeClass, ByteBuffer buf) {
+            if (!lock.tryLock()) {
+                return;
+            }
+            try {
+                int n = sizes[sizeClass];
+                if (n < stacks[sizeClass].length) {
+                    stacks[sizeClass][n] = buf;
+                    sizes[sizeClass] = n + 1;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int size() {
+            lock.lock();
+            try {
+                int n = 0;
+                for (int size : sizes) {
+                    n += size;
+                }
+                return n;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void clear() {
+            lock.lock();
+            try {
+                for (int i = 0; i < stacks.length; i++) {
+                    Arrays.fill(stacks[i], null);
+                    sizes[i] = 0;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
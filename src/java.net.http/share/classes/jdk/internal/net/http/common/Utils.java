@@ -1,6 +1,6 @@
 
 /*
- * Copyright (c) 2015, 2022, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2015, 2026, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -174,18 +174,24 @@ public final class Utils {
     // be overridden, when an Authenticator is set on the HttpClient.
     // Needs to be BiPred<String,String> to fit with general form of predicates
     // used by caller.
+    // The returned predicates are constants, so that callers can cache
+    // headers filtered with them.
 
     public static final BiPredicate<String, String> CONTEXT_RESTRICTED(HttpClient client) {
-        return (k, v) -> client.authenticator().isEmpty() ||
-                (!k.equalsIgnoreCase("Authorization")
-                        && !k.equalsIgnoreCase("Proxy-Authorization"));
+        return client.authenticator().isEmpty() ? ACCEPT_ALL : AUTHORIZATION_RESTRICTED;
     }
 
     public record ProxyHeaders(HttpHeaders userHeaders, HttpHeaders systemHeaders) {}
 
     private static final BiPredicate<String, String> HOST_RESTRICTED = (k,v) -> !"host".equalsIgnoreCase(k);
+    private static final BiPredicate<String, String> AUTHORIZATION_RESTRICTED =
+            (k, v) -> !k.equalsIgnoreCase("Authorization")
+                    && !k.equalsIgnoreCase("Proxy-Authorization");
+    private static final BiPredicate<String, String> AUTHORIZATION_AND_HOST_RESTRICTED =
+            AUTHORIZATION_RESTRICTED.and(HOST_RESTRICTED);
+
     public static final BiPredicate<String, String> PROXY_TUNNEL_RESTRICTED(HttpClient client)  {
-        return CONTEXT_RESTRICTED(client).and(HOST_RESTRICTED);
+        return client.authenticator().isEmpty() ? HOST_RESTRICTED : AUTHORIZATION_AND_HOST_RESTRICTED;
     }
 
     private static final Predicate<String> IS_HOST = "host"::equalsIgnoreCase;
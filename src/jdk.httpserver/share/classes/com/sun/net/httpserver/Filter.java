@@ -1,6 +1,6 @@
 
 /*
- * Copyright (c) 2005, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2005, 2026, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -36,6 +36,7 @@ import java.util.Objects;
 import java.util.function.Consumer;
 import java.util.function.UnaryOperator;
 import sun.net.httpserver.DelegatingHttpExchange;
+import sun.net.httpserver.FilterMetrics;
 
 /**
  * A filter used to pre- and post-process incoming requests. Pre-processing occurs
@@ -70,6 +71,11 @@ public abstract class Filter {
         private ListIterator<Filter> iter;
         private HttpHandler handler;
 
+        /**
+         * The filter metrics, or null if instrumentation is not enabled.
+         */
+        private final FilterMetrics metrics = FilterMetrics.get();
+
         /**
          * Creates a {@code Chain} instance with given filters and handler.
          *
@@ -95,13 +101,49 @@ public abstract class Filter {
          * @throws NullPointerException if exchange is {@code null}
          */
         public void doFilter (HttpExchange exchange) throws IOException {
-            if (!iter.hasNext()) {
+            if (metrics != null) {
+                instrumentedDoFilter(exchange);
+            } else if (!iter.hasNext()) {
                 handler.handle (exchange);
             } else {
                 Filter f = iter.next();
                 f.doFilter (exchange, this);
             }
         }
+
+        // Invokes the next filter, or the handler, and records the time
+        // spent in it. The time spent in nested invocations, of this chain
+        // or of a chain the handler links to, is accumulated in the nested
+        // time of the current thread and subtracted. A handler that links
+        // to another chain is not recorded, its nested invocations are.
+        private void instrumentedDoFilter(HttpExchange exchange) throws IOException {
+            Filter f = iter.hasNext() ? iter.next() : null;
+            if (f == null && FilterMetrics.isLinkHandler(handler)) {
+                handler.handle(exchange);
+                return;
+            }
+            var stats = f != null ? metrics.filterStats(f) : metrics.handlerStats(handler);
+            Object event = metrics.beginEvent();
+            long[] nested = metrics.nestedNanos();
+            long outer = nested[0];
+            nested[0] = 0;
+            long start = stats.enter();
+            try {
+                if (f != null) {
+                    f.doFilter(exchange, this);
+                } else {
+                    handler.handle(exchange);
+                }
+            } finally {
+                long total = System.nanoTime() - start;
+                long self = total - nested[0];
+                stats.exit(self);
+                if (event != null) {
+                    metrics.endEvent(event, stats, self);
+                }
+                nested[0] = outer + total;
+            }
+        }
     }
 
     /**
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package sun.net.httpserver;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * A JFR event recording the invocation of a filter or exchange handler in
+ * an instrumented {@link com.sun.net.httpserver.Filter.Chain}, see
+ * {@link FilterMetrics}. The duration of the event includes the rest of the
+ * chain, the self time excludes it.
+ */
+@Name("jdk.httpserver.Filter")
+@Label("HTTP Server Filter")
+@Category({"Java Development Kit", "HTTP Server"})
+@Description("Invocation of a filter or exchange handler of the HTTP server")
+@StackTrace(false)
+final class FilterEvent extends Event {
+
+    private static final EventType TYPE = EventType.getEventType(FilterEvent.class);
+
+    @Label("Kind")
+    @Description("Either filter or handler")
+    String kind;
+
+    @Label("Name")
+    @Description("The description of the filter, or the class name of the handler")
+    String name;
+
+    @Label("Self Time")
+    @Description("Time spent in the filter or handler, excluding the rest of the chain")
+    @Timespan(Timespan.NANOSECONDS)
+    long selfTime;
+
+    static boolean isTypeEnabled() {
+        return TYPE.isEnabled();
+    }
+
+    void end(String kind, String name, long selfTime) {
+        end();
+        if (shouldCommit()) {
+            this.kind = kind;
+            this.name = name;
+            this.selfTime = selfTime;
+            commit();
+        }
+    }
+}
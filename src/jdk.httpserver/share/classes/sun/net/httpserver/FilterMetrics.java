@@ -0,0 +1,313 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package sun.net.httpserver;
+
+import java.lang.System.Logger;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.HttpHandler;
+
+/**
+ * Latency statistics of the filters and exchange handlers invoked through
+ * {@link Filter.Chain}.
+ *
+ * <p> Instrumentation is enabled by setting the system property
+ * {@code sun.net.httpserver.filterMetrics} to {@code true}, otherwise
+ * {@link #get()} returns {@code null} and filter chains are not instrumented.
+ * When enabled, the following is recorded for each filter and handler:
+ * the number of invocations, the number of invocations in flight, and a
+ * histogram of the time spent in the filter or handler itself, that is,
+ * excluding the time spent in the rest of the chain. Recording an invocation
+ * does not allocate, once the statistics of its filter or handler exist.
+ *
+ * <p> The statistics are exposed through the platform MBean server, as the
+ * {@code com.sun.net.httpserver:type=FilterMetrics} MBean, if the
+ * {@code java.management} module is present. Each invocation is also
+ * recorded as a {@code jdk.httpserver.Filter} JFR event, if the
+ * {@code jdk.jfr} module is present and the event is enabled.
+ *
+ * <p> Filters and handlers are identified by their {@code equals} method,
+ * and their statistics are retained for the lifetime of the VM. At most
+ * {@value #MAX_STATS} filters and handlers are recorded separately, those
+ * seen after that are recorded together as {@code "(other)"}. The handler
+ * that links the filters of a context to its system filters, which is
+ * created for each exchange, is not recorded: its time is that of the
+ * chain it links to.
+ */
+public final class FilterMetrics {
+
+    static final int MAX_STATS = 1024;
+
+    // the class of the handlers that link a chain to another one
+    private static final String LINK_HANDLER = "sun.net.httpserver.ServerImpl$Exchange$LinkHandler";
+
+    private static final FilterMetrics INSTANCE;
+
+    static {
+        @SuppressWarnings("removal")
+        boolean enabled = AccessController.doPrivileged(
+                (PrivilegedAction<Boolean>) () ->
+                        Boolean.getBoolean("sun.net.httpserver.filterMetrics"));
+        INSTANCE = enabled ? new FilterMetrics() : null;
+    }
+
+    /**
+     * Returns the filter metrics, or {@code null} if instrumentation is not
+     * enabled.
+     */
+    public static FilterMetrics get() {
+        return INSTANCE;
+    }
+
+    private final ConcurrentHashMap<Object, Stats> stats = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger();
+    private final Stats other = new Stats(-1, "other", "(other)");
+    private final boolean jfrEvents;
+
+    // the time spent in the completed nested invocations of the current
+    // invocation on this thread, across chains
+    private final ThreadLocal<long[]> nestedNanos = ThreadLocal.withInitial(() -> new long[1]);
+
+    private FilterMetrics() {
+        Logger logger = System.getLogger("com.sun.net.httpserver");
+        ModuleLayer layer = ModuleLayer.boot();
+        jfrEvents = layer.findModule("jdk.jfr").isPresent();
+        if (layer.findModule("java.management").isPresent()) {
+            try {
+                FilterMetricsMBean.register(this);
+            } catch (Exception e) {
+                logger.log(Logger.Level.WARNING,
+                        "FilterMetrics: MBean registration failed", e);
+            }
+        }
+    }
+
+    /**
+     * Returns the statistics of the given filter.
+     */
+    public Stats filterStats(Filter filter) {
+        Stats s = stats.get(filter);
+        if (s != null) {
+            return s;
+        }
+        if (stats.size() >= MAX_STATS) {
+            return other;
+        }
+        return stats.computeIfAbsent(filter,
+                f -> new Stats(nextId.getAndIncrement(), "filter",
+                        ((Filter) f).description()));
+    }
+
+    /**
+     * Returns the statistics of the given exchange handler.
+     */
+    public Stats handlerStats(HttpHandler handler) {
+        Stats s = stats.get(handler);
+        if (s != null) {
+            return s;
+        }
+        if (stats.size() >= MAX_STATS) {
+            return other;
+        }
+        return stats.computeIfAbsent(handler,
+                h -> new Stats(nextId.getAndIncrement(), "handler",
+                        h.getClass().getName()));
+    }
+
+    /**
+     * Returns true if the given handler only links to another chain, and
+     * so is not to be recorded.
+     */
+    public static boolean isLinkHandler(HttpHandler handler) {
+        return handler.getClass().getName().equals(LINK_HANDLER);
+    }
+
+    /**
+     * Returns the nested time of the current thread, a one element array
+     * holding the time spent in the nested invocations completed since the
+     * current invocation started.
+     */
+    public long[] nestedNanos() {
+        return nestedNanos.get();
+    }
+
+    Iterable<Stats> allStats() {
+        List<Stats> all = new ArrayList<>(stats.values());
+        if (other.count() > 0) {
+            all.add(other);
+        }
+        return all;
+    }
+
+    /**
+     * Begins the JFR event of an invocation. Returns {@code null} if the
+     * event is not enabled.
+     */
+    public Object beginEvent() {
+        if (jfrEvents && FilterEvent.isTypeEnabled()) {
+            var event = new FilterEvent();
+            event.begin();
+            return event;
+        }
+        return null;
+    }
+
+    /**
+     * Ends and commits, if it passes the event settings, the given JFR
+     * event of an invocation.
+     */
+    public void endEvent(Object event, Stats stats, long selfNanos) {
+        ((FilterEvent) event).end(stats.kind(), stats.name(), selfNanos);
+    }
+
+    /**
+     * Latency statistics of a filter or handler.
+     *
+     * <p> Latencies are recorded in a log-linear histogram with eight
+     * sub-buckets per power of two, so percentiles are accurate to within
+     * 12.5%.
+     */
+    public static final class Stats {
+
+        private static final int SUB_BUCKET_BITS = 3;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+        private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+        private final int id;
+        private final String kind;
+        private final String name;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong inFlight = new AtomicLong();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+
+        Stats(int id, String kind, String name) {
+            this.id = id;
+            this.kind = kind;
+            this.name = name;
+        }
+
+        /**
+         * Records the start of an invocation, and returns its start time.
+         */
+        public long enter() {
+            inFlight.incrementAndGet();
+            return System.nanoTime();
+        }
+
+        /**
+         * Records the end of an invocation.
+         *
+         * @param selfNanos the time spent in the filter or handler,
+         *        excluding the rest of the chain
+         */
+        public void exit(long selfNanos) {
+            inFlight.decrementAndGet();
+            if (selfNanos < 0) {
+                selfNanos = 0;
+            }
+            count.increment();
+            totalNanos.add(selfNanos);
+            histogram.incrementAndGet(bucket(selfNanos));
+            long max;
+            while (selfNanos > (max = maxNanos.get())
+                    && !maxNanos.compareAndSet(max, selfNanos)) { }
+        }
+
+        int id() { return id; }
+        String kind() { return kind; }
+        String name() { return name; }
+        long count() { return count.sum(); }
+        long inFlight() { return inFlight.get(); }
+        long maxNanos() { return maxNanos.get(); }
+
+        long meanNanos() {
+            long n = count.sum();
+            return n == 0 ? 0 : totalNanos.sum() / n;
+        }
+
+        /**
+         * Returns the approximate latency at the given percentile, which is
+         * the upper bound of the histogram bucket the percentile falls in.
+         */
+        long percentileNanos(double percentile) {
+            long[] snapshot = new long[BUCKETS];
+            long n = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                n += snapshot[i] = histogram.get(i);
+            }
+            if (n == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(n * percentile / 100.0);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += snapshot[i];
+                if (seen >= rank) {
+                    return Math.min(upperBound(i), maxNanos.get());
+                }
+            }
+            return maxNanos.get();
+        }
+
+        void reset() {
+            count.reset();
+            totalNanos.reset();
+            maxNanos.set(0);
+            for (int i = 0; i < BUCKETS; i++) {
+                histogram.set(i, 0);
+            }
+        }
+
+        static int bucket(long value) {
+            if (value < SUB_BUCKETS) {
+                return (int) value;
+            }
+            int exp = 63 - Long.numberOfLeadingZeros(value);
+            int sub = (int) (value >>> (exp - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+            return (exp - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+        }
+
+        static long upperBound(int bucket) {
+            if (bucket < SUB_BUCKETS) {
+                return bucket;
+            }
+            int exp = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+            long sub = bucket % SUB_BUCKETS;
+            long width = 1L << (exp - SUB_BUCKET_BITS);
+            return ((SUB_BUCKETS + sub) * width) + width - 1;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package sun.net.httpserver;
+
+import java.lang.management.ManagementFactory;
+import java.security.AccessController;
+import java.security.PrivilegedExceptionAction;
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanException;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+import javax.management.openmbean.CompositeDataSupport;
+import javax.management.openmbean.CompositeType;
+import javax.management.openmbean.OpenDataException;
+import javax.management.openmbean.OpenType;
+import javax.management.openmbean.SimpleType;
+import javax.management.openmbean.TabularDataSupport;
+import javax.management.openmbean.TabularType;
+
+/**
+ * The {@code com.sun.net.httpserver:type=FilterMetrics} MBean, which exposes
+ * the statistics of {@link FilterMetrics} as the {@code Statistics} tabular
+ * attribute, with one row per filter or handler, and which supports the
+ * {@code reset} operation.
+ *
+ * <p> This is a dynamic MBean, so that the package of this class need not be
+ * exported for the MBean to be introspected.
+ */
+final class FilterMetricsMBean implements DynamicMBean {
+
+    static final String OBJECT_NAME = "com.sun.net.httpserver:type=FilterMetrics";
+
+    private static final String[] ITEMS = {
+        "id", "kind", "name", "count", "inFlight", "meanNanos", "maxNanos",
+        "p50Nanos", "p90Nanos", "p99Nanos", "p999Nanos"
+    };
+
+    private static final CompositeType ROW_TYPE;
+    private static final TabularType TABLE_TYPE;
+
+    static {
+        try {
+            OpenType<?>[] types = new OpenType<?>[ITEMS.length];
+            types[0] = SimpleType.INTEGER;
+            types[1] = SimpleType.STRING;
+            types[2] = SimpleType.STRING;
+            for (int i = 3; i < ITEMS.length; i++) {
+                types[i] = SimpleType.LONG;
+            }
+            ROW_TYPE = new CompositeType("FilterStatistics",
+                    "Latency statistics of a filter or handler", ITEMS, ITEMS, types);
+            TABLE_TYPE = new TabularType("FilterStatisticsTable",
+                    "Latency statistics of filters and handlers", ROW_TYPE,
+                    new String[] {"id"});
+        } catch (OpenDataException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final FilterMetrics metrics;
+
+    private FilterMetricsMBean(FilterMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @SuppressWarnings("removal")
+    static void register(FilterMetrics metrics) throws Exception {
+        AccessController.doPrivileged((PrivilegedExceptionAction<Void>) () -> {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(
+                    new FilterMetricsMBean(metrics), new ObjectName(OBJECT_NAME));
+            return null;
+        });
+    }
+
+    private TabularDataSupport statistics() throws OpenDataException {
+        var table = new TabularDataSupport(TABLE_TYPE);
+        for (var s : metrics.allStats()) {
+            Object[] values = {
+                s.id(), s.kind(), s.name(), s.count(), s.inFlight(),
+                s.meanNanos(), s.maxNanos(),
+                s.percentileNanos(50), s.percentileNanos(90),
+                s.percentileNanos(99), s.percentileNanos(99.9)
+            };
+            table.put(new CompositeDataSupport(ROW_TYPE, ITEMS, values));
+        }
+        return table;
+    }
+
+    @Override
+    public Object getAttribute(String attribute)
+            throws AttributeNotFoundException, MBeanException {
+        if (!attribute.equals("Statistics")) {
+            throw new AttributeNotFoundException(attribute);
+        }
+        try {
+            return statistics();
+        } catch (OpenDataException e) {
+            throw new MBeanException(e);
+        }
+    }
+
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException(attribute.getName() + " is read-only");
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] attributes) {
+        var list = new AttributeList();
+        for (String name : attributes) {
+            try {
+                list.add(new Attribute(name, getAttribute(name)));
+            } catch (AttributeNotFoundException | MBeanException e) {
+                // omitted, as per the specification of getAttributes
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    @Override
+    public Object invoke(String actionName, Object[] params, String[] signature)
+            throws ReflectionException {
+        if (actionName.equals("reset") && (params == null || params.length == 0)) {
+            for (var s : metrics.allStats()) {
+                s.reset();
+            }
+            return null;
+        }
+        throw new ReflectionException(new NoSuchMethodException(actionName));
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        var attribute = new MBeanAttributeInfo("Statistics",
+                TabularDataSupport.class.getName(),
+                "Latency statistics of filters and handlers, in nanoseconds",
+                true, false, false);
+        var reset = new MBeanOperationInfo("reset",
+                "Resets the latency statistics", null, "void",
+                MBeanOperationInfo.ACTION);
+        return new MBeanInfo(FilterMetricsMBean.class.getName(),
+                "Latency statistics of HTTP server filter chains",
+                new MBeanAttributeInfo[] {attribute}, null,
+                new MBeanOperationInfo[] {reset}, null);
+    }
+}
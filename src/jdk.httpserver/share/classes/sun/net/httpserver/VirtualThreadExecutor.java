@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package sun.net.httpserver;
+
+import java.lang.System.Logger;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An executor that runs each exchange on its own virtual thread.
+ *
+ * <p> Exchange handlers that block, on file or network I/O for example, do
+ * not hold on to a platform thread while blocked. The number of exchanges
+ * handled concurrently can be limited, in which case the virtual threads of
+ * the exchanges in excess of the limit wait, in FIFO order, for a running
+ * exchange to complete. The number of waiting exchanges is the queue depth.
+ *
+ * <p> The server never selects this executor by itself, it is only used
+ * once set with {@link com.sun.net.httpserver.HttpServer#setExecutor}.
+ * {@link #fromSystemProperties()} returns an executor to set when the system
+ * property {@code sun.net.httpserver.executor} is set to {@code virtual}, the
+ * system property {@code sun.net.httpserver.maxConcurrentExchanges} then
+ * sets the concurrency limit, there is no limit by default.
+ *
+ * <p> The queue depth, and the number of active and completed exchanges,
+ * are exposed through the platform MBean server as the
+ * {@code com.sun.net.httpserver:type=VirtualThreadExecutor,id=<n>} MBean, if
+ * the {@code java.management} module is present. The MBean is unregistered
+ * by {@link #close()}, which is to be called once the server using this
+ * executor is stopped.
+ */
+public final class VirtualThreadExecutor implements Executor, AutoCloseable {
+
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+    private final int id = NEXT_ID.getAndIncrement();
+    private final ThreadFactory factory =
+            Thread.ofVirtual().name("HTTP-Exchange-" + id + "-", 0).factory();
+    private final int maxConcurrentExchanges;
+    private final Semaphore permits;  // null if not limited
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final LongAdder completed = new LongAdder();
+    private final AtomicBoolean registered = new AtomicBoolean();
+
+    private VirtualThreadExecutor(int maxConcurrentExchanges) {
+        this.maxConcurrentExchanges = maxConcurrentExchanges;
+        this.permits = maxConcurrentExchanges > 0
+                ? new Semaphore(maxConcurrentExchanges, true) : null;
+    }
+
+    /**
+     * Returns a new executor, with the given concurrency limit, and
+     * registers its MBean.
+     *
+     * @param maxConcurrentExchanges the maximum number of exchanges handled
+     *        concurrently, or zero for no limit
+     * @throws IllegalArgumentException if maxConcurrentExchanges is negative
+     */
+    public static VirtualThreadExecutor create(int maxConcurrentExchanges) {
+        if (maxConcurrentExchanges < 0) {
+            throw new IllegalArgumentException(
+                    "maxConcurrentExchanges: " + maxConcurrentExchanges);
+        }
+        var executor = new VirtualThreadExecutor(maxConcurrentExchanges);
+        if (ModuleLayer.boot().findModule("java.management").isPresent()) {
+            try {
+                VirtualThreadExecutorMBean.register(executor);
+                executor.registered.set(true);
+            } catch (Exception e) {
+                System.getLogger("com.sun.net.httpserver").log(Logger.Level.WARNING,
+                        "VirtualThreadExecutor: MBean registration failed", e);
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * Returns a new executor if the system property
+     * {@code sun.net.httpserver.executor} selects this executor, otherwise
+     * {@code null}.
+     */
+    public static VirtualThreadExecutor fromSystemProperties() {
+        @SuppressWarnings("removal")
+        String[] values = AccessController.doPrivileged(
+                (PrivilegedAction<String[]>) () -> new String[] {
+                    System.getProperty("sun.net.httpserver.executor"),
+                    System.getProperty("sun.net.httpserver.maxConcurrentExchanges")
+                });
+        if (!"virtual".equals(values[0])) {
+            return null;
+        }
+        int limit = 0;
+        if (values[1] != null) {
+            try {
+                limit = Math.max(0, Integer.parseInt(values[1]));
+            } catch (NumberFormatException e) {
+                System.getLogger("com.sun.net.httpserver").log(Logger.Level.WARNING,
+                        "Invalid sun.net.httpserver.maxConcurrentExchanges: " + values[1]);
+            }
+        }
+        return create(limit);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        Objects.requireNonNull(task);
+        queued.incrementAndGet();
+        factory.newThread(() -> run(task)).start();
+    }
+
+    private void run(Runnable task) {
+        try {
+            if (permits != null) {
+                permits.acquireUninterruptibly();
+            }
+        } finally {
+            queued.decrementAndGet();
+        }
+        active.incrementAndGet();
+        try {
+            task.run();
+        } finally {
+            active.decrementAndGet();
+            completed.increment();
+            if (permits != null) {
+                permits.release();
+            }
+        }
+    }
+
+    /**
+     * Unregisters the MBean of this executor. This method does not wait for,
+     * or prevent the execution of, exchanges, it is called once the server
+     * using this executor is stopped. Calling it more than once has no
+     * effect.
+     */
+    @Override
+    public void close() {
+        if (registered.compareAndSet(true, false)) {
+            try {
+                VirtualThreadExecutorMBean.unregister(this);
+            } catch (Exception e) {
+                System.getLogger("com.sun.net.httpserver").log(Logger.Level.WARNING,
+                        "VirtualThreadExecutor: MBean unregistration failed", e);
+            }
+        }
+    }
+
+    int id() {
+        return id;
+    }
+
+    /**
+     * Returns the maximum number of exchanges handled concurrently, or zero
+     * if there is no limit.
+     */
+    public int maxConcurrentExchanges() {
+        return maxConcurrentExchanges;
+    }
+
+    /**
+     * Returns the number of exchanges waiting for the concurrency limit.
+     */
+    public int queueDepth() {
+        return queued.get();
+    }
+
+    /**
+     * Returns the number of exchanges being handled.
+     */
+    public int activeExchanges() {
+        return active.get();
+    }
+
+    /**
+     * Returns the number of exchanges handled so far.
+     */
+    public long completedExchanges() {
+        return completed.sum();
+    }
+}
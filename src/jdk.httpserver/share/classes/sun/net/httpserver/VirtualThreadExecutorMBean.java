@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package sun.net.httpserver;
+
+import java.lang.management.ManagementFactory;
+import java.security.AccessController;
+import java.security.PrivilegedExceptionAction;
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+
+/**
+ * The MBean of a {@link VirtualThreadExecutor}, with the read-only
+ * {@code QueueDepth}, {@code ActiveExchanges}, {@code CompletedExchanges}
+ * and {@code MaxConcurrentExchanges} attributes.
+ *
+ * <p> This is a dynamic MBean, see {@link FilterMetricsMBean}.
+ */
+final class VirtualThreadExecutorMBean implements DynamicMBean {
+
+    private static final MBeanInfo INFO = new MBeanInfo(
+            VirtualThreadExecutorMBean.class.getName(),
+            "Exchanges executed on virtual threads",
+            new MBeanAttributeInfo[] {
+                attribute("QueueDepth", "int",
+                        "Number of exchanges waiting for the concurrency limit"),
+                attribute("ActiveExchanges", "int",
+                        "Number of exchanges being handled"),
+                attribute("CompletedExchanges", "long",
+                        "Number of exchanges handled so far"),
+                attribute("MaxConcurrentExchanges", "int",
+                        "Maximum number of exchanges handled concurrently, 0 if unlimited")
+            }, null, null, null);
+
+    private final VirtualThreadExecutor executor;
+
+    private VirtualThreadExecutorMBean(VirtualThreadExecutor executor) {
+        this.executor = executor;
+    }
+
+    private static MBeanAttributeInfo attribute(String name, String type,
+                                                String description) {
+        return new MBeanAttributeInfo(name, type, description, true, false, false);
+    }
+
+    private static ObjectName objectName(VirtualThreadExecutor executor) throws Exception {
+        return new ObjectName("com.sun.net.httpserver:type=VirtualThreadExecutor,id="
+                + executor.id());
+    }
+
+    @SuppressWarnings("removal")
+    static void register(VirtualThreadExecutor executor) throws Exception {
+        AccessController.doPrivileged((PrivilegedExceptionAction<Void>) () -> {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(
+                    new VirtualThreadExecutorMBean(executor), objectName(executor));
+            return null;
+        });
+    }
+
+    @SuppressWarnings("removal")
+    static void unregister(VirtualThreadExecutor executor) throws Exception {
+        AccessController.doPrivileged((PrivilegedExceptionAction<Void>) () -> {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(
+                    objectName(executor));
+            return null;
+        });
+    }
+
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+        return switch (attribute) {
+            case "QueueDepth" -> executor.queueDepth();
+            case "ActiveExchanges" -> executor.activeExchanges();
+            case "CompletedExchanges" -> executor.completedExchanges();
+            case "MaxConcurrentExchanges" -> executor.maxConcurrentExchanges();
+            default -> throw new AttributeNotFoundException(attribute);
+        };
+    }
+
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException(attribute.getName() + " is read-only");
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] attributes) {
+        var list = new AttributeList();
+        for (String name : attributes) {
+            try {
+                list.add(new Attribute(name, getAttribute(name)));
+            } catch (AttributeNotFoundException e) {
+                // omitted, as per the specification of getAttributes
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    @Override
+    public Object invoke(String actionName, Object[] params, String[] signature)
+            throws ReflectionException {
+        throw new ReflectionException(new NoSuchMethodException(actionName));
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        return INFO;
+    }
+}
@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package sun.net.httpserver.simpleserver;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+import com.sun.net.httpserver.Headers;
+
+/**
+ * The gzip content coding support of a {@link FileServerHandler}.
+ *
+ * <p> Keeps a bounded cache of the compressed variants of served files,
+ * keyed by the path, size and last modified time of the file the variant is
+ * read from, and by the content coding. A variant is either read from a
+ * precompressed sibling file, i.e. {@code file.js.gz} for {@code file.js},
+ * or compressed by the handler. The validators of a precompressed variant
+ * are derived from the precompressed file itself, so that the variant is
+ * revalidated when that file changes. Files smaller than a threshold are
+ * never compressed, and files too large to be cached are compressed while
+ * they are sent.
+ *
+ * <p> The following system properties are supported:
+ * <ul>
+ *     <li> {@code sun.net.httpserver.simpleserver.compressMinSize}: the
+ *     minimum size in bytes of a file to be compressed. Default: 1024.
+ *     <li> {@code sun.net.httpserver.simpleserver.compressCacheSize}: the
+ *     maximum total size in bytes of the cached variants, {@code 0} disables
+ *     caching. Default: 16 MiB.
+ *     <li> {@code sun.net.httpserver.simpleserver.compressMaxFileSize}: the
+ *     maximum size in bytes of a file whose compressed variant is cached.
+ *     Default: 1 MiB.
+ * </ul>
+ */
+final class CompressedVariants {
+
+    static final String GZIP = "gzip";
+
+    private static final int BUFFER_SIZE = 8192;
+
+    static final long MIN_SIZE;
+    private static final long CACHE_SIZE;
+    private static final long MAX_FILE_SIZE;
+
+    static {
+        @SuppressWarnings("removal")
+        long[] values = AccessController.doPrivileged(
+                (PrivilegedAction<long[]>) () -> new long[] {
+                    Long.getLong("sun.net.httpserver.simpleserver.compressMinSize",
+                            1024),
+                    Long.getLong("sun.net.httpserver.simpleserver.compressCacheSize",
+                            16 * 1024 * 1024),
+                    Long.getLong("sun.net.httpserver.simpleserver.compressMaxFileSize",
+                            1024 * 1024) });
+        MIN_SIZE = Math.max(0, values[0]);
+        CACHE_SIZE = Math.max(0, values[1]);
+        MAX_FILE_SIZE = Math.max(0, Math.min(values[2], Integer.MAX_VALUE - 8));
+    }
+
+    private record Key(Path path, long size, FileTime lastModifiedTime, String coding) { }
+
+    // guarded by this
+    private final LinkedHashMap<Key, FileCache.Entry> variants =
+            new LinkedHashMap<>(16, 0.75f, true);
+    private long weight;
+
+    /**
+     * Returns the cached variant of the given file in the given content
+     * coding, or {@code null} if there is none.
+     */
+    synchronized FileCache.Entry get(FileCache.Entry entry, String coding) {
+        return variants.get(key(entry, coding));
+    }
+
+    /**
+     * Returns the variant of the given file read from the given
+     * precompressed file, which has the given attributes. The entity tag
+     * and last modified time of the variant are those of the precompressed
+     * file. The variant is cached if small enough.
+     */
+    FileCache.Entry precompressed(FileCache.Entry entry, Path path,
+                                  BasicFileAttributes attrs, String coding)
+        throws IOException
+    {
+        var key = new Key(path, attrs.size(), attrs.lastModifiedTime(), coding);
+        synchronized (this) {
+            var variant = variants.get(key);
+            if (variant != null) {
+                return variant;
+            }
+        }
+        long size = attrs.size();
+        byte[] body = null;
+        if (size <= MAX_FILE_SIZE && size <= CACHE_SIZE) {
+            body = Files.readAllBytes(path);
+            size = body.length;
+        }
+        FileTime lastModifiedTime = attrs.lastModifiedTime();
+        var variant = new FileCache.Entry(path, size, lastModifiedTime,
+                FileCache.lastModified(lastModifiedTime),
+                variantEtag(FileCache.etag(attrs.size(), lastModifiedTime), coding),
+                entry.contentType(), body);
+        if (body != null) {
+            put(key, variant);
+        }
+        return variant;
+    }
+
+    /**
+     * Returns the variant of the given file compressed by this handler, or
+     * {@code null} if the file is too large to be compressed in memory, in
+     * which case it should be compressed while it is sent.
+     */
+    FileCache.Entry compress(FileCache.Entry entry, String coding) throws IOException {
+        assert coding.equals(GZIP);
+        if (entry.size() > MAX_FILE_SIZE || entry.size() > CACHE_SIZE) {
+            return null;
+        }
+        var bos = new ByteArrayOutputStream((int) (entry.size() / 2));
+        try (var os = gzip(bos)) {
+            if (entry.body() != null) {
+                os.write(entry.body());
+            } else {
+                Files.copy(entry.path(), os);
+            }
+        }
+        byte[] body = bos.toByteArray();
+        var variant = new FileCache.Entry(entry.path(), body.length,
+                entry.lastModifiedTime(), entry.lastModified(),
+                variantEtag(entry.etag(), coding), entry.contentType(), body);
+        put(key(entry, coding), variant);
+        return variant;
+    }
+
+    private synchronized void put(Key key, FileCache.Entry variant) {
+        var old = variants.put(key, variant);
+        if (old != null) {
+            weight -= old.weight();
+        }
+        weight += variant.weight();
+        var iter = variants.values().iterator();
+        while (weight > CACHE_SIZE && iter.hasNext()) {
+            weight -= iter.next().weight();
+            iter.remove();
+        }
+    }
+
+    private static Key key(FileCache.Entry entry, String coding) {
+        return new Key(entry.path(), entry.size(), entry.lastModifiedTime(), coding);
+    }
+
+    // Returns the entity tag of a variant, which must differ from the entity
+    // tag of the identity representation.
+    static String variantEtag(String etag, String coding) {
+        return etag.substring(0, etag.length() - 1) + "-" + coding + "\"";
+    }
+
+    /**
+     * Returns a stream that gzip compresses what is written to it, and
+     * finishes the compressed stream and closes the given stream on close.
+     */
+    static OutputStream gzip(OutputStream os) throws IOException {
+        return new GZIPOutputStream(os, BUFFER_SIZE, false);
+    }
+
+    /**
+     * Returns true if the given media type is worth compressing. Most media
+     * types that are not text based are already compressed.
+     */
+    static boolean isCompressible(String contentType) {
+        String type = contentType.toLowerCase(Locale.ROOT);
+        int semi = type.indexOf(';');
+        if (semi >= 0) {
+            type = type.substring(0, semi).strip();
+        }
+        return type.startsWith("text/")
+                || type.endsWith("+json")
+                || type.endsWith("+xml")
+                || type.equals("application/json")
+                || type.equals("application/javascript")
+                || type.equals("application/xml")
+                || type.equals("image/svg+xml");
+    }
+
+    /**
+     * Returns true if the gzip content coding is acceptable, as per the
+     * Accept-Encoding request header (RFC 7231, section 5.3.4).
+     */
+    static boolean acceptsGzip(Headers requestHeaders) {
+        List<String> values = requestHeaders.get("Accept-Encoding");
+        if (values == null) {
+            return false;
+        }
+        Boolean gzip = null;
+        boolean any = false;
+        for (String value : values) {
+            for (String coding : value.split(",")) {
+                String[] params = coding.split(";");
+                String name = params[0].strip().toLowerCase(Locale.ROOT);
+                boolean acceptable = qvalue(params) > 0;
+                if (name.equals(GZIP) || name.equals("x-gzip")) {
+                    gzip = acceptable;
+                } else if (name.equals("*")) {
+                    any = acceptable;
+                }
+            }
+        }
+        return gzip != null ? gzip : any;
+    }
+
+    private static double qvalue(String[] params) {
+        for (int i = 1; i < params.length; i++) {
+            String param = params[i].strip();
+            if (param.length() > 2 && (param.charAt(0) == 'q' || param.charAt(0) == 'Q')
+                    && param.charAt(1) == '=') {
+                try {
+                    return Double.parseDouble(param.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
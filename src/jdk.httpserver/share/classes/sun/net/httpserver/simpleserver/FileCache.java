@@ -0,0 +1,344 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package sun.net.httpserver.simpleserver;
+
+import java.io.IOException;
+import java.lang.System.Logger;
+import java.lang.ref.WeakReference;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+/**
+ * A bounded cache of the attributes, and optionally the content, of the
+ * regular files served by a {@link FileServerHandler}.
+ *
+ * <p> Entries are keyed by the request path relative to the context, so that
+ * a hit requires neither path resolution nor any file system access. Every
+ * directory between the root and a cached file is registered with a
+ * {@link WatchService}, and entries are invalidated when a change is
+ * reported for the file or for any directory on its path. If the file system
+ * of the root does not support watching, nothing is cached.
+ *
+ * <p> Invalidation is asynchronous: a change is seen once the watch service
+ * reports it, which for a polling watch service may take seconds. For this
+ * reason the cache is disabled unless a cache size is set. The events are
+ * processed by a daemon thread that only refers weakly to the cache, and
+ * that closes the watch service and terminates once the cache, that is,
+ * its handler, is no longer reachable.
+ *
+ * <p> The cache is bounded by the number of entries and by the total size
+ * of the cached content. The following system properties are supported:
+ * <ul>
+ *     <li> {@code sun.net.httpserver.simpleserver.cacheSize}: the maximum
+ *     total size in bytes of the cached content, {@code 0} disables the
+ *     cache. Default: 0.
+ *     <li> {@code sun.net.httpserver.simpleserver.cacheMaxFileSize}: the
+ *     maximum size in bytes of a file whose content is cached, larger files
+ *     only have their attributes cached. Default: 64 KiB.
+ *     <li> {@code sun.net.httpserver.simpleserver.cacheMaxEntries}: the
+ *     maximum number of cached files. Default: 4096.
+ * </ul>
+ */
+final class FileCache {
+
+    private static final long DEFAULT_CACHE_SIZE = 0;
+    private static final long DEFAULT_MAX_FILE_SIZE = 64 * 1024;
+    private static final int DEFAULT_MAX_ENTRIES = 4096;
+
+    // accounted for each entry, in addition to the size of its content
+    private static final int ENTRY_OVERHEAD = 256;
+
+    // how often the watcher thread checks whether the cache is reachable
+    private static final long REACHABILITY_CHECK_SECONDS = 5;
+
+    private static final long CACHE_SIZE;
+    private static final long MAX_FILE_SIZE;
+    private static final int MAX_ENTRIES;
+
+    static {
+        @SuppressWarnings("removal")
+        long[] values = AccessController.doPrivileged(
+                (PrivilegedAction<long[]>) () -> new long[] {
+                    Long.getLong("sun.net.httpserver.simpleserver.cacheSize",
+                            DEFAULT_CACHE_SIZE),
+                    Long.getLong("sun.net.httpserver.simpleserver.cacheMaxFileSize",
+                            DEFAULT_MAX_FILE_SIZE),
+                    Long.getLong("sun.net.httpserver.simpleserver.cacheMaxEntries",
+                            DEFAULT_MAX_ENTRIES) });
+        CACHE_SIZE = Math.max(0, values[0]);
+        MAX_FILE_SIZE = Math.max(0, Math.min(values[1],
+                Math.min(CACHE_SIZE, Integer.MAX_VALUE - 8)));
+        MAX_ENTRIES = (int) Math.max(0, Math.min(values[2], Integer.MAX_VALUE));
+    }
+
+    /**
+     * The cached state of a regular file.
+     *
+     * @param path the file
+     * @param size the size of the file
+     * @param lastModifiedTime the last modified time of the file
+     * @param lastModified the last modified time, as an RFC 1123 date
+     * @param etag the strong entity tag of the file
+     * @param contentType the media type of the file
+     * @param body the content of the file, or {@code null} if not cached
+     */
+    record Entry(Path path, long size, FileTime lastModifiedTime,
+                 String lastModified, String etag, String contentType,
+                 byte[] body) {
+        long weight() {
+            return ENTRY_OVERHEAD + (body == null ? 0 : body.length);
+        }
+    }
+
+    private final Path root;
+    private final Logger logger;
+    private final WatchService watcher;  // null if the cache is disabled
+
+    // guarded by this
+    private final LinkedHashMap<String, Entry> entries =
+            new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Path, WatchKey> watchedDirs = new HashMap<>();
+    private long weight;
+    private long generation;
+
+    FileCache(Path root, Logger logger) {
+        this.root = root;
+        this.logger = logger;
+        this.watcher = CACHE_SIZE > 0 && MAX_ENTRIES > 0 ? newWatchService(root) : null;
+        if (watcher != null) {
+            var ref = new WeakReference<>(this);
+            var service = watcher;
+            Thread t = new Thread(null, () -> processEvents(ref, service),
+                    "FileServerHandler-watcher", 0, false);
+            t.setDaemon(true);
+            t.start();
+        }
+    }
+
+    private WatchService newWatchService(Path root) {
+        try {
+            return root.getFileSystem().newWatchService();
+        } catch (IOException | UnsupportedOperationException e) {
+            logger.log(Logger.Level.TRACE,
+                    "FileServerHandler: file cache disabled, cannot watch " + root, e);
+            return null;
+        }
+    }
+
+    /**
+     * Returns the cached entry for the given relative request path, or
+     * {@code null} if there is none.
+     */
+    Entry get(String requestPath) {
+        if (watcher == null) {
+            return null;
+        }
+        synchronized (this) {
+            return entries.get(requestPath);
+        }
+    }
+
+    /**
+     * Reads the attributes, and if small enough the content, of the given
+     * regular file. If {@code requestPath} is not {@code null} the returned
+     * entry is cached for subsequent requests with that path.
+     */
+    Entry load(String requestPath, Path path, String contentType) throws IOException {
+        // The directories are watched before the file is read, so that a
+        // change made while it is read is reported, and the entry dropped.
+        boolean cached = watcher != null && requestPath != null && watchPath(path);
+        long gen = generation();
+        var attrs = Files.readAttributes(path, BasicFileAttributes.class);
+        byte[] body = null;
+        if (cached && attrs.size() <= MAX_FILE_SIZE) {
+            body = Files.readAllBytes(path);
+            if (body.length != attrs.size()) {
+                body = null;  // concurrently modified
+                cached = false;
+            }
+        }
+        var entry = new Entry(path, attrs.size(), attrs.lastModifiedTime(),
+                lastModified(attrs.lastModifiedTime()),
+                etag(attrs.size(), attrs.lastModifiedTime()),
+                contentType, body);
+        if (cached) {
+            put(requestPath, entry, gen);
+        }
+        return entry;
+    }
+
+    private synchronized long generation() {
+        return generation;
+    }
+
+    // Watches every directory from the root to the given file, so that its
+    // entry is invalidated if any part of its resolution changes. Returns
+    // false if a directory cannot be watched.
+    private boolean watchPath(Path path) {
+        Path dir = path.getParent();
+        while (dir != null && dir.startsWith(root)) {
+            if (!watch(dir)) {
+                return false;
+            }
+            dir = dir.getParent();
+        }
+        return true;
+    }
+
+    private synchronized void put(String requestPath, Entry entry, long gen) {
+        if (gen != generation) {
+            return;  // something was invalidated since the entry was read
+        }
+        Entry old = entries.put(requestPath, entry);
+        if (old != null) {
+            weight -= old.weight();
+        }
+        weight += entry.weight();
+        var iter = entries.values().iterator();
+        while ((weight > CACHE_SIZE || entries.size() > MAX_ENTRIES) && iter.hasNext()) {
+            weight -= iter.next().weight();
+            iter.remove();
+        }
+    }
+
+    private boolean watch(Path dir) {
+        synchronized (this) {
+            if (watchedDirs.containsKey(dir)) {
+                return true;
+            }
+            if (watchedDirs.size() >= MAX_ENTRIES) {
+                return false;
+            }
+        }
+        try {
+            WatchKey key = dir.register(watcher, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+            synchronized (this) {
+                watchedDirs.put(dir, key);
+            }
+            return true;
+        } catch (IOException | UnsupportedOperationException
+                 | ClosedWatchServiceException e) {
+            logger.log(Logger.Level.TRACE,
+                    "FileServerHandler: cannot watch " + dir, e);
+            return false;
+        }
+    }
+
+    // Removes all entries for the given path, and for any path under it.
+    private synchronized void invalidate(Path changed) {
+        generation++;
+        var iter = entries.values().iterator();
+        while (iter.hasNext()) {
+            Entry entry = iter.next();
+            if (entry.path().startsWith(changed)) {
+                weight -= entry.weight();
+                iter.remove();
+            }
+        }
+    }
+
+    // Processes the events of the given watch service until the cache is
+    // no longer reachable, then closes the watch service.
+    private static void processEvents(WeakReference<FileCache> ref, WatchService watcher) {
+        try {
+            while (true) {
+                WatchKey key;
+                try {
+                    key = watcher.poll(REACHABILITY_CHECK_SECONDS, TimeUnit.SECONDS);
+                } catch (InterruptedException | ClosedWatchServiceException e) {
+                    return;
+                }
+                if (!processEvents(ref, key)) {
+                    return;
+                }
+            }
+        } finally {
+            try {
+                watcher.close();
+            } catch (IOException ignore) {
+            }
+        }
+    }
+
+    // Processes the events of the given key, if any. Returns false if the
+    // cache is no longer reachable. The cache is only referred to by this
+    // frame, so that it is not kept reachable while waiting for events.
+    private static boolean processEvents(WeakReference<FileCache> ref, WatchKey key) {
+        FileCache cache = ref.get();
+        if (cache == null) {
+            return false;
+        }
+        if (key != null) {
+            cache.processEvents(key);
+        }
+        return true;
+    }
+
+    private void processEvents(WatchKey key) {
+        Path dir = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW) {
+                invalidate(dir);
+            } else {
+                invalidate(dir.resolve((Path) event.context()));
+            }
+        }
+        if (!key.reset()) {
+            synchronized (this) {
+                watchedDirs.remove(dir);
+            }
+            invalidate(dir);
+        }
+    }
+
+    static String lastModified(FileTime fileTime) {
+        return fileTime.toInstant().atZone(ZoneId.of("GMT"))
+                .format(DateTimeFormatter.RFC_1123_DATE_TIME);
+    }
+
+    static String etag(long size, FileTime lastModifiedTime) {
+        return "\"" + Long.toHexString(lastModifiedTime.to(TimeUnit.MICROSECONDS))
+                + "-" + Long.toHexString(size) + "\"";
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2005, 2022, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2005, 2026, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -25,32 +25,56 @@
 
 package sun.net.httpserver.simpleserver;
 
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.lang.System.Logger;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
-import java.time.ZoneId;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
 import com.sun.net.httpserver.Headers;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 import com.sun.net.httpserver.HttpHandlers;
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.LinkOption.NOFOLLOW_LINKS;
 
 /**
  * A basic HTTP file server handler for static content.
  *
  * <p> Must be given an absolute pathname to the directory to be served.
  * Supports only HEAD and GET requests. Directory listings and files can be
- * served, content types are supported on a best-guess basis.
+ * served, content types are supported on a best-guess basis. Byte range
+ * requests for files are supported as per RFC 7233, including multiple
+ * ranges, which are sent as a {@code multipart/byteranges} response.
+ * Conditional requests for files are supported by means of the
+ * {@code ETag} and {@code Last-Modified} validators, whose values can be
+ * kept, along with the content of small files, in a {@link FileCache}. Text
+ * based content is sent with the gzip content coding if acceptable to the
+ * client, see {@link CompressedVariants}.
  */
 public final class FileServerHandler implements HttpHandler {
 
@@ -61,6 +85,8 @@ public final class FileServerHandler implements HttpHandler {
     private final Path root;
     private final UnaryOperator<String> mimeTable;
     private final Logger logger;
+    private final FileCache cache;
+    private final CompressedVariants compressedVariants;
 
     private FileServerHandler(Path root, UnaryOperator<String> mimeTable) {
         root = root.normalize();
@@ -81,6 +107,8 @@ public final class FileServerHandler implements HttpHandler {
         this.root = root;
         this.mimeTable = mimeTable;
         this.logger = System.getLogger("com.sun.net.httpserver");
+        this.cache = new FileCache(root, logger);
+        this.compressedVariants = new CompressedVariants();
     }
 
     private static String pathForSecurityCheck(String path) {
@@ -119,13 +147,17 @@ public final class FileServerHandler implements HttpHandler {
                 handleMovedPermanently(exchange);
                 return;
             }
-            if (indexFile(path) != null) {
-                serveFile(exchange, indexFile(path), writeBody);
+            Path indexFile = indexFile(path);
+            if (indexFile != null) {
+                var entry = cache.load(null, indexFile, mediaType(indexFile.toString()));
+                serveFile(exchange, entry, writeBody);
             } else {
                 listFiles(exchange, path, writeBody);
             }
         } else {
-            serveFile(exchange, path, writeBody);
+            var entry = cache.load(relativeRequestPath(exchange), path,
+                    mediaType(path.toString()));
+            serveFile(exchange, entry, writeBody);
         }
     }
 
@@ -218,6 +250,16 @@ public final class FileServerHandler implements HttpHandler {
         return request.substring(context.length());
     }
 
+    // Returns the key of the exchange in the file cache, or null if the
+    // request path is not valid.
+    private static String cacheKey(HttpExchange exchange) {
+        try {
+            return relativeRequestPath(exchange);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     private Path mapToPath(HttpExchange exchange, Path root) {
         try {
             assert root.isAbsolute() && Files.isDirectory(root);  // checked during creation
@@ -250,42 +292,513 @@ public final class FileServerHandler implements HttpHandler {
         return Files.exists(html) ? html : Files.exists(htm) ? htm : null;
     }
 
-    private void serveFile(HttpExchange exchange, Path path, boolean writeBody)
+    // The content coding of a HEAD request is negotiated as for GET, so that
+    // the response has the headers that the GET response would have.
+    private void serveFile(HttpExchange exchange, FileCache.Entry entry, boolean writeBody)
+        throws IOException
+    {
+        if (CompressedVariants.isCompressible(entry.contentType())) {
+            exchange.getResponseHeaders().set("Vary", "Accept-Encoding");
+            if (entry.size() >= CompressedVariants.MIN_SIZE
+                    && CompressedVariants.acceptsGzip(exchange.getRequestHeaders())) {
+                var variant = gzipVariant(entry);
+                if (variant != null) {
+                    exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+                    serveEntry(exchange, variant, writeBody);
+                    return;
+                } else if (!exchange.getRequestHeaders().containsKey("Range")) {
+                    serveGzipStream(exchange, entry, writeBody);
+                    return;
+                }
+                // a range of content compressed while it is sent cannot be
+                // served, fall back to the identity coding
+            }
+        }
+        serveEntry(exchange, entry, writeBody);
+    }
+
+    // Returns the gzip variant of the given file, or null if the file must be
+    // compressed while it is sent. A precompressed variant is looked up by the
+    // current attributes of the precompressed file.
+    private FileCache.Entry gzipVariant(FileCache.Entry entry) throws IOException {
+        final String coding = CompressedVariants.GZIP;
+        Path gz = entry.path().resolveSibling(entry.path().getFileName() + ".gz");
+        try {
+            var attrs = Files.readAttributes(gz, BasicFileAttributes.class, NOFOLLOW_LINKS);
+            if (attrs.isRegularFile() && Files.isReadable(gz) && !Files.isHidden(gz)) {
+                return compressedVariants.precompressed(entry, gz, attrs, coding);
+            }
+        } catch (NoSuchFileException e) {
+            // no precompressed variant
+        }
+        var variant = compressedVariants.get(entry, coding);
+        if (variant != null) {
+            return variant;
+        }
+        return compressedVariants.compress(entry, coding);
+    }
+
+    private void serveGzipStream(HttpExchange exchange, FileCache.Entry entry,
+                                 boolean writeBody)
         throws IOException
     {
         var respHdrs = exchange.getResponseHeaders();
-        respHdrs.set("Content-Type", mediaType(path.toString()));
-        respHdrs.set("Last-Modified", getLastModified(path));
+        String etag = CompressedVariants.variantEtag(entry.etag(), CompressedVariants.GZIP);
+        respHdrs.set("Content-Type", entry.contentType());
+        respHdrs.set("Last-Modified", entry.lastModified());
+        respHdrs.set("ETag", etag);
+        respHdrs.set("Content-Encoding", "gzip");
+        if (notModified(exchange, entry.lastModifiedTime(), etag)) {
+            exchange.sendResponseHeaders(304, -1);
+            return;
+        }
+        if (!writeBody) {
+            exchange.sendResponseHeaders(200, -1);
+            return;
+        }
+        exchange.sendResponseHeaders(200, 0);  // chunked, length is not known
+        try (OutputStream os = CompressedVariants.gzip(exchange.getResponseBody())) {
+            Files.copy(entry.path(), os);
+        }
+    }
+
+    private void serveEntry(HttpExchange exchange, FileCache.Entry entry, boolean writeBody)
+        throws IOException
+    {
+        var respHdrs = exchange.getResponseHeaders();
+        respHdrs.set("Content-Type", entry.contentType());
+        respHdrs.set("Last-Modified", entry.lastModified());
+        respHdrs.set("ETag", entry.etag());
+        respHdrs.set("Accept-Ranges", "bytes");
+        if (notModified(exchange, entry.lastModifiedTime(), entry.etag())) {
+            exchange.sendResponseHeaders(304, -1);
+            return;
+        }
+        long size = entry.size();
         if (writeBody) {
-            exchange.sendResponseHeaders(200, Files.size(path));
-            try (InputStream fis = Files.newInputStream(path);
-                 OutputStream os = exchange.getResponseBody()) {
-                fis.transferTo(os);
+            List<ByteRange> ranges = requestedRanges(exchange, entry);
+            if (ranges == null) {
+                exchange.sendResponseHeaders(200, size);
+                try (OutputStream os = exchange.getResponseBody()) {
+                    if (entry.body() != null) {
+                        os.write(entry.body());
+                    } else {
+                        try (FileChannel fc = FileChannel.open(entry.path())) {
+                            transfer(fc, 0, size, os);
+                        }
+                    }
+                }
+            } else if (ranges.isEmpty()) {
+                handleRangeNotSatisfiable(exchange, size);
+            } else if (ranges.size() == 1) {
+                serveRange(exchange, entry, ranges.get(0));
+            } else {
+                serveMultipleRanges(exchange, entry, ranges);
             }
         } else {
-            respHdrs.set("Content-Length", Long.toString(Files.size(path)));
+            respHdrs.set("Content-Length", Long.toString(size));
             exchange.sendResponseHeaders(200, -1);
         }
     }
 
+    private void serveRange(HttpExchange exchange, FileCache.Entry entry, ByteRange range)
+        throws IOException
+    {
+        exchange.getResponseHeaders().set("Content-Range", range.contentRange(entry.size()));
+        exchange.sendResponseHeaders(206, range.length());
+        try (OutputStream os = exchange.getResponseBody()) {
+            if (entry.body() != null) {
+                os.write(entry.body(), (int) range.start(), (int) range.length());
+            } else {
+                try (FileChannel fc = FileChannel.open(entry.path())) {
+                    transfer(fc, range.start(), range.length(), os);
+                }
+            }
+        }
+    }
+
+    private void serveMultipleRanges(HttpExchange exchange, FileCache.Entry entry,
+                                     List<ByteRange> ranges)
+        throws IOException
+    {
+        String boundary = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        // part headers are computed upfront so that the response length is known
+        var partHeaders = new ArrayList<byte[]>(ranges.size());
+        long length = 0;
+        for (var range : ranges) {
+            byte[] partHeader = ("\r\n--" + boundary + "\r\n"
+                    + "Content-Type: " + entry.contentType() + "\r\n"
+                    + "Content-Range: " + range.contentRange(entry.size()) + "\r\n"
+                    + "\r\n").getBytes(UTF_8);
+            partHeaders.add(partHeader);
+            length += partHeader.length + range.length();
+        }
+        byte[] closeDelimiter = ("\r\n--" + boundary + "--\r\n").getBytes(UTF_8);
+        length += closeDelimiter.length;
+
+        exchange.getResponseHeaders().set("Content-Type",
+                "multipart/byteranges; boundary=" + boundary);
+        exchange.sendResponseHeaders(206, length);
+        try (OutputStream os = exchange.getResponseBody();
+             FileChannel fc = entry.body() == null ? FileChannel.open(entry.path()) : null) {
+            for (int i = 0; i < ranges.size(); i++) {
+                var range = ranges.get(i);
+                os.write(partHeaders.get(i));
+                if (fc == null) {
+                    os.write(entry.body(), (int) range.start(), (int) range.length());
+                } else {
+                    transfer(fc, range.start(), range.length(), os);
+                }
+            }
+            os.write(closeDelimiter);
+        }
+    }
+
+    // Evaluates the If-None-Match and If-Modified-Since preconditions of a
+    // GET or HEAD request, as per RFC 7232, section 6. Returns true if the
+    // response should be 304 (Not Modified).
+    private static boolean notModified(HttpExchange exchange, FileTime lastModifiedTime,
+                                       String etag) {
+        var reqHdrs = exchange.getRequestHeaders();
+        List<String> ifNoneMatch = reqHdrs.get("If-None-Match");
+        if (ifNoneMatch != null) {
+            for (String value : ifNoneMatch) {
+                for (String tag : value.split(",")) {
+                    tag = tag.strip();
+                    if (tag.equals("*") || weakEtag(tag).equals(weakEtag(etag))) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+        String ifModifiedSince = reqHdrs.getFirst("If-Modified-Since");
+        if (ifModifiedSince != null) {
+            try {
+                long since = ZonedDateTime.parse(ifModifiedSince.strip(),
+                        DateTimeFormatter.RFC_1123_DATE_TIME).toEpochSecond();
+                return lastModifiedTime.to(TimeUnit.SECONDS) <= since;
+            } catch (DateTimeParseException e) {
+                return false;  // invalid dates are ignored
+            }
+        }
+        return false;
+    }
+
+    private static String weakEtag(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    private static void handleRangeNotSatisfiable(HttpExchange exchange, long size)
+        throws IOException
+    {
+        exchange.getResponseHeaders().set("Content-Range", "bytes */" + size);
+        exchange.sendResponseHeaders(416, -1);
+    }
+
+    // Size of the buffer through which ranges of a file are sent
+    private static final int TRANSFER_BUFFER_SIZE = 16 * 1024;
+
+    // Transfers count bytes, starting at the given position of the file, to
+    // the response body. The response body is a stream, not a channel, so
+    // there is no zero-copy path: the range is read with positional reads
+    // into a buffer, which is written directly to the stream.
+    private static void transfer(FileChannel fc, long position, long count, OutputStream os)
+        throws IOException
+    {
+        if (count == 0) {
+            return;
+        }
+        var buf = ByteBuffer.allocate((int) Math.min(count, TRANSFER_BUFFER_SIZE));
+        while (count > 0) {
+            buf.clear().limit((int) Math.min(count, buf.capacity()));
+            int n = fc.read(buf, position);
+            if (n <= 0) {
+                throw new IOException("Unexpected end of file, file may have been truncated");
+            }
+            os.write(buf.array(), 0, n);
+            position += n;
+            count -= n;
+        }
+        os.flush();
+    }
+
+    // Maximum number of ranges honoured in a single request, more than that
+    // and the Range header is ignored, as permitted by RFC 7233, section 3.1.
+    private static final int MAX_RANGES = 16;
+
+    /**
+     * A satisfiable byte range, both positions are inclusive.
+     */
+    private record ByteRange(long start, long end) {
+        long length() {
+            return end - start + 1;
+        }
+
+        String contentRange(long size) {
+            return "bytes " + start + "-" + end + "/" + size;
+        }
+    }
+
+    /**
+     * Returns the satisfiable ranges requested by the exchange. Returns
+     * {@code null} if the full file should be sent, either because no valid
+     * Range header is present or because the If-Range validator does not
+     * match, and an empty list if none of the requested ranges is satisfiable.
+     */
+    private static List<ByteRange> requestedRanges(HttpExchange exchange,
+                                                   FileCache.Entry entry) {
+        var reqHdrs = exchange.getRequestHeaders();
+        String range = reqHdrs.getFirst("Range");
+        if (range == null || reqHdrs.get("Range").size() > 1) {
+            return null;
+        }
+        String ifRange = reqHdrs.getFirst("If-Range");
+        if (ifRange != null) {
+            // strong comparison, as per RFC 7233, section 3.2
+            ifRange = ifRange.strip();
+            if (!ifRange.equals(entry.etag()) && !ifRange.equals(entry.lastModified())) {
+                return null;  // representation has changed, send it in full
+            }
+        }
+        return parseRanges(range, entry.size());
+    }
+
+    // Parses a "bytes=" Range header value. Returns null if the header is
+    // syntactically invalid or should otherwise be ignored. Overlapping and
+    // adjacent ranges are coalesced, so the response is never larger than
+    // the file plus the multipart overhead.
+    private static List<ByteRange> parseRanges(String value, long size) {
+        int eq = value.indexOf('=');
+        if (eq < 0 || !value.substring(0, eq).strip().equalsIgnoreCase("bytes")) {
+            return null;
+        }
+        String[] specs = value.substring(eq + 1).split(",");
+        if (specs.length > MAX_RANGES) {
+            return null;
+        }
+        var ranges = new ArrayList<ByteRange>(specs.length);
+        try {
+            for (String spec : specs) {
+                spec = spec.strip();
+                int dash = spec.indexOf('-');
+                if (dash < 0) {
+                    return null;
+                }
+                String first = spec.substring(0, dash).strip();
+                String last = spec.substring(dash + 1).strip();
+                long start, end;
+                if (first.isEmpty()) {
+                    // suffix-byte-range-spec, i.e. the final N bytes
+                    long suffix = parseRangePosition(last);
+                    if (suffix == 0 || size == 0) {
+                        continue;
+                    }
+                    start = Math.max(0, size - suffix);
+                    end = size - 1;
+                } else {
+                    start = parseRangePosition(first);
+                    end = last.isEmpty() ? size - 1
+                            : Math.min(parseRangePosition(last), size - 1);
+                    if (!last.isEmpty() && parseRangePosition(last) < start) {
+                        return null;
+                    }
+                    if (start >= size) {
+                        continue;
+                    }
+                }
+                ranges.add(new ByteRange(start, end));
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        return coalesce(ranges);
+    }
+
+    // Coalesces the ranges that overlap or are adjacent, as permitted by
+    // RFC 7233, section 4.1. The resulting ranges are in ascending order.
+    private static List<ByteRange> coalesce(List<ByteRange> ranges) {
+        if (ranges.size() < 2) {
+            return ranges;
+        }
+        ranges.sort(Comparator.comparingLong(ByteRange::start));
+        var coalesced = new ArrayList<ByteRange>(ranges.size());
+        ByteRange current = ranges.get(0);
+        for (int i = 1; i < ranges.size(); i++) {
+            ByteRange next = ranges.get(i);
+            if (next.start() <= current.end() + 1) {
+                current = new ByteRange(current.start(), Math.max(current.end(), next.end()));
+            } else {
+                coalesced.add(current);
+                current = next;
+            }
+        }
+        coalesced.add(current);
+        return coalesced;
+    }
+
+    private static long parseRangePosition(String s) {
+        if (s.isEmpty() || s.charAt(0) == '+' || s.charAt(0) == '-') {
+            throw new NumberFormatException(s);
+        }
+        return Long.parseLong(s);
+    }
+
     private void listFiles(HttpExchange exchange, Path path, boolean writeBody)
         throws IOException
     {
+        var params = ListingParams.of(exchange);
         var respHdrs = exchange.getResponseHeaders();
-        respHdrs.set("Content-Type", "text/html; charset=UTF-8");
+        respHdrs.set("Content-Type", params.json()
+                ? "application/json; charset=UTF-8" : "text/html; charset=UTF-8");
         respHdrs.set("Last-Modified", getLastModified(path));
-        var bodyBytes = dirListing(exchange, path).getBytes(UTF_8);
-        if (writeBody) {
-            exchange.sendResponseHeaders(200, bodyBytes.length);
-            try (OutputStream os = exchange.getResponseBody()) {
-                os.write(bodyBytes);
+        respHdrs.set("Vary", "Accept, Accept-Encoding");
+        boolean gzip = CompressedVariants.acceptsGzip(exchange.getRequestHeaders());
+        if (gzip) {
+            respHdrs.set("Content-Encoding", "gzip");
+        }
+        if (!writeBody) {
+            // The listing is generated, and only counted, so that the
+            // response has the length that the GET response would have.
+            var counter = new CountingOutputStream();
+            try (var entries = Files.list(path)) {
+                writeListing(counter, gzip, exchange, listableEntries(path, entries), params);
             }
-        } else {
-            respHdrs.set("Content-Length", Integer.toString(bodyBytes.length));
+            respHdrs.set("Content-Length", Long.toString(counter.count));
             exchange.sendResponseHeaders(200, -1);
+            return;
+        }
+        // The listing is streamed, with chunked transfer encoding, while the
+        // directory is read, so memory use does not depend on its size.
+        try (var entries = Files.list(path)) {
+            Iterator<URI> iter = listableEntries(path, entries);
+            exchange.sendResponseHeaders(200, 0);
+            writeListing(exchange.getResponseBody(), gzip, exchange, iter, params);
+        }
+    }
+
+    // Writes the listing of the given entries to the given stream, which
+    // is closed.
+    private static void writeListing(OutputStream os, boolean gzip,
+                                     HttpExchange exchange, Iterator<URI> iter,
+                                     ListingParams params)
+        throws IOException
+    {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                gzip ? CompressedVariants.gzip(os) : os, UTF_8))) {
+            if (params.json()) {
+                jsonDirListing(writer, exchange, iter, params);
+            } else {
+                dirListing(writer, exchange, iter, params);
+            }
+        }
+    }
+
+    // An output stream that discards, and counts, the bytes written to it.
+    private static final class CountingOutputStream extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            Objects.checkFromIndexSize(off, len, b.length);
+            count += len;
+        }
+    }
+
+    /**
+     * The parameters of a directory listing, given by the query of the
+     * request URI: {@code format=json} selects the JSON format, which is also
+     * selected by an Accept header that prefers {@code application/json}, and
+     * {@code offset} and {@code limit} select a page of the listing.
+     */
+    private record ListingParams(boolean json, long offset, long limit) {
+        static ListingParams of(HttpExchange exchange) {
+            String accept = exchange.getRequestHeaders().getFirst("Accept");
+            boolean json = accept != null
+                    && accept.contains("application/json") && !accept.contains("text/html");
+            long offset = 0;
+            long limit = Long.MAX_VALUE;
+            String query = exchange.getRequestURI().getRawQuery();
+            if (query != null) {
+                for (String param : query.split("&")) {
+                    int eq = param.indexOf('=');
+                    String name = eq < 0 ? param : param.substring(0, eq);
+                    String value = eq < 0 ? "" : param.substring(eq + 1);
+                    switch (name) {
+                        case "format" -> json = value.equals("json");
+                        case "offset" -> offset = parsePositive(value, 0);
+                        case "limit" -> limit = parsePositive(value, Long.MAX_VALUE);
+                    }
+                }
+            }
+            return new ListingParams(json, offset, limit);
+        }
+
+        // Invalid values are ignored, and the default is used instead.
+        private static long parsePositive(String value, long defaultValue) {
+            try {
+                long l = Long.parseLong(value);
+                return l > 0 ? l : defaultValue;
+            } catch (NumberFormatException e) {
+                return defaultValue;
+            }
+        }
+
+        // Returns the query of the next page, given the number of entries
+        // listed so far.
+        String nextPageQuery(long listed) {
+            return "?" + (json ? "format=json&" : "") + "offset=" + (offset + listed)
+                    + "&limit=" + limit;
+        }
+    }
+
+    // Returns an iterator over the listable entries of the given directory,
+    // as URIs relative to the directory. Directory URIs end with a slash.
+    private Iterator<URI> listableEntries(Path dir, Stream<Path> entries) {
+        URI dirUri = dir.toUri();
+        return entries.filter(this::isListable)
+                      .map(p -> dirUri.relativize(p.toUri()))
+                      .iterator();
+    }
+
+    private boolean isListable(Path path) {
+        try {
+            return Files.isReadable(path) && !isHiddenOrSymLink(path);
+        } catch (UncheckedIOException e) {
+            // the response is being sent, the entry can only be skipped
+            logger.log(System.Logger.Level.TRACE,
+                    "FileServerHandler: cannot list " + path, e);
+            return false;
         }
     }
 
+    // Skips to the page offset of the listing, writes at most the page
+    // limit of entries, and returns the number of entries written.
+    private static long writeEntries(Writer writer, Iterator<URI> iter,
+                                     ListingParams params,
+                                     boolean json) throws IOException {
+        for (long i = 0; i < params.offset() && iter.hasNext(); i++) {
+            iter.next();
+        }
+        long listed = 0;
+        while (listed < params.limit() && iter.hasNext()) {
+            URI uri = iter.next();
+            if (json) {
+                writer.write(listed == 0 ? "\n" : ",\n");
+                writer.write(jsonListItemFor(uri));
+            } else {
+                writer.write(hrefListItemFor(uri));
+            }
+            listed++;
+        }
+        return listed;
+    }
+
     private static final String openHTML = """
             <!DOCTYPE html>
             <html>
@@ -308,28 +821,81 @@ public final class FileServerHandler implements HttpHandler {
         return hrefListItemTemplate.formatted(uri.toASCIIString(), sanitize.apply(uri.getPath()));
     }
 
-    private static String dirListing(HttpExchange exchange, Path path) throws IOException {
+    private static void dirListing(Writer writer, HttpExchange exchange,
+                                   Iterator<URI> iter, ListingParams params)
+        throws IOException
+    {
         String dirListing = ResourceBundleHelper.getMessage("html.dir.list");
-        var sb = new StringBuilder(openHTML
+        writer.write(openHTML
                 + "<h1>" + dirListing + " "
                 + sanitize.apply(exchange.getRequestURI().getPath())
                 + "</h1>\n"
                 + "<ul>\n");
-        try (var paths = Files.list(path)) {
-            paths.filter(p -> Files.isReadable(p) && !isHiddenOrSymLink(p))
-                 .map(p -> path.toUri().relativize(p.toUri()))
-                 .forEach(uri -> sb.append(hrefListItemFor(uri)));
+        long listed = writeEntries(writer, iter, params, false);
+        writer.write("</ul>\n");
+        if (iter.hasNext()) {
+            String nextPage = ResourceBundleHelper.getMessage("html.next.page");
+            writer.write(nextPageTemplate.formatted(
+                    sanitize.apply(params.nextPageQuery(listed)), nextPage));
         }
-        sb.append("</ul>\n");
-        sb.append(closeHTML);
+        writer.write(closeHTML);
+    }
+
+    private static final String nextPageTemplate = """
+            <p><a href="%s">%s</a></p>
+            """;
 
-        return sb.toString();
+    private static void jsonDirListing(Writer writer, HttpExchange exchange,
+                                       Iterator<URI> iter, ListingParams params)
+        throws IOException
+    {
+        writer.write("{\n\"path\": " + jsonString(exchange.getRequestURI().getPath())
+                + ",\n\"offset\": " + params.offset()
+                + ",\n\"entries\": [");
+        long listed = writeEntries(writer, iter, params, true);
+        writer.write("\n]");
+        if (iter.hasNext()) {
+            writer.write(",\n\"next\": " + jsonString(params.nextPageQuery(listed)));
+        }
+        writer.write("\n}\n");
+    }
+
+    private static String jsonListItemFor(URI uri) {
+        String name = uri.getPath();
+        boolean isDirectory = name.endsWith("/");
+        if (isDirectory) {
+            name = name.substring(0, name.length() - 1);
+        }
+        return "{\"name\": " + jsonString(name)
+                + ", \"href\": " + jsonString(uri.toASCIIString())
+                + ", \"type\": \"" + (isDirectory ? "directory" : "file") + "\"}";
+    }
+
+    // Returns the given string as a JSON string literal, as per RFC 8259
+    private static String jsonString(String s) {
+        var sb = new StringBuilder(s.length() + 2).append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        return sb.append('"').toString();
     }
 
     private static String getLastModified(Path path) throws IOException {
-        var fileTime = Files.getLastModifiedTime(path);
-        return fileTime.toInstant().atZone(ZoneId.of("GMT"))
-                .format(DateTimeFormatter.RFC_1123_DATE_TIME);
+        return FileCache.lastModified(Files.getLastModifiedTime(path));
     }
 
     private static boolean isHiddenOrSymLink(Path path) {
@@ -371,6 +937,12 @@ public final class FileServerHandler implements HttpHandler {
         assert List.of("GET", "HEAD").contains(exchange.getRequestMethod());
         try (exchange) {
             discardRequestBody(exchange);
+            var entry = cache.get(cacheKey(exchange));
+            if (entry != null) {
+                exchange.setAttribute("request-path", entry.path().toString());
+                serveFile(exchange, entry, exchange.getRequestMethod().equals("GET"));
+                return;
+            }
             Path path = mapToPath(exchange, root);
             if (path != null) {
                 exchange.setAttribute("request-path", path.toString());  // store for OutputFilter
@@ -0,0 +1,255 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+
+package jdk.tools.jimage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import jdk.internal.jimage.BasicImageReader;
+import jdk.internal.jimage.ImageLocation;
+
+/**
+ * Processes the resources of a jimage file one module at a time, with the
+ * modules spread over a number of threads, for the {@code extract} and
+ * {@code verify} tasks.
+ *
+ * Each thread opens its own {@link BasicImageReader} on the image, which
+ * maps the whole image on 64-bit platforms, as the decompressor of a
+ * reader is not thread safe. The resources of a module are processed in
+ * order by the same thread, and the results are reported in the order of
+ * the modules, so that the output does not depend on the number of
+ * threads. The number of threads defaults to the number of available
+ * processors and is set with the {@code jdk.jimage.parallelism} system
+ * property.
+ */
+final class ModuleWalker {
+
+    static final int PARALLELISM = parallelism();
+
+    /**
+     * Checks the content of a resource.
+     */
+    @FunctionalInterface
+    interface Verifier {
+        /**
+         * Returns true if the given resource is valid. The buffer is only
+         * valid for the duration of the call.
+         */
+        boolean verify(String name, ByteBuffer content) throws Exception;
+    }
+
+    private final Path imagePath;
+    private final int parallelism;
+    // the entry names of each module, in module order
+    private final List<List<String>> modules;
+
+    ModuleWalker(Path imagePath, int parallelism) throws IOException {
+        this.imagePath = imagePath;
+        this.parallelism = Math.max(1, parallelism);
+        Map<String, List<String>> byModule = new LinkedHashMap<>();
+        try (BasicImageReader reader = BasicImageReader.open(imagePath)) {
+            for (String name : reader.getEntryNames()) {
+                String module = moduleOf(name);
+                if (!module.isEmpty() && !module.equals("modules")
+                        && !module.equals("packages")) {
+                    byModule.computeIfAbsent(module, m -> new ArrayList<>()).add(name);
+                }
+            }
+        }
+        this.modules = new ArrayList<>(byModule.values());
+    }
+
+    /**
+     * Writes the resources of the image to the given directory, in a
+     * subdirectory per module.
+     */
+    void extract(Path dir) throws IOException {
+        walk((reader, names) -> {
+            Set<Path> created = new HashSet<>();
+            for (String name : names) {
+                // names start with '/'
+                Path file = dir.resolve(name.substring(1));
+                Path parent = file.getParent();
+                if (created.add(parent)) {
+                    Files.createDirectories(parent);
+                }
+                ImageLocation location = reader.findLocation(name);
+                ByteBuffer content = reader.getResourceBuffer(location);
+                try (FileChannel fc = FileChannel.open(file,
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING)) {
+                    while (content.hasRemaining()) {
+                        fc.write(content);
+                    }
+                } finally {
+                    BasicImageReader.releaseByteBuffer(content);
+                }
+            }
+            return Collections.<String>emptyList();
+        });
+    }
+
+    /**
+     * Verifies the resources of the image with the given verifier, and
+     * returns the names of the resources that are not valid, or that
+     * cannot be read, in the order of the image.
+     */
+    List<String> verify(Verifier verifier) throws IOException {
+        return walk((reader, names) -> {
+            List<String> failed = new ArrayList<>();
+            for (String name : names) {
+                ByteBuffer content = null;
+                try {
+                    content = reader.getResourceBuffer(reader.findLocation(name));
+                    if (!verifier.verify(name, content)) {
+                        failed.add(name);
+                    }
+                } catch (Exception ex) {
+                    failed.add(name);
+                } finally {
+                    if (content != null) {
+                        BasicImageReader.releaseByteBuffer(content);
+                    }
+                }
+            }
+            return failed;
+        });
+    }
+
+    // Processes the resources of a module, returning the names to report
+    @FunctionalInterface
+    private interface ModuleTask {
+        List<String> process(BasicImageReader reader, List<String> names)
+                throws IOException;
+    }
+
+    private List<String> walk(ModuleTask task) throws IOException {
+        int count = modules.size();
+        AtomicReferenceArray<List<String>> results = new AtomicReferenceArray<>(count);
+        AtomicInteger next = new AtomicInteger();
+        int threads = Math.min(parallelism, count);
+        if (threads <= 1) {
+            work(task, next, results);
+        } else {
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                CompletionService<Void> workers = new ExecutorCompletionService<>(executor);
+                for (int i = 0; i < threads; i++) {
+                    workers.submit(() -> {
+                        work(task, next, results);
+                        return null;
+                    });
+                }
+                // workers are waited for in the order they complete, so that
+                // the first failure stops the others at their next module
+                Throwable failure = null;
+                for (int i = 0; i < threads; i++) {
+                    try {
+                        workers.take().get();
+                    } catch (ExecutionException ex) {
+                        next.set(count);
+                        if (failure == null) {
+                            failure = ex.getCause();
+                        } else {
+                            failure.addSuppressed(ex.getCause());
+                        }
+                    } catch (InterruptedException ex) {
+                        next.set(count);
+                        Thread.currentThread().interrupt();
+                        throw new IOException(ex);
+                    }
+                }
+                if (failure instanceof RuntimeException re) {
+                    throw re;
+                }
+                if (failure instanceof Error e) {
+                    throw e;
+                }
+                if (failure != null) {
+                    throw (IOException) failure;
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+        List<String> reported = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            List<String> result = results.get(i);
+            if (result != null) {
+                reported.addAll(result);
+            }
+        }
+        return reported;
+    }
+
+    // Processes modules until there is none left
+    private void work(ModuleTask task, AtomicInteger next,
+                      AtomicReferenceArray<List<String>> results) throws IOException {
+        try (BasicImageReader reader = BasicImageReader.open(imagePath)) {
+            int i;
+            while ((i = next.getAndIncrement()) < modules.size()) {
+                results.set(i, task.process(reader, modules.get(i)));
+            }
+        }
+    }
+
+    private static String moduleOf(String name) {
+        int end = name.indexOf('/', 1);
+        return name.startsWith("/") && end != -1 ? name.substring(1, end) : "";
+    }
+
+    private static int parallelism() {
+        int n = Runtime.getRuntime().availableProcessors();
+        String s = System.getProperty("jdk.jimage.parallelism");
+        if (s != null) {
+            try {
+                n = Integer.parseInt(s);
+            } catch (NumberFormatException e) {
+                // use default
+            }
+        }
+        return Math.max(1, n);
+    }
+}
@@ -1,6 +1,6 @@
 
 /*
- * Copyright (c) 2014, 2017, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2014, 2026, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -26,12 +26,28 @@
 
 package jdk.tools.jlink.internal;
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
 import jdk.internal.jimage.ImageLocation;
 import jdk.internal.jimage.ImageStream;
 import jdk.internal.jimage.ImageStringsReader;
 
 public final class ImageLocationWriter extends ImageLocation {
+    /**
+     * The number of threads used to build and write locations, from the
+     * {@code jdk.jlink.parallelism} system property, by default the number
+     * of available processors. It is the size of the pool shared by all the
+     * parallel stages, and the default parallelism of the stages.
+     */
+    static final int PARALLELISM = parallelism();
+
+    // the number of locations below which a task is not split
+    private static final int SPLIT_THRESHOLD = 256;
+
     private int locationOffset;
+    private byte[] compressed;
 
     private ImageLocationWriter(ImageStringsWriter strings) {
         super(new long[ATTRIBUTE_COUNT], strings);
@@ -57,6 +73,88 @@ public final class ImageLocationWriter extends ImageLocation {
     static ImageLocationWriter newLocation(String fullName,
             ImageStringsWriter strings,
             long contentOffset, long compressedSize, long uncompressedSize) {
+        return newLocation(splitName(fullName), strings,
+                contentOffset, compressedSize, uncompressedSize);
+    }
+
+    private static ImageLocationWriter newLocation(String[] names,
+            ImageStringsWriter strings,
+            long contentOffset, long compressedSize, long uncompressedSize) {
+        return new ImageLocationWriter(strings)
+               .addAttribute(ATTRIBUTE_MODULE, names[0])
+               .addAttribute(ATTRIBUTE_PARENT, names[1])
+               .addAttribute(ATTRIBUTE_BASE, names[2])
+               .addAttribute(ATTRIBUTE_EXTENSION, names[3])
+               .addAttribute(ATTRIBUTE_OFFSET, contentOffset)
+               .addAttribute(ATTRIBUTE_COMPRESSED, compressedSize)
+               .addAttribute(ATTRIBUTE_UNCOMPRESSED, uncompressedSize);
+    }
+
+    /**
+     * Creates the locations of the given resources, the names of which
+     * are split in parallel by {@link #PARALLELISM} threads.
+     */
+    static ImageLocationWriter[] newLocations(String[] fullNames,
+            ImageStringsWriter strings, long[] contentOffsets,
+            long[] compressedSizes, long[] uncompressedSizes) {
+        return newLocations(fullNames, strings, contentOffsets,
+                compressedSizes, uncompressedSizes, PARALLELISM);
+    }
+
+    /**
+     * Creates the locations of the given resources, the names of which
+     * are split in parallel by up to the given number of threads. The
+     * strings are added to the strings table in the order of the
+     * resources, so that the table does not depend on the parallelism.
+     */
+    static ImageLocationWriter[] newLocations(String[] fullNames,
+            ImageStringsWriter strings, long[] contentOffsets,
+            long[] compressedSizes, long[] uncompressedSizes, int parallelism) {
+        int count = fullNames.length;
+        if (contentOffsets.length != count || compressedSizes.length != count ||
+                uncompressedSizes.length != count) {
+            throw new IllegalArgumentException("Mismatched resource attributes");
+        }
+        String[][] names = new String[count][];
+        forEach(count, parallelism, i -> names[i] = splitName(fullNames[i]));
+        ImageLocationWriter[] locations = new ImageLocationWriter[count];
+        for (int i = 0; i < count; i++) {
+            locations[i] = newLocation(names[i], strings,
+                    contentOffsets[i], compressedSizes[i], uncompressedSizes[i]);
+        }
+        return locations;
+    }
+
+    /**
+     * Writes the given locations to the given stream, in the given order.
+     * The attributes of the locations are compressed in parallel by
+     * {@link #PARALLELISM} threads.
+     */
+    static void writeTo(ImageStream stream, ImageLocationWriter[] locations) {
+        writeTo(stream, locations, PARALLELISM);
+    }
+
+    /**
+     * Writes the given locations to the given stream, in the given order.
+     * The attributes of the locations are compressed in parallel by up to
+     * the given number of threads.
+     */
+    static void writeTo(ImageStream stream, ImageLocationWriter[] locations,
+                        int parallelism) {
+        forEach(locations.length, parallelism, i -> {
+            ImageLocationWriter location = locations[i];
+            location.compressed = ImageLocation.compress(location.attributes);
+        });
+        for (ImageLocationWriter location : locations) {
+            byte[] bytes = location.compressed;
+            location.compressed = null;
+            location.locationOffset = stream.getPosition();
+            stream.put(bytes, 0, bytes.length);
+        }
+    }
+
+    // Splits a full name into its module, parent, base and extension
+    private static String[] splitName(String fullName) {
         String moduleName = "";
         String parentName = "";
         String baseName;
@@ -90,14 +188,71 @@ public final class ImageLocationWriter extends ImageLocation {
             }
         }
 
-        return new ImageLocationWriter(strings)
-               .addAttribute(ATTRIBUTE_MODULE, moduleName)
-               .addAttribute(ATTRIBUTE_PARENT, parentName)
-               .addAttribute(ATTRIBUTE_BASE, baseName)
-               .addAttribute(ATTRIBUTE_EXTENSION, extensionName)
-               .addAttribute(ATTRIBUTE_OFFSET, contentOffset)
-               .addAttribute(ATTRIBUTE_COMPRESSED, compressedSize)
-               .addAttribute(ATTRIBUTE_UNCOMPRESSED, uncompressedSize);
+        return new String[] { moduleName, parentName, baseName, extensionName };
+    }
+
+    private static int parallelism() {
+        int n = Runtime.getRuntime().availableProcessors();
+        String s = System.getProperty("jdk.jlink.parallelism");
+        if (s != null) {
+            try {
+                n = Integer.parseInt(s);
+            } catch (NumberFormatException e) {
+                // use default
+            }
+        }
+        return Math.max(1, n);
+    }
+
+    /**
+     * The pool of the parallel stages, created on first use. Its worker
+     * threads are daemon threads, which terminate when idle.
+     */
+    private static final class Pool {
+        static final ForkJoinPool POOL = new ForkJoinPool(PARALLELISM);
+    }
+
+    // Applies the given action to the indexes from 0 to count, in the shared
+    // pool, using up to the given number of threads. The indexes are split
+    // in at most that many contiguous ranges, one task per range.
+    private static void forEach(int count, int parallelism, IntConsumer action) {
+        int tasks = Math.min(parallelism, (count + SPLIT_THRESHOLD - 1) / SPLIT_THRESHOLD);
+        if (tasks <= 1) {
+            for (int i = 0; i < count; i++) {
+                action.accept(i);
+            }
+            return;
+        }
+        Pool.POOL.invoke(new ForEach(action, 0, count, tasks));
+    }
+
+    @SuppressWarnings("serial")
+    private static final class ForEach extends RecursiveAction {
+        private final IntConsumer action;
+        private final int from;
+        private final int to;
+        private final int tasks;
+
+        ForEach(IntConsumer action, int from, int to, int tasks) {
+            this.action = action;
+            this.from = from;
+            this.to = to;
+            this.tasks = tasks;
+        }
+
+        @Override
+        protected void compute() {
+            if (tasks <= 1) {
+                for (int i = from; i < to; i++) {
+                    action.accept(i);
+                }
+            } else {
+                int half = tasks / 2;
+                int mid = from + (int) ((long) (to - from) * half / tasks);
+                invokeAll(new ForEach(action, from, mid, half),
+                          new ForEach(action, mid, to, tasks - half));
+            }
+        }
     }
 
     @Override
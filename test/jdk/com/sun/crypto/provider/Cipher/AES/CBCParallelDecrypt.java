@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+/*
+ * @test
+ * @summary Tests that the parallel decryption of large AES/CBC inputs
+ *          gives the same results as the sequential decryption
+ * @run main/othervm -Djdk.crypto.cbc.parallelDecryptThreshold=524288
+ *      -Djava.util.concurrent.ForkJoinPool.common.parallelism=4
+ *      CBCParallelDecrypt
+ */
+
+import java.util.Arrays;
+import java.util.Random;
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+public class CBCParallelDecrypt {
+
+    // the largest input decrypted sequentially
+    private static final int SEQUENTIAL = 512 * 1024 - 16;
+
+    public static void main(String[] args) throws Exception {
+        Random random = new Random();
+        for (int keySize : new int[] { 16, 24, 32 }) {
+            byte[] key = new byte[keySize];
+            byte[] iv = new byte[16];
+            random.nextBytes(key);
+            random.nextBytes(iv);
+            SecretKeySpec ks = new SecretKeySpec(key, "AES");
+            IvParameterSpec ivs = new IvParameterSpec(iv);
+
+            for (int len : new int[] { 512 * 1024, 1024 * 1024 + 16, 4 * 1024 * 1024 + 48 }) {
+                byte[] plain = new byte[len];
+                random.nextBytes(plain);
+                Cipher c = Cipher.getInstance("AES/CBC/NoPadding");
+                c.init(Cipher.ENCRYPT_MODE, ks, ivs);
+                byte[] encrypted = c.doFinal(plain);
+
+                // all at once, in parallel
+                c.init(Cipher.DECRYPT_MODE, ks, ivs);
+                check(c.doFinal(encrypted), plain, "doFinal, len " + len);
+
+                // at an offset, into an other array
+                byte[] in = new byte[len + 5];
+                System.arraycopy(encrypted, 0, in, 5, len);
+                byte[] out = new byte[len + 11];
+                c.init(Cipher.DECRYPT_MODE, ks, ivs);
+                c.doFinal(in, 5, len, out, 11);
+                check(Arrays.copyOfRange(out, 11, 11 + len), plain,
+                        "offsets, len " + len);
+
+                // in place
+                byte[] buf = encrypted.clone();
+                c.init(Cipher.DECRYPT_MODE, ks, ivs);
+                c.doFinal(buf, 0, len, buf, 0);
+                check(buf, plain, "in place, len " + len);
+
+                // a large update followed by sequential ones, which must
+                // start from the last cipher block of the parallel one
+                c.init(Cipher.DECRYPT_MODE, ks, ivs);
+                byte[] result = new byte[len];
+                int first = len - 48;
+                int n = c.update(encrypted, 0, first, result, 0);
+                n += c.update(encrypted, first, 32, result, n);
+                n += c.doFinal(encrypted, first + 32, 16, result, n);
+                check(result, plain, "updates, len " + len);
+
+                // sequentially, in updates below the threshold
+                c.init(Cipher.DECRYPT_MODE, ks, ivs);
+                result = new byte[len];
+                n = 0;
+                for (int off = 0; off < len; off += SEQUENTIAL) {
+                    int l = Math.min(SEQUENTIAL, len - off);
+                    n += c.update(encrypted, off, l, result, n);
+                }
+                c.doFinal(result, n);
+                check(result, plain, "sequential, len " + len);
+            }
+        }
+        System.out.println("Test passed");
+    }
+
+    private static void check(byte[] actual, byte[] expected, String what) {
+        if (!Arrays.equals(actual, expected)) {
+            throw new RuntimeException("Decryption mismatch: " + what);
+        }
+    }
+}
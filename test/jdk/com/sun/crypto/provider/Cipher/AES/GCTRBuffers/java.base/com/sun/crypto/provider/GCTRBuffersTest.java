@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.crypto.provider;
+
+import java.lang.foreign.Arena;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import static org.testng.Assert.*;
+
+public class GCTRBuffersTest {
+
+    private static final Random RANDOM = new Random();
+
+    @DataProvider
+    public Object[][] counters() {
+        // a counter block that does not roll over, and one that rolls over
+        // after 16 blocks
+        return new Object[][] {
+                { 0x00000002 },
+                { 0xFFFFFFF0 },
+        };
+    }
+
+    private static GCTR newGCTR(byte[] key, byte[] counter) throws Exception {
+        AESCrypt aes = new AESCrypt();
+        aes.init(false, "AES", key);
+        return new GCTR(aes, counter.clone());
+    }
+
+    private static byte[] counterBlock(int ctr32) {
+        byte[] counter = new byte[16];
+        RANDOM.nextBytes(counter);
+        counter[12] = (byte) (ctr32 >>> 24);
+        counter[13] = (byte) (ctr32 >>> 16);
+        counter[14] = (byte) (ctr32 >>> 8);
+        counter[15] = (byte) ctr32;
+        return counter;
+    }
+
+    private static ByteBuffer buffer(byte[] content, boolean direct, int pad) {
+        ByteBuffer buf = direct ? ByteBuffer.allocateDirect(content.length + 2 * pad)
+                                : ByteBuffer.allocate(content.length + 2 * pad);
+        buf.position(pad);
+        buf.put(content);
+        buf.position(pad);
+        buf.limit(pad + content.length);
+        return buf.slice();
+    }
+
+    private static byte[] contents(ByteBuffer buf, int from, int to) {
+        byte[] bytes = new byte[to - from];
+        buf.duplicate().position(from).limit(to).get(bytes);
+        return bytes;
+    }
+
+    @Test(dataProvider = "counters")
+    public void testBuffers(int ctr32) throws Exception {
+        byte[] key = new byte[16];
+        RANDOM.nextBytes(key);
+        byte[] counter = counterBlock(ctr32);
+        for (int len : new int[] { 0, 5, 16, 33, 1024, 4096, 4100, 10_000 }) {
+            byte[] in = new byte[len];
+            RANDOM.nextBytes(in);
+            byte[] expected = new byte[len];
+            newGCTR(key, counter).doFinal(in, 0, len, expected, 0);
+
+            for (int mode = 0; mode < 4; mode++) {
+                boolean srcDirect = mode != 1;
+                boolean dstDirect = mode != 2;
+                ByteBuffer src = buffer(in, srcDirect, 3);
+                ByteBuffer dst = dstDirect ? ByteBuffer.allocateDirect(len + 7)
+                                           : ByteBuffer.allocate(len + 7);
+                dst.position(7);
+                if (mode == 3) {
+                    // in place
+                    dst = src.duplicate();
+                }
+                int pos = dst.position();
+                assertEquals(newGCTR(key, counter).doFinal(src, dst), len);
+                assertFalse(src.hasRemaining());
+                assertEquals(dst.position(), pos + len);
+                assertEquals(contents(dst, pos, pos + len), expected,
+                        "len " + len + ", mode " + mode);
+            }
+
+            // several updates
+            ByteBuffer src = buffer(in, true, 0);
+            ByteBuffer dst = ByteBuffer.allocateDirect(len);
+            GCTR gctr = newGCTR(key, counter);
+            while (src.remaining() >= 16) {
+                ByteBuffer part = src.duplicate();
+                part.limit(part.position() + Math.min(part.remaining(),
+                        16 * (1 + RANDOM.nextInt(300)) + RANDOM.nextInt(16)));
+                gctr.update(part, dst);
+                src.position(part.position());
+            }
+            gctr.doFinal(src, dst);
+            assertEquals(contents(dst, 0, len), expected, "updates, len " + len);
+        }
+    }
+
+    @Test(dataProvider = "counters")
+    public void testOverlapping(int ctr32) throws Exception {
+        byte[] key = new byte[32];
+        RANDOM.nextBytes(key);
+        byte[] counter = counterBlock(ctr32);
+        int len = 8192;
+        byte[] in = new byte[len];
+        RANDOM.nextBytes(in);
+        byte[] expected = new byte[len];
+        newGCTR(key, counter).doFinal(in, 0, len, expected, 0);
+        for (boolean direct : new boolean[] { true, false }) {
+            // the output may start before the input, but not inside it
+            for (int shift : new int[] { -100, -16, -1 }) {
+                ByteBuffer buf = direct ? ByteBuffer.allocateDirect(len + 200)
+                                        : ByteBuffer.allocate(len + 200);
+                ByteBuffer src = buf.duplicate().position(100).limit(100 + len);
+                src.slice().put(in);
+                ByteBuffer dst = buf.duplicate().position(100 + shift);
+                if (!direct) {
+                    // heap buffers that are both backed by arrays are
+                    // processed through the arrays
+                    src = src.asReadOnlyBuffer();
+                }
+                newGCTR(key, counter).doFinal(src, dst);
+                assertEquals(contents(buf, 100 + shift, 100 + shift + len), expected,
+                        "direct " + direct + ", shift " + shift);
+            }
+        }
+    }
+
+    @Test
+    public void testSegmentBuffers() throws Exception {
+        byte[] key = new byte[16];
+        RANDOM.nextBytes(key);
+        byte[] counter = counterBlock(2);
+        byte[] in = new byte[4096];
+        RANDOM.nextBytes(in);
+        byte[] expected = new byte[in.length];
+        newGCTR(key, counter).doFinal(in, 0, in.length, expected, 0);
+
+        Arena arena = Arena.openShared();
+        ByteBuffer src = arena.allocate(in.length).asByteBuffer();
+        ByteBuffer dst = arena.allocate(in.length).asByteBuffer();
+        src.put(in).flip();
+        assertEquals(newGCTR(key, counter).doFinal(src, dst), in.length);
+        assertEquals(contents(dst, 0, in.length), expected);
+
+        // the memory of a closed arena is not accessed
+        src.flip();
+        dst.clear();
+        arena.close();
+        GCTR gctr = newGCTR(key, counter);
+        expectThrows(IllegalStateException.class, () -> gctr.update(src, dst));
+        expectThrows(IllegalStateException.class,
+                () -> gctr.update(ByteBuffer.allocateDirect(in.length), dst));
+        assertEquals(src.position(), 0);
+        assertEquals(dst.position(), 0);
+    }
+
+    @Test
+    public void testOverflow() throws Exception {
+        byte[] key = new byte[16];
+        GCTR gctr = newGCTR(key, counterBlock(2));
+        ByteBuffer src = ByteBuffer.allocateDirect(64);
+        ByteBuffer dst = ByteBuffer.allocateDirect(32);
+        expectThrows(BufferOverflowException.class, () -> gctr.update(src, dst));
+        assertEquals(src.position(), 0);
+        assertEquals(dst.position(), 0);
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+/*
+ * @test
+ * @summary Tests the PBKDF2 key derivation of SunJCE, with and without the
+ *          cache of derived keys, against the RFC 6070 test vectors and
+ *          a reference implementation
+ * @run main/othervm PBKDF2Derivation
+ * @run main/othervm -Djdk.crypto.pbkdf2.cacheSize=3 PBKDF2Derivation
+ */
+
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Random;
+import javax.crypto.Mac;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+public class PBKDF2Derivation {
+
+    private static final String[] PRFS = {
+        "HmacSHA1", "HmacSHA224", "HmacSHA256", "HmacSHA384", "HmacSHA512",
+    };
+
+    public static void main(String[] args) throws Exception {
+        // RFC 6070
+        check("HmacSHA1", "password", "salt", 1, 20,
+                "0c60c80f961f0e71f3a9b524af6012062fe037a6");
+        check("HmacSHA1", "password", "salt", 4096, 20,
+                "4b007901b765489abead49d926f721d065a429c1");
+        check("HmacSHA1", "passwordPASSWORDpassword",
+                "saltSALTsaltSALTsaltSALTsaltSALTsalt", 4096, 25,
+                "3d2eec4fe41c849b80c8d83662c0e44a8b291a964cf2f07038");
+
+        Random random = new Random();
+        String[] passwords = {
+            "", "p", "p\u00e4ssw\u00f6rd", "x".repeat(64), "y".repeat(129),
+        };
+        for (int round = 0; round < 2; round++) {
+            for (String prf : PRFS) {
+                for (String password : passwords) {
+                    byte[] salt = new byte[1 + random.nextInt(32)];
+                    random.nextBytes(salt);
+                    for (int iterations : new int[] { 1, 2, 1000, 5000 }) {
+                        for (int keyBytes : new int[] { 1, 16, 32, 100 }) {
+                            byte[] expected = reference(prf, password.getBytes(UTF_8),
+                                    salt, iterations, keyBytes);
+                            byte[] key = derive(prf, password, salt, iterations, keyBytes);
+                            compare(key, expected, prf, password, iterations, keyBytes);
+                            // again, from the cache if enabled
+                            key = derive(prf, password, salt, iterations, keyBytes);
+                            compare(key, expected, prf, password, iterations, keyBytes);
+                        }
+                    }
+                }
+            }
+        }
+        System.out.println("Test passed");
+    }
+
+    private static void check(String prf, String password, String salt,
+                              int iterations, int keyBytes, String expected)
+            throws Exception {
+        byte[] key = derive(prf, password, salt.getBytes(UTF_8), iterations, keyBytes);
+        if (!HexFormat.of().formatHex(key).equals(expected)) {
+            throw new RuntimeException("Wrong key for " + password + "/" + salt
+                    + "/" + iterations + ": " + HexFormat.of().formatHex(key));
+        }
+    }
+
+    private static void compare(byte[] key, byte[] expected, String prf,
+                                String password, int iterations, int keyBytes) {
+        if (!Arrays.equals(key, expected)) {
+            throw new RuntimeException("Wrong key for " + prf + ", password \""
+                    + password + "\", " + iterations + " iterations, "
+                    + keyBytes + " bytes");
+        }
+    }
+
+    private static byte[] derive(String prf, String password, byte[] salt,
+                                 int iterations, int keyBytes) throws Exception {
+        SecretKeyFactory factory = SecretKeyFactory.getInstance(
+                "PBKDF2With" + prf, "SunJCE");
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt,
+                iterations, keyBytes * 8);
+        return factory.generateSecret(spec).getEncoded();
+    }
+
+    // PBKDF2 as specified in PKCS #5 v2.0, with a non-empty password
+    private static byte[] reference(String prf, byte[] password, byte[] salt,
+                                    int iterations, int keyBytes) throws Exception {
+        Mac mac = Mac.getInstance(prf);
+        // SecretKeySpec does not allow empty keys, the HMAC of an empty
+        // key is that of a key of one zero byte
+        mac.init(new SecretKeySpec(password.length == 0 ? new byte[1] : password, prf));
+        int hlen = mac.getMacLength();
+        byte[] key = new byte[keyBytes];
+        for (int i = 1; (i - 1) * hlen < keyBytes; i++) {
+            mac.update(salt);
+            mac.update(new byte[] { (byte) (i >>> 24), (byte) (i >>> 16),
+                                    (byte) (i >>> 8), (byte) i });
+            byte[] u = mac.doFinal();
+            byte[] t = u.clone();
+            for (int j = 2; j <= iterations; j++) {
+                u = mac.doFinal(u);
+                for (int k = 0; k < hlen; k++) {
+                    t[k] ^= u[k];
+                }
+            }
+            System.arraycopy(t, 0, key, (i - 1) * hlen, Math.min(hlen, keyBytes - (i - 1) * hlen));
+        }
+        return key;
+    }
+}
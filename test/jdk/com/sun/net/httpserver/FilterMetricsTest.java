@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+/*
+ * @test
+ * @summary Tests the filter chain latency instrumentation
+ * @requires vm.hasJFR
+ * @modules java.management jdk.jfr
+ * @run testng/othervm -Dsun.net.httpserver.filterMetrics=true FilterMetricsTest
+ */
+
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.file.Path;
+import java.util.List;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.HttpServer;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.testng.annotations.Test;
+import static java.net.http.HttpClient.Builder.NO_PROXY;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class FilterMetricsTest {
+
+    static final int REQUESTS = 20;
+    static final long SLEEP_MILLIS = 5;
+
+    @Test
+    public void test() throws Exception {
+        var server = HttpServer.create(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        var context = server.createContext("/", e -> {
+            e.sendResponseHeaders(200, -1);
+            e.close();
+        });
+        context.getFilters().add(Filter.beforeHandler("fast", e -> { }));
+        context.getFilters().add(Filter.afterHandler("slow", e -> sleep()));
+        server.start();
+        try (var recording = new Recording()) {
+            recording.enable("jdk.httpserver.Filter");
+            recording.start();
+            var client = HttpClient.newBuilder().proxy(NO_PROXY).build();
+            var uri = URI.create("http://localhost:" + server.getAddress().getPort() + "/");
+            for (int i = 0; i < REQUESTS; i++) {
+                var response = client.send(HttpRequest.newBuilder(uri).build(),
+                        BodyHandlers.discarding());
+                assertEquals(response.statusCode(), 200);
+            }
+            recording.stop();
+
+            checkMBean();
+            checkEvents(recording);
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    static void checkMBean() throws Exception {
+        var mbs = ManagementFactory.getPlatformMBeanServer();
+        var name = new ObjectName("com.sun.net.httpserver:type=FilterMetrics");
+        var table = (TabularData) mbs.getAttribute(name, "Statistics");
+        CompositeData fast = null, slow = null, handler = null;
+        int handlers = 0;
+        for (var row : (java.util.Collection<?>) table.values()) {
+            var data = (CompositeData) row;
+            System.out.println(data);
+            switch ((String) data.get("name")) {
+                case "fast" -> fast = data;
+                case "slow" -> slow = data;
+                default -> {
+                    if (data.get("kind").equals("handler")) {
+                        handler = data;
+                        handlers++;
+                    }
+                }
+            }
+        }
+        // the handlers linking the user filters to the system filters,
+        // created for each exchange, are not recorded
+        assertEquals(handlers, 1, table.toString());
+        assertTrue(table.size() < REQUESTS, table.toString());
+        for (var data : List.of(fast, slow, handler)) {
+            // the last exchange may still be completing the chain
+            assertTrue((long) data.get("count") >= REQUESTS - 1, data.toString());
+            assertTrue((long) data.get("inFlight") <= 1, data.toString());
+        }
+        long slowNanos = SLEEP_MILLIS * 1_000_000;
+        assertTrue((long) slow.get("p50Nanos") >= slowNanos * 7 / 8, slow.toString());
+        // self time of the fast filter excludes the slow filter after it
+        assertTrue((long) fast.get("p50Nanos") < slowNanos, fast.toString());
+        // self time of the handler excludes the slow filter before it
+        assertTrue((long) handler.get("p50Nanos") < slowNanos, handler.toString());
+        assertTrue((long) fast.get("maxNanos") >= (long) fast.get("p99Nanos"));
+
+        mbs.invoke(name, "reset", null, null);
+        table = (TabularData) mbs.getAttribute(name, "Statistics");
+        for (var row : (java.util.Collection<?>) table.values()) {
+            assertTrue((long) ((CompositeData) row).get("count") <= 1);
+        }
+    }
+
+    static void checkEvents(Recording recording) throws Exception {
+        Path file = Path.of("FilterMetricsTest.jfr");
+        recording.dump(file);
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        long slowEvents = events.stream()
+                .filter(e -> e.getString("name").equals("slow"))
+                .peek(e -> assertEquals(e.getString("kind"), "filter"))
+                .peek(e -> assertTrue(e.getLong("selfTime") >= SLEEP_MILLIS * 1_000_000 * 7 / 8))
+                .count();
+        assertTrue(slowEvents >= REQUESTS - 1, "slow events: " + slowEvents);
+        assertTrue(events.stream().anyMatch(e -> e.getString("kind").equals("handler")));
+    }
+
+    static void sleep() {
+        try {
+            Thread.sleep(SLEEP_MILLIS);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
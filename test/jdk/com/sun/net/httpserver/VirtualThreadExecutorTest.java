@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+/*
+ * @test
+ * @summary Tests the virtual thread per exchange executor of the HTTP server
+ * @modules jdk.httpserver/sun.net.httpserver java.management
+ * @run testng/othervm VirtualThreadExecutorTest
+ */
+
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import javax.management.ObjectName;
+import com.sun.net.httpserver.HttpServer;
+import sun.net.httpserver.VirtualThreadExecutor;
+import org.testng.annotations.Test;
+import static java.net.http.HttpClient.Builder.NO_PROXY;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertThrows;
+import static org.testng.Assert.assertTrue;
+
+public class VirtualThreadExecutorTest {
+
+    static final int LIMIT = 2;
+    static final int REQUESTS = 5;
+
+    @Test
+    public void testConcurrencyLimit() throws Exception {
+        var executor = VirtualThreadExecutor.create(LIMIT);
+        var release = new CountDownLatch(1);
+        var server = HttpServer.create(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", e -> {
+            assertTrue(Thread.currentThread().isVirtual());
+            try {
+                release.await();
+            } catch (InterruptedException ie) {
+                throw new RuntimeException(ie);
+            }
+            e.sendResponseHeaders(200, -1);
+            e.close();
+        });
+        server.setExecutor(executor);
+        server.start();
+        try {
+            var client = HttpClient.newBuilder().proxy(NO_PROXY).build();
+            var uri = URI.create("http://localhost:" + server.getAddress().getPort() + "/");
+            var responses = new ArrayList<CompletableFuture<HttpResponse<Void>>>();
+            for (int i = 0; i < REQUESTS; i++) {
+                responses.add(client.sendAsync(HttpRequest.newBuilder(uri).build(),
+                        BodyHandlers.discarding()));
+            }
+            while (executor.activeExchanges() + executor.queueDepth() < REQUESTS) {
+                Thread.sleep(10);
+            }
+            assertEquals(executor.activeExchanges(), LIMIT);
+            assertEquals(executor.queueDepth(), REQUESTS - LIMIT);
+
+            var mbs = ManagementFactory.getPlatformMBeanServer();
+            var names = mbs.queryNames(
+                    new ObjectName("com.sun.net.httpserver:type=VirtualThreadExecutor,*"), null);
+            assertTrue(names.stream().anyMatch(n -> {
+                try {
+                    return (int) mbs.getAttribute(n, "QueueDepth") == REQUESTS - LIMIT;
+                } catch (Exception ex) {
+                    throw new RuntimeException(ex);
+                }
+            }), names.toString());
+
+            release.countDown();
+            for (var response : responses) {
+                assertEquals(response.get().statusCode(), 200);
+            }
+            while (executor.completedExchanges() < REQUESTS) {
+                Thread.sleep(10);
+            }
+            assertEquals(executor.activeExchanges(), 0);
+            assertEquals(executor.queueDepth(), 0);
+        } finally {
+            server.stop(0);
+            executor.close();
+        }
+    }
+
+    @Test
+    public void testUnlimited() throws Exception {
+        try (var executor = VirtualThreadExecutor.create(0)) {
+            var latch = new CountDownLatch(1000);
+            for (int i = 0; i < 1000; i++) {
+                executor.execute(latch::countDown);
+            }
+            latch.await();
+            assertEquals(executor.maxConcurrentExchanges(), 0);
+            assertEquals(executor.queueDepth(), 0);
+        }
+    }
+
+    @Test
+    public void testClose() throws Exception {
+        var mbs = ManagementFactory.getPlatformMBeanServer();
+        var pattern = new ObjectName("com.sun.net.httpserver:type=VirtualThreadExecutor,*");
+        var before = mbs.queryNames(pattern, null);
+        var executor = VirtualThreadExecutor.create(1);
+        var names = mbs.queryNames(pattern, null);
+        names.removeAll(before);
+        assertEquals(names.size(), 1, names.toString());
+        var name = names.iterator().next();
+        assertEquals(mbs.getAttribute(name, "MaxConcurrentExchanges"), 1);
+
+        executor.close();
+        assertFalse(mbs.isRegistered(name), name.toString());
+        executor.close();  // no effect
+
+        // still usable
+        var latch = new CountDownLatch(1);
+        executor.execute(latch::countDown);
+        latch.await();
+    }
+
+    @Test
+    public void testInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> VirtualThreadExecutor.create(-1));
+        try (var executor = VirtualThreadExecutor.create(1)) {
+            assertThrows(NullPointerException.class, () -> executor.execute(null));
+        }
+    }
+}
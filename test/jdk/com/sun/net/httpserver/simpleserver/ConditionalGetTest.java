@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+/*
+ * @test
+ * @summary Tests conditional requests and cache invalidation in the
+ *          SimpleFileServer
+ * @library /test/lib
+ * @build jdk.test.lib.net.URIBuilder
+ * @run testng/othervm ConditionalGetTest
+ * @run testng/othervm -Dsun.net.httpserver.simpleserver.cacheSize=33554432 ConditionalGetTest
+ */
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import com.sun.net.httpserver.HttpServer;
+import com.sun.net.httpserver.SimpleFileServer;
+import com.sun.net.httpserver.SimpleFileServer.OutputLevel;
+import jdk.test.lib.net.URIBuilder;
+import jdk.test.lib.util.FileUtils;
+import org.testng.annotations.AfterTest;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.Test;
+import static java.net.http.HttpClient.Builder.NO_PROXY;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertTrue;
+
+public class ConditionalGetTest {
+
+    static final InetSocketAddress LOOPBACK_ADDR =
+            new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+    static final Path CWD = Path.of(".").toAbsolutePath().normalize();
+    static final Path TEST_DIR = CWD.resolve("ConditionalGetTest");
+    static final HttpClient CLIENT = HttpClient.newBuilder().proxy(NO_PROXY).build();
+
+    HttpServer server;
+
+    @BeforeTest
+    public void setup() throws IOException {
+        if (Files.exists(TEST_DIR)) {
+            FileUtils.deleteFileTreeWithRetry(TEST_DIR);
+        }
+        Files.createDirectories(TEST_DIR.resolve("dir"));
+        Files.writeString(TEST_DIR.resolve("file.txt"), "some text");
+        Files.writeString(TEST_DIR.resolve("dir").resolve("other.txt"), "other text");
+        server = SimpleFileServer.createFileServer(LOOPBACK_ADDR, TEST_DIR, OutputLevel.NONE);
+        server.start();
+    }
+
+    @AfterTest
+    public void teardown() throws IOException {
+        server.stop(0);
+        if (Files.exists(TEST_DIR)) {
+            FileUtils.deleteFileTreeWithRetry(TEST_DIR);
+        }
+    }
+
+    @Test
+    public void testIfNoneMatch() throws Exception {
+        var response = send("file.txt", null, null);
+        assertEquals(response.statusCode(), 200);
+        assertEquals(response.body(), "some text");
+        String etag = response.headers().firstValue("etag").get();
+        assertTrue(etag.startsWith("\"") && etag.endsWith("\""), etag);
+
+        response = send("file.txt", "If-None-Match", etag);
+        assertEquals(response.statusCode(), 304);
+        assertEquals(response.body(), "");
+        assertEquals(response.headers().firstValue("etag").get(), etag);
+
+        response = send("file.txt", "If-None-Match", "\"other\", W/" + etag);
+        assertEquals(response.statusCode(), 304);
+
+        response = send("file.txt", "If-None-Match", "*");
+        assertEquals(response.statusCode(), 304);
+
+        response = send("file.txt", "If-None-Match", "\"other\"");
+        assertEquals(response.statusCode(), 200);
+        assertEquals(response.body(), "some text");
+    }
+
+    @Test
+    public void testIfModifiedSince() throws Exception {
+        var response = send("dir/other.txt", null, null);
+        assertEquals(response.statusCode(), 200);
+        String lastModified = response.headers().firstValue("last-modified").get();
+
+        response = send("dir/other.txt", "If-Modified-Since", lastModified);
+        assertEquals(response.statusCode(), 304);
+
+        response = send("dir/other.txt", "If-Modified-Since", "Thu, 01 Jan 1970 00:00:00 GMT");
+        assertEquals(response.statusCode(), 200);
+        assertEquals(response.body(), "other text");
+
+        response = send("dir/other.txt", "If-Modified-Since", "not a date");
+        assertEquals(response.statusCode(), 200);
+    }
+
+    @Test
+    public void testModifiedFileIsServed() throws Exception {
+        Path file = TEST_DIR.resolve("modified.txt");
+        Files.writeString(file, "before");
+        Files.setLastModifiedTime(file, FileTime.from(Instant.parse("2020-01-01T00:00:00Z")));
+        var response = send("modified.txt", null, null);
+        assertEquals(response.body(), "before");
+        String etag = response.headers().firstValue("etag").get();
+
+        Files.writeString(file, "after the change");
+        // invalidation is asynchronous, poll for the change to be noticed
+        for (int i = 0; i < 300; i++) {
+            response = send("modified.txt", null, null);
+            if (response.body().equals("after the change")) {
+                break;
+            }
+            Thread.sleep(100);
+        }
+        assertEquals(response.body(), "after the change");
+        assertNotEquals(response.headers().firstValue("etag").get(), etag);
+        response = send("modified.txt", "If-None-Match", etag);
+        assertEquals(response.statusCode(), 200);
+    }
+
+    @Test
+    public void testDeletedFileIsNotFound() throws Exception {
+        Path file = TEST_DIR.resolve("deleted.txt");
+        Files.writeString(file, "soon gone");
+        assertEquals(send("deleted.txt", null, null).statusCode(), 200);
+
+        Files.delete(file);
+        HttpResponse<String> response = null;
+        for (int i = 0; i < 300; i++) {
+            response = send("deleted.txt", null, null);
+            if (response.statusCode() == 404) {
+                break;
+            }
+            Thread.sleep(100);
+        }
+        assertEquals(response.statusCode(), 404);
+    }
+
+    HttpResponse<String> send(String path, String header, String value) throws Exception {
+        var builder = HttpRequest.newBuilder(uri(server, path));
+        if (header != null) {
+            builder.header(header, value);
+        }
+        return CLIENT.send(builder.build(), BodyHandlers.ofString());
+    }
+
+    static URI uri(HttpServer server, String path) {
+        return URIBuilder.newBuilder()
+                .host("localhost")
+                .port(server.getAddress().getPort())
+                .scheme("http")
+                .path("/" + path)
+                .buildUnchecked();
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+/*
+ * @test
+ * @summary Tests streamed, paginated and JSON directory listings of the
+ *          SimpleFileServer
+ * @library /test/lib
+ * @build jdk.test.lib.net.URIBuilder
+ * @run testng/othervm DirectoryListingTest
+ */
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Pattern;
+import com.sun.net.httpserver.HttpServer;
+import com.sun.net.httpserver.SimpleFileServer;
+import com.sun.net.httpserver.SimpleFileServer.OutputLevel;
+import jdk.test.lib.net.URIBuilder;
+import jdk.test.lib.util.FileUtils;
+import org.testng.annotations.AfterTest;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.Test;
+import static java.net.http.HttpClient.Builder.NO_PROXY;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class DirectoryListingTest {
+
+    static final InetSocketAddress LOOPBACK_ADDR =
+            new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+    static final Path CWD = Path.of(".").toAbsolutePath().normalize();
+    static final Path TEST_DIR = CWD.resolve("DirectoryListingTest");
+    static final HttpClient CLIENT = HttpClient.newBuilder().proxy(NO_PROXY).build();
+    static final int FILE_COUNT = 1000;
+    static final Pattern HTML_ITEM = Pattern.compile("<li><a href=\"([^\"]+)\">");
+    static final Pattern JSON_ITEM = Pattern.compile("\"href\": \"([^\"]+)\"");
+
+    HttpServer server;
+
+    @BeforeTest
+    public void setup() throws IOException {
+        if (Files.exists(TEST_DIR)) {
+            FileUtils.deleteFileTreeWithRetry(TEST_DIR);
+        }
+        Path dir = Files.createDirectories(TEST_DIR.resolve("dir"));
+        for (int i = 0; i < FILE_COUNT; i++) {
+            Files.createFile(dir.resolve("file-" + i + ".txt"));
+        }
+        Files.createDirectory(dir.resolve("subdir"));
+        server = SimpleFileServer.createFileServer(LOOPBACK_ADDR, TEST_DIR, OutputLevel.NONE);
+        server.start();
+    }
+
+    @AfterTest
+    public void teardown() throws IOException {
+        server.stop(0);
+        if (Files.exists(TEST_DIR)) {
+            FileUtils.deleteFileTreeWithRetry(TEST_DIR);
+        }
+    }
+
+    @Test
+    public void testStreamedListing() throws Exception {
+        var response = send("dir/", null);
+        assertEquals(response.statusCode(), 200);
+        assertEquals(response.headers().firstValue("content-type").get(),
+                "text/html; charset=UTF-8");
+        assertFalse(response.headers().firstValue("content-length").isPresent());
+        assertEquals(response.headers().firstValue("transfer-encoding").get(), "chunked");
+        assertEquals(hrefs(HTML_ITEM, response.body()).size(), FILE_COUNT + 1);
+        assertTrue(response.body().contains("<a href=\"subdir/\">"), response.body());
+        assertTrue(response.body().endsWith("</html>\n"));
+    }
+
+    @Test
+    public void testHead() throws Exception {
+        for (boolean gzip : new boolean[] { false, true }) {
+            var head = HttpRequest.newBuilder(uri("dir/"))
+                    .method("HEAD", HttpRequest.BodyPublishers.noBody());
+            var get = HttpRequest.newBuilder(uri("dir/"));
+            if (gzip) {
+                head.header("Accept-Encoding", "gzip");
+                get.header("Accept-Encoding", "gzip");
+            }
+            var response = CLIENT.send(head.build(), BodyHandlers.ofByteArray());
+            var getResponse = CLIENT.send(get.build(), BodyHandlers.ofByteArray());
+            assertEquals(response.statusCode(), 200);
+            assertEquals(response.body().length, 0);
+            // the headers, and the length, of the GET response
+            assertEquals(response.headers().firstValue("content-length").get(),
+                    Integer.toString(getResponse.body().length));
+            for (String name : new String[] { "content-type", "content-encoding", "vary" }) {
+                assertEquals(response.headers().firstValue(name),
+                        getResponse.headers().firstValue(name), name);
+            }
+            assertEquals(response.headers().firstValue("content-encoding").isPresent(), gzip);
+        }
+    }
+
+    @Test
+    public void testPagination() throws Exception {
+        Set<String> all = new HashSet<>();
+        String query = "?limit=300";
+        int pages = 0;
+        while (query != null) {
+            var response = send("dir/" + query, null);
+            assertEquals(response.statusCode(), 200);
+            var hrefs = hrefs(HTML_ITEM, response.body());
+            assertTrue(hrefs.size() <= 300);
+            all.addAll(hrefs);
+            pages++;
+            var m = Pattern.compile("<p><a href=\"([^\"]+)\">").matcher(response.body());
+            query = m.find() ? m.group(1).replace("&amp;", "&") : null;
+        }
+        assertEquals(pages, 4);
+        assertEquals(all.size(), FILE_COUNT + 1);
+    }
+
+    @Test
+    public void testJsonListing() throws Exception {
+        var response = send("dir/?format=json&offset=1&limit=5", null);
+        assertEquals(response.statusCode(), 200);
+        assertEquals(response.headers().firstValue("content-type").get(),
+                "application/json; charset=UTF-8");
+        String body = response.body();
+        assertTrue(body.startsWith("{\n\"path\": \"/dir/\",\n\"offset\": 1,"), body);
+        assertEquals(hrefs(JSON_ITEM, body).size(), 5);
+        assertTrue(body.contains("\"next\": \"?format=json&offset=6&limit=5\""), body);
+
+        response = send("dir/", "application/json");
+        body = response.body();
+        assertEquals(hrefs(JSON_ITEM, body).size(), FILE_COUNT + 1);
+        assertTrue(body.contains("{\"name\": \"subdir\", \"href\": \"subdir/\", \"type\": \"directory\"}"), body);
+        assertFalse(body.contains("\"next\""), body);
+    }
+
+    @Test
+    public void testOffsetBeyondEnd() throws Exception {
+        var response = send("dir/?offset=100000", null);
+        assertEquals(response.statusCode(), 200);
+        assertEquals(hrefs(HTML_ITEM, response.body()).size(), 0);
+    }
+
+    static Set<String> hrefs(Pattern pattern, String body) {
+        Set<String> hrefs = new HashSet<>();
+        var m = pattern.matcher(body);
+        while (m.find()) {
+            hrefs.add(m.group(1));
+        }
+        return hrefs;
+    }
+
+    HttpResponse<String> send(String path, String accept) throws Exception {
+        var builder = HttpRequest.newBuilder(uri(path));
+        if (accept != null) {
+            builder.header("Accept", accept);
+        }
+        return CLIENT.send(builder.build(), BodyHandlers.ofString());
+    }
+
+    URI uri(String path) {
+        return URI.create(URIBuilder.newBuilder()
+                .host("localhost")
+                .port(server.getAddress().getPort())
+                .scheme("http")
+                .path("/")
+                .buildUnchecked() + path);
+    }
+}
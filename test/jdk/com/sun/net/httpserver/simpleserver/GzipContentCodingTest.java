@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+/*
+ * @test
+ * @summary Tests gzip content coding negotiation in the SimpleFileServer
+ * @library /test/lib
+ * @build jdk.test.lib.net.URIBuilder
+ * @run testng/othervm GzipContentCodingTest
+ * @run testng/othervm -Dsun.net.httpserver.simpleserver.compressMaxFileSize=0
+ *                     GzipContentCodingTest
+ */
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import com.sun.net.httpserver.HttpServer;
+import com.sun.net.httpserver.SimpleFileServer;
+import com.sun.net.httpserver.SimpleFileServer.OutputLevel;
+import jdk.test.lib.net.URIBuilder;
+import jdk.test.lib.util.FileUtils;
+import org.testng.annotations.AfterTest;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.Test;
+import static java.net.http.HttpClient.Builder.NO_PROXY;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class GzipContentCodingTest {
+
+    static final InetSocketAddress LOOPBACK_ADDR =
+            new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+    static final Path CWD = Path.of(".").toAbsolutePath().normalize();
+    static final Path TEST_DIR = CWD.resolve("GzipContentCodingTest");
+    static final HttpClient CLIENT = HttpClient.newBuilder().proxy(NO_PROXY).build();
+    static final String LARGE_TEXT = "All work and no play makes Jack a dull boy.\n".repeat(200);
+    static final String PRECOMPRESSED_TEXT = "precompressed ".repeat(200);
+
+    HttpServer server;
+
+    @BeforeTest
+    public void setup() throws IOException {
+        if (Files.exists(TEST_DIR)) {
+            FileUtils.deleteFileTreeWithRetry(TEST_DIR);
+        }
+        Files.createDirectories(TEST_DIR.resolve("dir"));
+        Files.writeString(TEST_DIR.resolve("large.txt"), LARGE_TEXT);
+        Files.writeString(TEST_DIR.resolve("small.txt"), "small");
+        Files.write(TEST_DIR.resolve("large.bin"), LARGE_TEXT.getBytes(UTF_8));
+        Files.writeString(TEST_DIR.resolve("static.json"), LARGE_TEXT);
+        Files.write(TEST_DIR.resolve("static.json.gz"), gzip(PRECOMPRESSED_TEXT));
+        Files.writeString(TEST_DIR.resolve("updated.json"), LARGE_TEXT);
+        Files.write(TEST_DIR.resolve("updated.json.gz"), gzip(PRECOMPRESSED_TEXT));
+        for (int i = 0; i < 100; i++) {
+            Files.createFile(TEST_DIR.resolve("dir").resolve("file-" + i + ".txt"));
+        }
+        server = SimpleFileServer.createFileServer(LOOPBACK_ADDR, TEST_DIR, OutputLevel.NONE);
+        server.start();
+    }
+
+    @AfterTest
+    public void teardown() throws IOException {
+        server.stop(0);
+        if (Files.exists(TEST_DIR)) {
+            FileUtils.deleteFileTreeWithRetry(TEST_DIR);
+        }
+    }
+
+    @Test
+    public void testCompressedOnTheFly() throws Exception {
+        for (int i = 0; i < 2; i++) {  // second request may be served from cache
+            var response = send("large.txt", "gzip, deflate");
+            assertEquals(response.statusCode(), 200);
+            assertEquals(response.headers().firstValue("content-encoding").get(), "gzip");
+            assertEquals(response.headers().firstValue("vary").get(), "Accept-Encoding");
+            assertTrue(response.body().length < LARGE_TEXT.length());
+            assertEquals(gunzip(response.body()), LARGE_TEXT);
+        }
+    }
+
+    @Test
+    public void testIdentity() throws Exception {
+        for (String acceptEncoding : new String[] {null, "identity", "gzip;q=0", "br", "*;q=0"}) {
+            var response = send("large.txt", acceptEncoding);
+            assertEquals(response.statusCode(), 200);
+            assertFalse(response.headers().firstValue("content-encoding").isPresent());
+            assertEquals(new String(response.body(), UTF_8), LARGE_TEXT);
+        }
+    }
+
+    @Test
+    public void testNotCompressible() throws Exception {
+        var response = send("small.txt", "gzip");
+        assertFalse(response.headers().firstValue("content-encoding").isPresent());
+        assertEquals(new String(response.body(), UTF_8), "small");
+
+        response = send("large.bin", "gzip");
+        assertFalse(response.headers().firstValue("content-encoding").isPresent());
+        assertFalse(response.headers().firstValue("vary").isPresent());
+        assertEquals(new String(response.body(), UTF_8), LARGE_TEXT);
+    }
+
+    @Test
+    public void testPrecompressed() throws Exception {
+        var response = send("static.json", "*");
+        assertEquals(response.statusCode(), 200);
+        assertEquals(response.headers().firstValue("content-encoding").get(), "gzip");
+        assertEquals(response.headers().firstValue("content-type").get(), "application/json");
+        assertEquals(gunzip(response.body()), PRECOMPRESSED_TEXT);
+
+        response = send("static.json", null);
+        assertEquals(new String(response.body(), UTF_8), LARGE_TEXT);
+    }
+
+    @Test
+    public void testPrecompressedUpdated() throws Exception {
+        var response = send("updated.json", "gzip");
+        assertEquals(gunzip(response.body()), PRECOMPRESSED_TEXT);
+        String etag = response.headers().firstValue("etag").get();
+
+        // only the precompressed file changes
+        Path gz = TEST_DIR.resolve("updated.json.gz");
+        FileTime lastModifiedTime = Files.getLastModifiedTime(gz);
+        Files.write(gz, gzip("updated " + PRECOMPRESSED_TEXT));
+        Files.setLastModifiedTime(gz, FileTime.fromMillis(lastModifiedTime.toMillis() + 10_000));
+        response = send("updated.json", "gzip");
+        assertEquals(gunzip(response.body()), "updated " + PRECOMPRESSED_TEXT);
+        assertFalse(response.headers().firstValue("etag").get().equals(etag), etag);
+        assertEquals(response.headers().firstValue("last-modified").get(),
+                Files.getLastModifiedTime(gz).toInstant().atZone(ZoneId.of("GMT"))
+                        .format(DateTimeFormatter.RFC_1123_DATE_TIME));
+    }
+
+    @Test
+    public void testHead() throws Exception {
+        for (String path : new String[] {"large.txt", "static.json"}) {
+            var get = send(path, "gzip");
+            var request = HttpRequest.newBuilder(uri(server, path))
+                    .method("HEAD", HttpRequest.BodyPublishers.noBody())
+                    .header("Accept-Encoding", "gzip")
+                    .build();
+            var head = CLIENT.send(request, BodyHandlers.discarding());
+            assertEquals(head.statusCode(), 200);
+            for (String name : new String[] {"content-encoding", "content-length",
+                                             "etag", "last-modified", "vary"}) {
+                assertEquals(head.headers().firstValue(name), get.headers().firstValue(name),
+                        path + ": " + name);
+            }
+        }
+    }
+
+    @Test
+    public void testDirectoryListing() throws Exception {
+        var response = send("dir/", "gzip");
+        assertEquals(response.statusCode(), 200);
+        assertEquals(response.headers().firstValue("content-encoding").get(), "gzip");
+        assertTrue(gunzip(response.body()).contains("file-99.txt"));
+    }
+
+    @Test
+    public void testEtagDiffersByCoding() throws Exception {
+        var identity = send("large.txt", null);
+        var gzipped = send("large.txt", "gzip");
+        String etag = identity.headers().firstValue("etag").get();
+        String gzipEtag = gzipped.headers().firstValue("etag").get();
+        assertFalse(etag.equals(gzipEtag), etag + " " + gzipEtag);
+
+        var request = HttpRequest.newBuilder(uri(server, "large.txt"))
+                .header("Accept-Encoding", "gzip")
+                .header("If-None-Match", gzipEtag)
+                .build();
+        assertEquals(CLIENT.send(request, BodyHandlers.discarding()).statusCode(), 304);
+    }
+
+    HttpResponse<byte[]> send(String path, String acceptEncoding) throws Exception {
+        var builder = HttpRequest.newBuilder(uri(server, path));
+        if (acceptEncoding != null) {
+            builder.header("Accept-Encoding", acceptEncoding);
+        }
+        return CLIENT.send(builder.build(), BodyHandlers.ofByteArray());
+    }
+
+    static byte[] gzip(String s) throws IOException {
+        var bos = new ByteArrayOutputStream();
+        try (var os = new GZIPOutputStream(bos)) {
+            os.write(s.getBytes(UTF_8));
+        }
+        return bos.toByteArray();
+    }
+
+    static String gunzip(byte[] bytes) throws IOException {
+        try (var is = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return new String(is.readAllBytes(), UTF_8);
+        }
+    }
+
+    static URI uri(HttpServer server, String path) {
+        return URIBuilder.newBuilder()
+                .host("localhost")
+                .port(server.getAddress().getPort())
+                .scheme("http")
+                .path("/" + path)
+                .buildUnchecked();
+    }
+}
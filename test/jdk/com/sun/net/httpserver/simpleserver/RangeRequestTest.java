@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+/*
+ * @test
+ * @summary Tests byte range requests served by the SimpleFileServer
+ * @library /test/lib
+ * @build jdk.test.lib.net.URIBuilder
+ * @run testng/othervm RangeRequestTest
+ */
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import com.sun.net.httpserver.SimpleFileServer;
+import com.sun.net.httpserver.SimpleFileServer.OutputLevel;
+import jdk.test.lib.net.URIBuilder;
+import jdk.test.lib.util.FileUtils;
+import org.testng.annotations.AfterTest;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.Test;
+import static java.net.http.HttpClient.Builder.NO_PROXY;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class RangeRequestTest {
+
+    static final InetSocketAddress LOOPBACK_ADDR =
+            new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+    static final Path CWD = Path.of(".").toAbsolutePath().normalize();
+    static final Path TEST_DIR = CWD.resolve("RangeRequestTest");
+    static final String CONTENT = "0123456789abcdefghijklmnopqrstuvwxyz";
+
+    @BeforeTest
+    public void setup() throws IOException {
+        if (Files.exists(TEST_DIR)) {
+            FileUtils.deleteFileTreeWithRetry(TEST_DIR);
+        }
+        Files.createDirectories(TEST_DIR);
+        Files.writeString(TEST_DIR.resolve("file.txt"), CONTENT);
+    }
+
+    @AfterTest
+    public void teardown() throws IOException {
+        if (Files.exists(TEST_DIR)) {
+            FileUtils.deleteFileTreeWithRetry(TEST_DIR);
+        }
+    }
+
+    @Test
+    public void testSingleRange() throws Exception {
+        var response = send("bytes=10-15", null);
+        assertEquals(response.statusCode(), 206);
+        assertEquals(response.body(), "abcdef");
+        assertEquals(response.headers().firstValue("content-range").get(),
+                "bytes 10-15/" + CONTENT.length());
+        assertEquals(response.headers().firstValue("content-length").get(), "6");
+        assertEquals(response.headers().firstValue("accept-ranges").get(), "bytes");
+    }
+
+    @Test
+    public void testOpenEndedAndSuffixRanges() throws Exception {
+        var response = send("bytes=30-", null);
+        assertEquals(response.statusCode(), 206);
+        assertEquals(response.body(), "uvwxyz");
+
+        response = send("bytes=-4", null);
+        assertEquals(response.statusCode(), 206);
+        assertEquals(response.body(), "wxyz");
+
+        response = send("bytes=30-1000", null);
+        assertEquals(response.statusCode(), 206);
+        assertEquals(response.body(), "uvwxyz");
+    }
+
+    @Test
+    public void testMultipleRanges() throws Exception {
+        var response = send("bytes=0-1, 10-11", null);
+        assertEquals(response.statusCode(), 206);
+        String contentType = response.headers().firstValue("content-type").get();
+        assertTrue(contentType.startsWith("multipart/byteranges; boundary="), contentType);
+        String boundary = contentType.substring(contentType.indexOf('=') + 1);
+        String body = response.body();
+        assertTrue(body.contains("Content-Range: bytes 0-1/36\r\n\r\n01\r\n--" + boundary), body);
+        assertTrue(body.contains("Content-Range: bytes 10-11/36\r\n\r\nab\r\n--" + boundary + "--"), body);
+        assertEquals(response.headers().firstValue("content-length").get(),
+                Integer.toString(body.length()));
+    }
+
+    @Test
+    public void testOverlappingRangesCoalesced() throws Exception {
+        var response = send("bytes=20-21, 0-5, 3-9, 10-11", null);
+        assertEquals(response.statusCode(), 206);
+        String contentType = response.headers().firstValue("content-type").get();
+        String boundary = contentType.substring(contentType.indexOf('=') + 1);
+        String body = response.body();
+        assertTrue(body.contains("Content-Range: bytes 0-11/36\r\n\r\n0123456789ab\r\n--" + boundary), body);
+        assertTrue(body.contains("Content-Range: bytes 20-21/36\r\n\r\nkl\r\n--" + boundary + "--"), body);
+        assertEquals(body.split("Content-Range").length, 3, body);
+
+        // the same range requested many times is sent once
+        response = send("bytes=0-35, 0-35, 0-35, 0-35, 0-35, 0-35, 0-35, 0-35", null);
+        assertEquals(response.statusCode(), 206);
+        assertEquals(response.body(), CONTENT);
+        assertEquals(response.headers().firstValue("content-range").get(), "bytes 0-35/36");
+    }
+
+    @Test
+    public void testUnsatisfiableRange() throws Exception {
+        var response = send("bytes=100-200", null);
+        assertEquals(response.statusCode(), 416);
+        assertEquals(response.headers().firstValue("content-range").get(), "bytes */36");
+    }
+
+    @Test
+    public void testInvalidRangeIgnored() throws Exception {
+        for (var range : new String[] {"bytes=5-2", "items=0-1", "bytes=a-b", "bytes=1"}) {
+            var response = send(range, null);
+            assertEquals(response.statusCode(), 200, range);
+            assertEquals(response.body(), CONTENT, range);
+        }
+    }
+
+    @Test
+    public void testIfRange() throws Exception {
+        var full = send(null, null);
+        assertEquals(full.statusCode(), 200);
+        String lastModified = full.headers().firstValue("last-modified").get();
+
+        var response = send("bytes=0-3", lastModified);
+        assertEquals(response.statusCode(), 206);
+        assertEquals(response.body(), "0123");
+
+        response = send("bytes=0-3", "Thu, 01 Jan 1970 00:00:00 GMT");
+        assertEquals(response.statusCode(), 200);
+        assertEquals(response.body(), CONTENT);
+    }
+
+    static java.net.http.HttpResponse<String> send(String range, String ifRange)
+            throws Exception {
+        var ss = SimpleFileServer.createFileServer(LOOPBACK_ADDR, TEST_DIR, OutputLevel.NONE);
+        ss.start();
+        try {
+            var client = HttpClient.newBuilder().proxy(NO_PROXY).build();
+            var builder = HttpRequest.newBuilder(uri(ss, "file.txt"));
+            if (range != null) {
+                builder.header("Range", range);
+            }
+            if (ifRange != null) {
+                builder.header("If-Range", ifRange);
+            }
+            return client.send(builder.build(), BodyHandlers.ofString());
+        } finally {
+            ss.stop(0);
+        }
+    }
+
+    static URI uri(com.sun.net.httpserver.HttpServer server, String path) {
+        return URIBuilder.newBuilder()
+                .host("localhost")
+                .port(server.getAddress().getPort())
+                .scheme("http")
+                .path("/" + path)
+                .buildUnchecked();
+    }
+}
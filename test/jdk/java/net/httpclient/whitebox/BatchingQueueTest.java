@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+/*
+ * @test
+ * @summary Tests the multi-producer, single-consumer queue used for the
+ *          inbound frames of HTTP/2 streams
+ * @modules java.net.http/jdk.internal.net.http.common
+ * @run testng/othervm BatchingQueueTest
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import jdk.internal.net.http.common.BatchingQueue;
+import org.testng.annotations.Test;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class BatchingQueueTest {
+
+    @Test
+    public void testOrder() {
+        var queue = new BatchingQueue<Integer>();
+        assertTrue(queue.isEmpty());
+        assertNull(queue.peek());
+        assertNull(queue.poll());
+        queue.add(1);
+        queue.add(2);
+        assertEquals(queue.size(), 2);
+        assertEquals(queue.peek(), Integer.valueOf(1));
+        queue.remove();
+        queue.add(3);  // added while a batch is being consumed
+        assertEquals(queue.poll(), Integer.valueOf(2));
+        assertFalse(queue.isEmpty());
+        assertEquals(queue.peek(), Integer.valueOf(3));
+        assertEquals(queue.poll(), Integer.valueOf(3));
+        assertTrue(queue.isEmpty());
+        assertEquals(queue.size(), 0);
+    }
+
+    @Test
+    public void testConcurrentProducers() throws Exception {
+        final int producers = 4;
+        final int count = 100_000;
+        var queue = new BatchingQueue<long[]>();
+        var start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            final int id = p;
+            var t = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                for (int i = 0; i < count; i++) {
+                    queue.add(new long[] {id, i});
+                }
+            });
+            t.start();
+            threads.add(t);
+        }
+        start.countDown();
+        long[] next = new long[producers];
+        int received = 0;
+        while (received < producers * count) {
+            long[] e = queue.poll();
+            if (e == null) {
+                Thread.onSpinWait();
+                continue;
+            }
+            // elements of each producer are received in order
+            assertEquals(e[1], next[(int) e[0]]++);
+            received++;
+        }
+        for (var t : threads) {
+            t.join();
+        }
+        assertTrue(queue.isEmpty());
+        assertNull(queue.poll());
+    }
+}
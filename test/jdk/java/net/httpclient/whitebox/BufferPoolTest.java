@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+/*
+ * @test
+ * @summary Tests the size classed buffer pool of the HTTP client
+ * @modules java.net.http/jdk.internal.net.http.common
+ * @run testng/othervm BufferPoolTest
+ * @run testng/othervm -Djdk.httpclient.bufferPool.direct=true BufferPoolTest
+ * @run testng/othervm -Djdk.httpclient.bufferPool.retain=0 BufferPoolTest
+ * @run testng/othervm -Djdk.internal.httpclient.debug=true BufferPoolTest
+ */
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import jdk.internal.net.http.common.BufferPool;
+import jdk.internal.net.http.common.Utils;
+import org.testng.annotations.Test;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+public class BufferPoolTest {
+
+    static final boolean DIRECT = Boolean.getBoolean("jdk.httpclient.bufferPool.direct");
+    static final boolean POOLING = Integer.getInteger("jdk.httpclient.bufferPool.retain", 16) > 0;
+
+    @Test
+    public void testReuse() {
+        var pool = new BufferPool("testReuse");
+        ByteBuffer buf = pool.getBuffer();
+        assertEquals(buf.position(), 0);
+        assertEquals(buf.limit(), Utils.BUFSIZE);
+        assertEquals(buf.isDirect(), DIRECT);
+        assertEquals(pool.outstanding(), 1);
+        buf.put((byte) 1).flip();
+        pool.release(buf);
+        assertEquals(pool.outstanding(), 0);
+
+        ByteBuffer buf2 = pool.getBuffer();
+        assertEquals(buf2.position(), 0);
+        assertEquals(buf2.limit(), Utils.BUFSIZE);
+        if (POOLING) {
+            assertSame(buf2, buf);
+            assertEquals(pool.hits(), 1);
+            assertEquals(pool.misses(), 1);
+        } else {
+            assertNotSame(buf2, buf);
+            assertEquals(pool.hits(), 0);
+            assertEquals(pool.misses(), 2);
+        }
+        pool.release(buf2);
+        pool.close();
+        assertEquals(pool.retained(), 0);
+    }
+
+    @Test
+    public void testSizeClasses() {
+        var pool = new BufferPool("testSizeClasses");
+        ByteBuffer small = pool.getBuffer(100);
+        assertEquals(small.limit(), 100);
+        assertEquals(small.capacity(), 4096);
+        ByteBuffer medium = pool.getBuffer(4097);
+        assertEquals(medium.limit(), 4097);
+        assertEquals(medium.capacity(), 8192);
+        int large = 4 * Math.max(Utils.BUFSIZE, 4096);
+        ByteBuffer unpooled = pool.getBuffer(large);
+        assertEquals(unpooled.capacity(), large);
+        pool.release(small);
+        pool.release(medium);
+        pool.release(unpooled);
+        assertEquals(pool.outstanding(), 0);
+        assertEquals(pool.retained(), POOLING ? 2 : 0);
+
+        // a buffer of a size class is only reused for that class
+        ByteBuffer buf = pool.getBuffer(8000);
+        if (POOLING) {
+            assertSame(buf, medium);
+        }
+        assertEquals(buf.limit(), 8000);
+        pool.release(buf);
+        pool.close();
+    }
+
+    @Test
+    public void testBoundedRetention() {
+        var pool = new BufferPool("testBoundedRetention");
+        List<ByteBuffer> bufs = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            bufs.add(pool.getBuffer(4096));
+        }
+        assertEquals(pool.outstanding(), 1000);
+        pool.release(bufs);
+        assertTrue(bufs.isEmpty());
+        assertEquals(pool.outstanding(), 0);
+        // retained by the stripe of this thread only
+        assertTrue(pool.retained() <= 16, "retained: " + pool.retained());
+        pool.close();
+    }
+
+    @Test
+    public void testConcurrentUse() throws Exception {
+        var pool = new BufferPool("testConcurrentUse");
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            var thread = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    ByteBuffer buf = pool.getBuffer(1 + (i % 3) * 5000);
+                    buf.put(0, (byte) i);
+                    pool.release(buf);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (var thread : threads) {
+            thread.join();
+        }
+        assertEquals(pool.outstanding(), 0);
+        assertEquals(pool.hits() + pool.misses(), 80_000);
+        pool.close();
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package jdk.internal.net.http;
+
+import java.net.URI;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiPredicate;
+import jdk.internal.net.http.common.Utils;
+import org.testng.annotations.Test;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+
+public class RequestTemplateTest {
+
+    static HttpRequest request(String method, String uri) {
+        return HttpRequest.newBuilder(URI.create(uri))
+                .method(method, HttpRequest.BodyPublishers.noBody())
+                .build();
+    }
+
+    @Test
+    public void testPseudoHeaders() {
+        var r1 = request("GET", "https://example.com:8443/a/b?x=1");
+        var template = RequestTemplate.of(r1);
+        HttpHeaders h1 = template.pseudoHeaders(r1);
+        assertEquals(h1.firstValue(":method").get(), "GET");
+        assertEquals(h1.firstValue(":scheme").get(), "https");
+        assertEquals(h1.firstValue(":authority").get(), "example.com:8443");
+        assertEquals(h1.firstValue(":path").get(), "/a/b?x=1");
+
+        var r2 = request("GET", "https://example.com:8443/a/b?x=1");
+        assertSame(RequestTemplate.of(r2), template);
+        assertSame(template.pseudoHeaders(r2), h1);
+
+        var r3 = request("GET", "https://example.com:8443/a/c");
+        assertSame(RequestTemplate.of(r3), template);
+        HttpHeaders h3 = template.pseudoHeaders(r3);
+        assertEquals(h3.firstValue(":path").get(), "/a/c");
+        assertEquals(h3.firstValue(":authority").get(), "example.com:8443");
+
+        var r4 = request("POST", "https://example.com:8443/a/c");
+        assertNotSame(RequestTemplate.of(r4), template);
+        assertEquals(RequestTemplate.of(r4).pseudoHeaders(r4)
+                .firstValue(":method").get(), "POST");
+    }
+
+    @Test
+    public void testDefaultPath() {
+        var get = request("GET", "http://example.com");
+        HttpHeaders h = RequestTemplate.of(get).pseudoHeaders(get);
+        assertEquals(h.firstValue(":path").get(), "/");
+        assertEquals(h.firstValue(":authority").get(), "example.com");
+        var options = request("OPTIONS", "http://example.com?q");
+        h = RequestTemplate.of(options).pseudoHeaders(options);
+        assertEquals(h.firstValue(":path").get(), "*?q");
+    }
+
+    @Test
+    public void testUserHeaders() {
+        var r = request("PUT", "http://example.org/");
+        var template = RequestTemplate.of(r);
+        BiPredicate<String, String> all = Utils.ACCEPT_ALL;
+        AtomicInteger filtered = new AtomicInteger();
+        HttpHeaders u1 = HttpHeaders.of(Map.of("a", List.of("1")), all);
+        HttpHeaders f1 = template.userHeaders(u1, all, all, h -> {
+            filtered.incrementAndGet();
+            return HttpHeaders.of(h.map(), all);
+        });
+        assertEquals(filtered.get(), 1);
+        assertEquals(f1, u1);
+
+        // equal headers, same filters
+        HttpHeaders u2 = HttpHeaders.of(Map.of("A", List.of("1")), all);
+        assertSame(template.userHeaders(u2, all, all, h -> {
+            filtered.incrementAndGet();
+            return h;
+        }), f1);
+        assertEquals(filtered.get(), 1);
+
+        // different filter
+        BiPredicate<String, String> none = (k, v) -> false;
+        HttpHeaders f3 = template.userHeaders(u2, all, none, h -> {
+            filtered.incrementAndGet();
+            return HttpHeaders.of(h.map(), none);
+        });
+        assertEquals(filtered.get(), 2);
+        assertEquals(f3.map().size(), 0);
+
+        // different headers
+        HttpHeaders u4 = HttpHeaders.of(Map.of("a", List.of("2")), all);
+        HttpHeaders f4 = template.userHeaders(u4, all, none, h -> {
+            filtered.incrementAndGet();
+            return h;
+        });
+        assertEquals(filtered.get(), 3);
+        assertSame(f4, u4);
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+/*
+ * @test
+ * @summary Checks the direct memory accounting, and that a reservation
+ *          beyond the limit fails immediately in fail-fast mode
+ * @run main/othervm -XX:MaxDirectMemorySize=1m -Djdk.nio.reserveMemoryFailFast=true
+ *                   DirectMemoryFailFast
+ */
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+public class DirectMemoryFailFast {
+
+    static final int THREADS = 8;
+    static final int CAPACITY = 1024;
+
+    public static void main(String[] args) throws Exception {
+        BufferPoolMXBean direct = ManagementFactory
+                .getPlatformMXBeans(BufferPoolMXBean.class).stream()
+                .filter(p -> p.getName().equals("direct"))
+                .findFirst().orElseThrow();
+        long count = direct.getCount();
+        long capacity = direct.getTotalCapacity();
+
+        // the count and capacity are exact, however many threads allocate
+        List<ByteBuffer> buffers = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            var thread = new Thread(() -> {
+                for (int i = 0; i < 50; i++) {
+                    var buf = ByteBuffer.allocateDirect(CAPACITY);
+                    synchronized (buffers) {
+                        buffers.add(buf);
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (var thread : threads) {
+            thread.join();
+        }
+        check(direct.getCount() - count == THREADS * 50,
+                "count: " + direct.getCount());
+        check(direct.getTotalCapacity() - capacity == (long) THREADS * 50 * CAPACITY,
+                "capacity: " + direct.getTotalCapacity());
+        check(direct.getMemoryUsed() >= direct.getTotalCapacity(),
+                "memory used: " + direct.getMemoryUsed());
+
+        // fill up to the limit, keeping the buffers reachable
+        long start = System.nanoTime();
+        try {
+            while (true) {
+                buffers.add(ByteBuffer.allocateDirect(64 * 1024));
+            }
+        } catch (OutOfMemoryError e) {
+            System.out.println("Expected: " + e);
+            check(e.getMessage().contains("direct buffer memory"), e.getMessage());
+        }
+        // without fail-fast, the last allocation alone takes about 0.5 s
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        System.out.println("Elapsed: " + elapsedMillis + " ms");
+        check(elapsedMillis < 450, "allocation stalled: " + elapsedMillis + " ms");
+        check(direct.getTotalCapacity() <= 1024 * 1024,
+                "capacity: " + direct.getTotalCapacity());
+        System.out.println(buffers.size() + " buffers allocated");
+    }
+
+    static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new RuntimeException(message);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+/*
+ * @test
+ * @summary Tests that CipherOutputStream produces the same output whatever
+ *          the length of the writes, and that its output buffer does not
+ *          grow with the length of the writes
+ * @modules java.base/javax.crypto:open
+ * @run main LargeWrites
+ */
+
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Field;
+import java.security.SecureRandom;
+import java.security.spec.AlgorithmParameterSpec;
+import java.util.Arrays;
+import javax.crypto.Cipher;
+import javax.crypto.CipherOutputStream;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.ChaCha20ParameterSpec;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.IvParameterSpec;
+
+public class LargeWrites {
+
+    private static final int[] LENGTHS = {
+        0, 1, 15, 16 * 1024 - 1, 16 * 1024, 16 * 1024 + 1, 100_000, 1 << 20
+    };
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    public static void main(String[] args) throws Exception {
+        SecretKey aes = KeyGenerator.getInstance("AES").generateKey();
+        SecretKey chacha = KeyGenerator.getInstance("ChaCha20").generateKey();
+        byte[] iv = new byte[16];
+        byte[] nonce = new byte[12];
+        RANDOM.nextBytes(iv);
+        RANDOM.nextBytes(nonce);
+
+        test("AES/CBC/PKCS5Padding", aes, new IvParameterSpec(iv));
+        test("AES/CTR/NoPadding", aes, new IvParameterSpec(iv));
+        test("AES/GCM/NoPadding", aes, new GCMParameterSpec(128, nonce));
+        test("ChaCha20", chacha, new ChaCha20ParameterSpec(nonce, 1));
+        test("ChaCha20-Poly1305", chacha, new IvParameterSpec(nonce));
+        testBadArguments(aes, new IvParameterSpec(iv));
+    }
+
+    private static void test(String transformation, SecretKey key,
+            AlgorithmParameterSpec spec) throws Exception {
+        byte[] data = new byte[(1 << 20) + 100_003];
+        RANDOM.nextBytes(data);
+        for (int length : LENGTHS) {
+            // a new Cipher for each init, as ciphers refuse to encrypt
+            // twice with the same key and nonce
+            Cipher cipher = Cipher.getInstance(transformation);
+            cipher.init(Cipher.ENCRYPT_MODE, key, spec);
+            byte[] expected = cipher.doFinal(data);
+
+            cipher = Cipher.getInstance(transformation);
+            cipher.init(Cipher.ENCRYPT_MODE, key, spec);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (CipherOutputStream cos = new CipherOutputStream(out, cipher)) {
+                int off = 0;
+                while (off < data.length) {
+                    // vary the length so that the cipher buffers partial blocks
+                    int n = Math.min(data.length - off,
+                            Math.max(1, length - (off & 7)));
+                    cos.write(data, off, n);
+                    off += n;
+                }
+                checkBuffer(cos, cipher, transformation);
+            }
+            if (!Arrays.equals(out.toByteArray(), expected)) {
+                throw new RuntimeException(transformation
+                        + ": wrong ciphertext, write length " + length);
+            }
+
+            cipher = Cipher.getInstance(transformation);
+            cipher.init(Cipher.DECRYPT_MODE, key, spec);
+            out = new ByteArrayOutputStream();
+            try (CipherOutputStream cos = new CipherOutputStream(out, cipher)) {
+                cos.write(expected, 0, expected.length);
+            }
+            if (!Arrays.equals(out.toByteArray(), data)) {
+                throw new RuntimeException(transformation
+                        + ": wrong plaintext, write length " + length);
+            }
+        }
+        System.out.println(transformation + ": ok");
+    }
+
+    private static void testBadArguments(SecretKey key,
+            AlgorithmParameterSpec spec) throws Exception {
+        Cipher cipher = Cipher.getInstance("AES/CTR/NoPadding");
+        cipher.init(Cipher.ENCRYPT_MODE, key, spec);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CipherOutputStream cos = new CipherOutputStream(out, cipher);
+        byte[] data = new byte[1 << 20];
+        try {
+            cos.write(data, 16, data.length);
+            throw new RuntimeException("bad arguments accepted");
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+        if (out.size() != 0) {
+            throw new RuntimeException("output written for bad arguments");
+        }
+    }
+
+    // the output buffer is bounded by the output of a 16 KiB update,
+    // doubled as it grows
+    private static void checkBuffer(CipherOutputStream cos, Cipher cipher,
+            String transformation) throws Exception {
+        Field f = CipherOutputStream.class.getDeclaredField("obuffer");
+        f.setAccessible(true);
+        byte[] obuffer = (byte[]) f.get(cos);
+        int max = 2 * cipher.getOutputSize(16 * 1024);
+        if (obuffer != null && obuffer.length > max) {
+            throw new RuntimeException(transformation + ": output buffer of "
+                    + obuffer.length + " bytes, expected at most " + max);
+        }
+    }
+}
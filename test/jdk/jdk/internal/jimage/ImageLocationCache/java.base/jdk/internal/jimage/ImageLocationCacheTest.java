@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package jdk.internal.jimage;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.testng.annotations.Test;
+import static org.testng.Assert.*;
+import static jdk.internal.jimage.ImageLocation.*;
+
+public class ImageLocationCacheTest {
+
+    // strings table: offset 0 is the empty string
+    private final ByteArrayOutputStream strings = new ByteArrayOutputStream();
+
+    public ImageLocationCacheTest() {
+        strings.write(0);
+    }
+
+    private int string(String s) {
+        if (s.isEmpty()) {
+            return 0;
+        }
+        int offset = strings.size();
+        strings.writeBytes(s.getBytes(StandardCharsets.UTF_8));
+        strings.write(0);
+        return offset;
+    }
+
+    private long[] location(String module, String parent, String base,
+                            String extension, long offset, long size) {
+        long[] attributes = new long[ATTRIBUTE_COUNT];
+        attributes[ATTRIBUTE_MODULE] = string(module);
+        attributes[ATTRIBUTE_PARENT] = string(parent);
+        attributes[ATTRIBUTE_BASE] = string(base);
+        attributes[ATTRIBUTE_EXTENSION] = string(extension);
+        attributes[ATTRIBUTE_OFFSET] = offset;
+        attributes[ATTRIBUTE_UNCOMPRESSED] = size;
+        return attributes;
+    }
+
+    @Test
+    public void testCache() {
+        Random random = new Random(42);
+        List<long[]> locations = new ArrayList<>();
+        List<Integer> offsets = new ArrayList<>();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int i = 0; i < 2000; i++) {
+            long[] attributes = new long[ATTRIBUTE_COUNT];
+            for (int kind = ATTRIBUTE_END + 1; kind < ATTRIBUTE_COUNT; kind++) {
+                // mostly small values, some too wide to be cached
+                attributes[kind] = random.nextInt(8) == 0 ? 0
+                        : random.nextLong() >>> (24 + random.nextInt(40));
+            }
+            offsets.add(out.size());
+            out.writeBytes(ImageLocation.compress(attributes));
+            locations.add(attributes);
+        }
+        ByteBuffer bytes = ByteBuffer.wrap(out.toByteArray());
+        AttributeCache cache = new AttributeCache(bytes.limit());
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < locations.size(); i++) {
+                int offset = offsets.get(i);
+                assertEquals(ImageLocation.decompress(bytes, offset, cache),
+                        locations.get(i), "location at " + offset);
+            }
+        }
+        for (int i = 0; i < 10000; i++) {
+            int n = random.nextInt(locations.size());
+            assertEquals(ImageLocation.decompress(bytes, offsets.get(n), cache),
+                    locations.get(n));
+        }
+    }
+
+    @Test
+    public void testCacheHit() {
+        long[] attributes = location("", "", "", "", 0x12345678L, 99);
+        ByteBuffer bytes = ByteBuffer.wrap(ImageLocation.compress(attributes));
+        AttributeCache cache = new AttributeCache(bytes.limit());
+        long[] result = new long[ATTRIBUTE_COUNT];
+        assertFalse(cache.get(0, result));
+        assertEquals(ImageLocation.decompress(bytes, 0, cache), attributes);
+        if ("64".equals(System.getProperty("sun.arch.data.model"))) {
+            assertTrue(cache.get(0, result));
+            assertEquals(result, attributes);
+        }
+        assertFalse(cache.get(1, result));
+    }
+
+    @Test
+    public void testVerify() {
+        long[] full = location("java.base", "java/lang", "Object", "class", 0, 0);
+        long[] noModule = location("", "java/lang", "Object", "class", 0, 0);
+        long[] noParent = location("java.base", "", "module-info", "class", 0, 0);
+        long[] noExtension = location("java.base", "META-INF", "MANIFEST", "", 0, 0);
+        long[] unicode = location("m\u00e9", "p\u00e4ck", "\u4e2d\u6587", "t", 0, 0);
+        ByteBuffer table = ByteBuffer.wrap(strings.toByteArray());
+
+        check(true, "/java.base/java/lang/Object.class", full, table);
+        check(false, "/java.base/java/lang/Object.clas", full, table);
+        check(false, "/java.base/java/lang/Object.classes", full, table);
+        check(false, "/java.base/java/lang/Object", full, table);
+        check(false, "/java.base/java/lang/Objects.class", full, table);
+        check(false, "/java.base/java/lang.Object.class", full, table);
+        check(false, "java.base/java/lang/Object.class", full, table);
+        check(false, "/java.bas/java/lang/Object.class", full, table);
+        check(false, "", full, table);
+        check(true, "java/lang/Object.class", noModule, table);
+        check(false, "/java/lang/Object.class", noModule, table);
+        check(true, "/java.base/module-info.class", noParent, table);
+        check(false, "/java.base//module-info.class", noParent, table);
+        check(true, "/java.base/META-INF/MANIFEST", noExtension, table);
+        check(false, "/java.base/META-INF/MANIFEST.MF", noExtension, table);
+        check(true, "/m\u00e9/p\u00e4ck/\u4e2d\u6587.t", unicode, table);
+        check(false, "/m\u00e9/p\u00e4ck/\u4e2d\u6588.t", unicode, table);
+    }
+
+    private static void check(boolean expected, String name, long[] attributes,
+                              ByteBuffer strings) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        assertEquals(ImageLocation.verify(bytes, 0, bytes.length, attributes, strings),
+                expected, name);
+        // at an offset into a larger array
+        byte[] padded = new byte[bytes.length + 6];
+        System.arraycopy(bytes, 0, padded, 3, bytes.length);
+        padded[bytes.length + 3] = 'x';
+        assertEquals(ImageLocation.verify(padded, 3, bytes.length, attributes, strings),
+                expected, name);
+    }
+}
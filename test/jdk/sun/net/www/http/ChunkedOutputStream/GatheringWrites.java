@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+/*
+ * @test
+ * @summary Checks the chunks written by ChunkedOutputStream, and the number
+ *          of writes to and flushes of the underlying stream
+ * @modules java.base/sun.net.www.http
+ * @run testng/othervm GatheringWrites
+ * @run testng/othervm -Dsun.net.http.chunkedOutput.gathering=true GatheringWrites
+ */
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import sun.net.www.http.ChunkedOutputStream;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class GatheringWrites {
+
+    static final boolean GATHERING = Boolean.getBoolean("sun.net.http.chunkedOutput.gathering");
+
+    // Counts the writes and the flushes that reach the "socket"
+    static class CountingStream extends FilterOutputStream {
+        int writes;
+        int flushes;
+        CountingStream(OutputStream out) { super(out); }
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            writes++;
+            out.write(b, off, len);
+        }
+        @Override
+        public void write(int b) throws IOException {
+            writes++;
+            out.write(b);
+        }
+        @Override
+        public void flush() throws IOException {
+            flushes++;
+        }
+    }
+
+    @DataProvider
+    public Object[][] writeSizes() {
+        return new Object[][] {
+            { 4096, new int[] { 1 } },
+            { 4096, new int[] { 100, 5000, 3, 4089, 4090 } },
+            { 4096, new int[] { 8192, 8192, 8192, 8192, 8192, 8192 } },
+            { 1024, new int[] { 100_000, 1, 200_000 } },
+            { 4096, new int[] { 70_000, 70_000, 10, 10, 10, 10, 10, 10, 10 } },
+            { 1 << 20, new int[] { 100_000, 10 } },
+        };
+    }
+
+    @Test(dataProvider = "writeSizes")
+    public void testChunks(int chunkSize, int[] writeSizes) throws IOException {
+        var random = new Random(chunkSize);
+        var expected = new ByteArrayOutputStream();
+        var sink = new ByteArrayOutputStream();
+        var ps = new PrintStream(sink);
+        var cos = new ChunkedOutputStream(ps, chunkSize);
+        for (int size : writeSizes) {
+            byte[] data = new byte[size + 2];
+            random.nextBytes(data);
+            cos.write(data, 1, size);
+            expected.write(data, 1, size);
+        }
+        cos.close();
+        List<Integer> chunkSizes = new ArrayList<>();
+        byte[] decoded = decode(sink.toByteArray(), chunkSizes);
+        assertTrue(Arrays.equals(decoded, expected.toByteArray()));
+        assertEquals((int) chunkSizes.get(chunkSizes.size() - 1), 0);
+        if (!GATHERING) {
+            // all but the last two chunks have the requested size
+            int dataSize = chunkSizes.get(0);
+            for (int i = 0; i < chunkSizes.size() - 2; i++) {
+                assertEquals((int) chunkSizes.get(i), dataSize);
+            }
+            assertTrue(dataSize + Integer.toHexString(dataSize).length() + 4 <= chunkSize);
+        }
+    }
+
+    @Test
+    public void testSingleWritePerChunk() throws IOException {
+        var counting = new CountingStream(OutputStream.nullOutputStream());
+        var cos = new ChunkedOutputStream(new PrintStream(counting), 4096);
+        byte[] data = new byte[32 * 1024];
+        for (int i = 0; i < 32; i++) {
+            cos.write(data);
+        }
+        int chunks = 32 * data.length / 4000;
+        if (GATHERING) {
+            // chunks grow with the writes
+            assertTrue(counting.writes < chunks / 4, "writes: " + counting.writes);
+            assertTrue(counting.flushes <= 32, "flushes: " + counting.flushes);
+        } else {
+            assertTrue(counting.writes <= chunks + 1, "writes: " + counting.writes);
+        }
+    }
+
+    @Test
+    public void testLargeWriteBypass() throws IOException {
+        var counting = new CountingStream(OutputStream.nullOutputStream());
+        var cos = new ChunkedOutputStream(new PrintStream(counting), 4096);
+        cos.write(new byte[1024 * 1024]);
+        if (GATHERING) {
+            // a single chunk, header and trailing CRLF included
+            assertEquals(counting.writes, 1);
+            assertEquals(counting.flushes, 1);
+        }
+    }
+
+    @Test
+    public void testError() throws IOException {
+        var failing = new CountingStream(OutputStream.nullOutputStream()) {
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                writes++;
+                throw new IOException("write failed");
+            }
+        };
+        var ps = new PrintStream(failing);
+        var cos = new ChunkedOutputStream(ps, 4096);
+        byte[] data = new byte[10_000];
+        for (int i = 0; i < 3; i++) {
+            cos.write(data);
+        }
+        assertTrue(cos.checkError());
+        // non-gathering: the first chunk of each write fails, the rest is
+        // dropped; gathering: the chunks of the first write fail, the error
+        // is then detected before the next writes
+        int chunks = 3 * data.length / 4089;
+        assertTrue(failing.writes < chunks, "writes: " + failing.writes);
+        if (GATHERING) {
+            assertEquals(failing.writes, data.length / 4089);
+        } else {
+            assertEquals(failing.writes, 3);
+        }
+    }
+
+    // Decodes the chunked encoding of the given bytes
+    static byte[] decode(byte[] bytes, List<Integer> chunkSizes) {
+        var out = new ByteArrayOutputStream();
+        int i = 0;
+        while (true) {
+            int eol = i;
+            while (bytes[eol] != '\r') {
+                eol++;
+            }
+            assertEquals(bytes[eol + 1], '\n');
+            int size = Integer.parseInt(
+                    new String(bytes, i, eol - i, StandardCharsets.US_ASCII), 16);
+            chunkSizes.add(size);
+            i = eol + 2;
+            if (size == 0) {
+                break;
+            }
+            out.write(bytes, i, size);
+            i += size;
+            assertEquals(bytes[i], '\r');
+            assertEquals(bytes[i + 1], '\n');
+            i += 2;
+        }
+        assertEquals(i, bytes.length);
+        return out.toByteArray();
+    }
+}
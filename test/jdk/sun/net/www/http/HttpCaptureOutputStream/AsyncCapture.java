@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+/*
+ * @test
+ * @summary Checks that the traffic sent and received through
+ *          HttpURLConnection is still captured, in order, when capture is
+ *          done on a background thread
+ * @library /test/lib
+ * @run main/othervm -Dsun.net.http.captureRules=rules.txt AsyncCapture
+ * @run main/othervm -Dsun.net.http.captureRules=rules.txt
+ *                   -Dsun.net.http.captureBufferSize=16 AsyncCapture dropped
+ */
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import com.sun.net.httpserver.HttpServer;
+import jdk.test.lib.net.URIBuilder;
+
+public class AsyncCapture {
+
+    static final String BODY = "request-body-" + "x".repeat(100);
+
+    public static void main(String[] args) throws Exception {
+        boolean dropped = args.length > 0 && args[0].equals("dropped");
+        Files.writeString(Path.of("rules.txt"), ".*/capture/.*, capture.log\n");
+
+        var loopback = InetAddress.getLoopbackAddress();
+        HttpServer server = HttpServer.create(new InetSocketAddress(loopback, 0), 0);
+        server.createContext("/capture/", exchange -> {
+            try (InputStream is = exchange.getRequestBody()) {
+                is.readAllBytes();
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.start();
+        try {
+            URL url = URIBuilder.newBuilder()
+                    .scheme("http")
+                    .loopback()
+                    .port(server.getAddress().getPort())
+                    .path("/capture/test")
+                    .toURL();
+            var conn = (HttpURLConnection) url.openConnection(Proxy.NO_PROXY);
+            conn.setDoOutput(true);
+            conn.setRequestMethod("POST");
+            try (OutputStream os = conn.getOutputStream()) {
+                os.write(BODY.getBytes(StandardCharsets.US_ASCII));
+            }
+            if (conn.getResponseCode() != 200) {
+                throw new RuntimeException("unexpected response: " + conn.getResponseCode());
+            }
+            conn.disconnect();
+        } finally {
+            server.stop(0);
+        }
+
+        if (dropped) {
+            // requests must go through even if nothing can be captured
+            return;
+        }
+        // the capture is written asynchronously
+        long deadline = System.nanoTime() + 60_000_000_000L;
+        while (true) {
+            String captured = captured();
+            if (captured.contains("POST /capture/test") && captured.contains(BODY)
+                    && captured.contains("HTTP/1.1 200")) {
+                System.out.println("Captured: " + captured);
+                // the request is marked as sent, then the response as received
+                int sent = captured.indexOf("------>");
+                int request = captured.indexOf("POST /capture/test");
+                int body = captured.indexOf(BODY);
+                int received = captured.indexOf("<------", body);
+                int response = captured.indexOf("HTTP/1.1 200");
+                if (!(sent < request && request < body && body < received
+                        && received < response)) {
+                    throw new RuntimeException("out of order: " + captured);
+                }
+                return;
+            }
+            if (System.nanoTime() > deadline) {
+                throw new RuntimeException("not captured: " + captured);
+            }
+            Thread.sleep(100);
+        }
+    }
+
+    static String captured() throws IOException {
+        List<Path> files;
+        try (Stream<Path> s = Files.list(Path.of("."))) {
+            files = s.filter(p -> p.getFileName().toString().startsWith("capture"))
+                     .collect(Collectors.toList());
+        }
+        StringBuilder sb = new StringBuilder();
+        for (Path f : files) {
+            sb.append(Files.readString(f, StandardCharsets.ISO_8859_1));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+/*
+ * @test
+ * @summary Tests the recycling of direct buffers by DirectBufferArena
+ * @modules java.base/jdk.internal.misc
+ *          java.base/sun.nio.ch
+ * @run testng/othervm DirectBufferArenaTest
+ * @run testng/othervm -Djdk.nio.directBufferArena.maxPooledSize=0 DirectBufferArenaTest
+ */
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import sun.nio.ch.DirectBufferArena;
+import org.testng.annotations.Test;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+public class DirectBufferArenaTest {
+
+    static final boolean POOLING =
+            Long.getLong("jdk.nio.directBufferArena.maxPooledSize", 1) > 0;
+
+    @Test
+    public void testThreadCache() {
+        ByteBuffer buf = DirectBufferArena.allocate(1000);
+        assertTrue(buf.isDirect());
+        assertEquals(buf.position(), 0);
+        assertEquals(buf.limit(), 1000);
+        assertEquals(buf.capacity(), 1024);
+        long inUse = DirectBufferArena.inUseBytes();
+        assertTrue(inUse >= 1024);
+        buf.putInt(42);
+        DirectBufferArena.release(buf);
+        assertEquals(DirectBufferArena.inUseBytes(), inUse - 1024);
+
+        // reused from the cache of this thread, whatever the pool size
+        ByteBuffer buf2 = DirectBufferArena.allocate(600);
+        assertSame(buf2, buf);
+        assertEquals(buf2.position(), 0);
+        assertEquals(buf2.limit(), 600);
+        DirectBufferArena.release(buf2);
+    }
+
+    @Test
+    public void testSharedPool() throws Exception {
+        long count = DirectBufferArena.BUFFER_POOL.getCount();
+        List<ByteBuffer> bufs = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            bufs.add(DirectBufferArena.allocate(64 * 1024));
+        }
+        assertEquals(DirectBufferArena.BUFFER_POOL.getCount(), count + 32);
+        assertTrue(DirectBufferArena.highWaterBytes() >= 32 * 64 * 1024);
+
+        // released by a thread that then terminates, the buffers end up in
+        // the shared pool, or are freed if it is full
+        Thread t = new Thread(() -> bufs.forEach(DirectBufferArena::release));
+        t.start();
+        t.join();
+        long pooled = DirectBufferArena.pooledBytes();
+        if (POOLING) {
+            assertEquals(pooled, 32 * 64 * 1024);
+            ByteBuffer buf = DirectBufferArena.allocate(40_000);
+            assertTrue(bufs.stream().anyMatch(b -> b == buf));
+            assertEquals(DirectBufferArena.pooledBytes(), 31 * 64 * 1024);
+            DirectBufferArena.release(buf);
+        } else {
+            assertEquals(pooled, 0);
+            assertEquals(DirectBufferArena.BUFFER_POOL.getCount(), count);
+        }
+    }
+
+    @Test
+    public void testUnpooled() {
+        long count = DirectBufferArena.BUFFER_POOL.getCount();
+        long inUse = DirectBufferArena.inUseBytes();
+        ByteBuffer buf = DirectBufferArena.allocate(2 * 1024 * 1024 + 1);
+        assertEquals(buf.capacity(), 2 * 1024 * 1024 + 1);
+        assertEquals(DirectBufferArena.BUFFER_POOL.getCount(), count);
+        assertEquals(DirectBufferArena.inUseBytes(), inUse);
+        DirectBufferArena.release(buf);
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+/*
+ * @test
+ * @summary Checks that the block-wise decoding of array-backed buffers by
+ *          the UTF-16 decoders produces the same results as the byte-wise
+ *          decoding of direct buffers
+ * @key randomness
+ * @run main TestUTF16BulkDecode
+ */
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class TestUTF16BulkDecode {
+
+    static final String[] CHARSETS = {
+        "UTF-16", "UTF-16BE", "UTF-16LE", "x-UTF-16LE-BOM"
+    };
+
+    public static void main(String[] args) throws Exception {
+        long seed = Long.getLong("seed", new Random().nextLong());
+        System.out.println("seed: " + seed);
+        Random random = new Random(seed);
+        for (String name : CHARSETS) {
+            Charset cs = Charset.forName(name);
+            for (int i = 0; i < 2000; i++) {
+                byte[] input = input(random, cs, random.nextInt(200));
+                int dstSize = 2 + random.nextInt(64);
+                List<String> expected = decode(cs, input, true, dstSize);
+                List<String> actual = decode(cs, input, false, dstSize);
+                if (!expected.equals(actual)) {
+                    throw new RuntimeException(name + ": expected " + expected
+                            + ", got " + actual);
+                }
+            }
+            // a long well-formed text decodes as the original string
+            String s = text(random, 100_000, true);
+            byte[] bytes = s.getBytes(cs);
+            String decoded = cs.newDecoder().decode(ByteBuffer.wrap(bytes)).toString();
+            if (!decoded.equals(s)) {
+                throw new RuntimeException(name + ": round trip failed");
+            }
+        }
+    }
+
+    // Returns random text, mostly BMP, with surrogate pairs, and if not
+    // well-formed, unpaired surrogates
+    static String text(Random random, int length, boolean wellFormed) {
+        StringBuilder sb = new StringBuilder(length);
+        while (sb.length() < length) {
+            int kind = random.nextInt(40);
+            if (kind == 0) {
+                sb.appendCodePoint(0x10000 + random.nextInt(0x100000));
+            } else if (kind == 1 && !wellFormed) {
+                sb.append((char) (0xD800 + random.nextInt(0x800)));
+            } else if (kind < 20) {
+                sb.append((char) random.nextInt(0x80));
+            } else {
+                char c;
+                do {
+                    c = (char) random.nextInt(0x10000);
+                } while (Character.isSurrogate(c));
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    // Returns random input, which may start with either byte order mark,
+    // and may have an odd length
+    static byte[] input(Random random, Charset cs, int length) {
+        String s = text(random, length, random.nextBoolean());
+        boolean little = cs.name().contains("LE") || random.nextBoolean();
+        byte[] bytes = new byte[s.length() * 2 + 2 + random.nextInt(2)];
+        int i = 0;
+        int bom = random.nextInt(3);
+        if (bom != 0) {
+            char mark = bom == 1 ? (char) 0xFEFF : (char) 0xFFFE;
+            bytes[i++] = (byte) (mark >> 8);
+            bytes[i++] = (byte) mark;
+        }
+        for (int k = 0; k < s.length(); k++) {
+            char c = s.charAt(k);
+            bytes[i++] = (byte) (little ? c : c >> 8);
+            bytes[i++] = (byte) (little ? c >> 8 : c);
+        }
+        if (i < bytes.length) {
+            bytes[i++] = (byte) random.nextInt();
+        }
+        byte[] result = new byte[i];
+        System.arraycopy(bytes, 0, result, 0, i);
+        return result;
+    }
+
+    // Decodes the input with a destination of the given size, returning the
+    // chars decoded and the coder results, in order
+    static List<String> decode(Charset cs, byte[] input, boolean direct,
+                               int dstSize) {
+        CharsetDecoder dec = cs.newDecoder();
+        ByteBuffer src;
+        if (direct) {
+            src = ByteBuffer.allocateDirect(input.length);
+            src.put(input).flip();
+        } else {
+            // at a non-zero array offset
+            src = ByteBuffer.allocate(input.length + 3).position(3).slice();
+            src.put(input).flip();
+        }
+        CharBuffer dst = CharBuffer.allocate(dstSize);
+        List<String> transcript = new ArrayList<>();
+        StringBuilder chars = new StringBuilder();
+        while (true) {
+            CoderResult cr = dec.decode(src, dst, true);
+            dst.flip();
+            chars.append(dst);
+            dst.clear();
+            if (cr.isUnderflow()) {
+                transcript.add(chars + "|" + src.remaining());
+                break;
+            } else if (cr.isError()) {
+                transcript.add(chars + "|" + cr + "@" + src.position());
+                chars.setLength(0);
+                src.position(src.position() + cr.length());
+            }
+        }
+        return transcript;
+    }
+}
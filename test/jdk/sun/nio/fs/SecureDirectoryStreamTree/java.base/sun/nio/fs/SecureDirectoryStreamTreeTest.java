@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package sun.nio.fs;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.testng.annotations.Test;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertThrows;
+import static org.testng.Assert.assertTrue;
+
+public class SecureDirectoryStreamTreeTest {
+
+    static UnixSecureDirectoryStream open(Path dir) throws IOException {
+        DirectoryStream<Path> stream = Files.newDirectoryStream(dir);
+        if (!(stream instanceof UnixSecureDirectoryStream)) {
+            stream.close();
+            throw new org.testng.SkipException("SecureDirectoryStream not supported");
+        }
+        return (UnixSecureDirectoryStream) stream;
+    }
+
+    // Creates a tree with wide and deep directories, and a link to outside
+    static void createTree(Path root, Path outside) throws IOException {
+        Files.createDirectories(root);
+        for (int i = 0; i < 600; i++) {
+            Files.writeString(root.resolve("file" + i), "content" + i);
+        }
+        Path dir = root;
+        for (int depth = 0; depth < 8; depth++) {
+            dir = dir.resolve("dir" + depth);
+            Files.createDirectory(dir);
+            for (int i = 0; i < 10; i++) {
+                Files.writeString(dir.resolve("f" + i), depth + "-" + i);
+                Files.createDirectory(dir.resolve("empty" + i));
+            }
+        }
+        Files.setPosixFilePermissions(root.resolve("file0"),
+                PosixFilePermissions.fromString("r--------"));
+        Files.setPosixFilePermissions(root.resolve("dir0").resolve("dir1"),
+                PosixFilePermissions.fromString("rwxr-x---"));
+        Files.createSymbolicLink(root.resolve("link"), outside);
+        Files.createSymbolicLink(root.resolve("dir0").resolve("dangling"),
+                Path.of("does-not-exist"));
+    }
+
+    // Returns the relative paths of a tree, without following links, with
+    // the contents of files and the targets of links
+    static Map<String, String> snapshot(Path root) throws IOException {
+        Map<String, String> map = new HashMap<>();
+        try (Stream<Path> files = Files.walk(root)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String value;
+                if (Files.isSymbolicLink(file)) {
+                    value = "link:" + Files.readSymbolicLink(file);
+                } else if (Files.isDirectory(file)) {
+                    value = "dir:" + PosixFilePermissions.toString(
+                            Files.getPosixFilePermissions(file));
+                } else {
+                    value = Files.readString(file);
+                }
+                map.put(root.relativize(file).toString(), value);
+            }
+        }
+        return map;
+    }
+
+    static Path outside() throws IOException {
+        Path outside = Files.createTempDirectory("outside");
+        Files.writeString(outside.resolve("keep"), "keep");
+        return outside;
+    }
+
+    @Test
+    public void testEntries() throws IOException {
+        Path dir = Files.createTempDirectory("entries");
+        Path outside = outside();
+        createTree(dir, outside);
+        int count = 0;
+        try (UnixSecureDirectoryStream stream = open(dir)) {
+            Iterator<UnixSecureDirectoryStream.Entry> entries = stream.entries();
+            assertThrows(IllegalStateException.class, stream::iterator);
+            while (entries.hasNext()) {
+                var entry = entries.next();
+                Path file = dir.resolve(entry.name());
+                PosixFileAttributes expected = Files.readAttributes(file,
+                        PosixFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                PosixFileAttributes actual = entry.attributes();
+                assertEquals(actual.fileKey(), expected.fileKey());
+                assertEquals(actual.isDirectory(), expected.isDirectory());
+                assertEquals(actual.isSymbolicLink(), expected.isSymbolicLink());
+                assertEquals(actual.size(), expected.size());
+                assertEquals(actual.permissions(), expected.permissions());
+                count++;
+            }
+        }
+        assertEquals(count, 602);
+    }
+
+    @Test
+    public void testEntriesOfClosedStream() throws IOException {
+        Path dir = Files.createTempDirectory("closed");
+        for (int i = 0; i < 200; i++) {
+            Files.createFile(dir.resolve("file" + i));
+        }
+        UnixSecureDirectoryStream stream = open(dir);
+        Iterator<UnixSecureDirectoryStream.Entry> entries = stream.entries();
+        assertTrue(entries.hasNext());
+        entries.next();
+        stream.close();
+        // no entry is returned once the stream is closed
+        assertFalse(entries.hasNext());
+    }
+
+    @Test
+    public void testDeleteTree() throws IOException {
+        Path parent = Files.createTempDirectory("delete");
+        Path outside = outside();
+        createTree(parent.resolve("tree"), outside);
+        Files.writeString(parent.resolve("other"), "other");
+        try (UnixSecureDirectoryStream stream = open(parent)) {
+            stream.deleteTree(Path.of("tree"));
+            assertFalse(Files.exists(parent.resolve("tree"), LinkOption.NOFOLLOW_LINKS));
+            stream.deleteTree(Path.of("other"));
+            assertFalse(Files.exists(parent.resolve("other")));
+            assertThrows(java.nio.file.NoSuchFileException.class,
+                    () -> stream.deleteTree(Path.of("other")));
+        }
+        // the target of the link is not deleted
+        assertEquals(Files.readString(outside.resolve("keep")), "keep");
+    }
+
+    @Test
+    public void testCopyTree() throws IOException {
+        Path parent = Files.createTempDirectory("copy");
+        Path outside = outside();
+        Path source = parent.resolve("source");
+        createTree(source, outside);
+        Path targetParent = Files.createTempDirectory("target");
+        try (UnixSecureDirectoryStream stream = open(parent);
+             UnixSecureDirectoryStream target = open(targetParent)) {
+            stream.copyTree(Path.of("source"), target, Path.of("copy"));
+            assertEquals(snapshot(targetParent.resolve("copy")), snapshot(source));
+            try (Stream<Path> files = Files.list(targetParent)) {
+                assertEquals(files.count(), 1L);
+            }
+
+            assertThrows(FileAlreadyExistsException.class,
+                    () -> stream.copyTree(Path.of("source"), target, Path.of("copy")));
+
+            stream.copyTree(Path.of("source").resolve("file1"), target, Path.of("file"));
+            assertEquals(Files.readString(targetParent.resolve("file")), "content1");
+
+            target.deleteTree(Path.of("copy"));
+            assertFalse(Files.exists(targetParent.resolve("copy")));
+        }
+        assertEquals(Files.readString(outside.resolve("keep")), "keep");
+    }
+}
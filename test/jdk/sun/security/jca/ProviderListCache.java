@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+/*
+ * @test
+ * @summary Tests the cache of provider lookups: that cached lookups find
+ *          the same services as uncached ones, that adding or removing a
+ *          provider is seen by the next lookup, and the statistics of the
+ *          ProviderListCache MBean
+ * @modules java.base/sun.security.jca
+ *          java.management/sun.management
+ * @run main/othervm ProviderListCache
+ * @run main/othervm -Djdk.security.provider.lookupCache=true ProviderListCache
+ */
+
+import java.lang.management.ManagementFactory;
+import java.security.MessageDigest;
+import java.security.Provider;
+import java.security.Provider.Service;
+import java.security.Security;
+import java.util.ArrayList;
+import java.util.List;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import sun.management.ProviderListCacheImpl;
+import sun.security.jca.ProviderList;
+import sun.security.jca.Providers;
+import sun.security.jca.ServiceId;
+
+public class ProviderListCache {
+
+    private static final String[][] LOOKUPS = {
+        {"MessageDigest", "SHA-256"},
+        {"MessageDigest", "sha-256"},
+        {"Cipher", "AES/GCM/NoPadding"},
+        {"Cipher", "AES"},
+        {"Signature", "SHA256withECDSA"},
+        {"KeyPairGenerator", "RSA"},
+        {"SecureRandom", "NativePRNG"},
+        {"MessageDigest", "NoSuchDigest"},
+    };
+
+    public static void main(String[] args) throws Exception {
+        boolean enabled = Boolean.getBoolean("jdk.security.provider.lookupCache");
+        check(ProviderList.isCacheEnabled() == enabled, "isCacheEnabled");
+
+        ProviderList list = Providers.getProviderList();
+        long hits = ProviderList.cacheHits();
+        for (int i = 0; i < 3; i++) {
+            for (String[] lookup : LOOKUPS) {
+                checkLookup(list, lookup[0], lookup[1]);
+            }
+            List<ServiceId> ids = List.of(
+                    new ServiceId("Cipher", "AES/CBC/PKCS5Padding"),
+                    new ServiceId("Cipher", "AES/CBC"),
+                    new ServiceId("Cipher", "AES"));
+            List<Service> expected = new ArrayList<>();
+            for (Provider p : Security.getProviders()) {
+                for (ServiceId id : ids) {
+                    Service s = p.getService(id.type, id.algorithm);
+                    if (s != null) {
+                        expected.add(s);
+                    }
+                }
+            }
+            check(expected.equals(new ArrayList<>(list.getServices(ids))),
+                    "parallel lookup");
+        }
+        if (enabled) {
+            check(ProviderList.cacheHits() - hits
+                    >= 2 * (LOOKUPS.length * 2 + 1), "hits counted");
+        } else {
+            check(ProviderList.cacheHits() == 0, "no hits");
+            check(ProviderList.cacheMisses() == 0, "no misses");
+        }
+
+        // a lookup that cannot be cached is counted as a miss
+        long misses = ProviderList.cacheMisses();
+        hits = ProviderList.cacheHits();
+        list.getServices(List.of(new ServiceId("Cipher", null)));
+        check(ProviderList.cacheMisses() == misses + (enabled ? 1 : 0),
+                "uncached lookup counted");
+        check(ProviderList.cacheHits() == hits, "uncached lookup not a hit");
+
+        // a provider added or removed is seen by the next lookup
+        String sun = MessageDigest.getInstance("SHA-256").getProvider().getName();
+        Provider test = new TestProvider();
+        check(Security.insertProviderAt(test, 1) == 1, "provider added");
+        check(MessageDigest.getInstance("SHA-256").getProvider() == test,
+                "lookup after add");
+        checkLookup(Providers.getProviderList(), "MessageDigest", "SHA-256");
+        Security.removeProvider(test.getName());
+        check(MessageDigest.getInstance("SHA-256").getProvider().getName()
+                .equals(sun), "lookup after remove");
+        Security.addProvider(test);
+        check(MessageDigest.getInstance("SHA-256").getProvider().getName()
+                .equals(sun), "lookup after add last");
+        Security.removeProvider(test.getName());
+
+        // the MBean
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(ProviderListCacheImpl.OBJECT_NAME);
+        server.registerMBean(new ProviderListCacheImpl(), name);
+        check(server.getAttribute(name, "Enabled").equals(enabled), "Enabled");
+        long mbeanHits = (Long) server.getAttribute(name, "Hits");
+        long mbeanMisses = (Long) server.getAttribute(name, "Misses");
+        double hitRate = (Double) server.getAttribute(name, "HitRate");
+        check(mbeanHits == ProviderList.cacheHits(), "Hits");
+        check(mbeanMisses == ProviderList.cacheMisses(), "Misses");
+        if (enabled) {
+            check(mbeanMisses > 0 && hitRate > 0.5 && hitRate < 1.0, "HitRate");
+        } else {
+            check(hitRate == 0.0, "HitRate");
+        }
+    }
+
+    // checks that the list finds the services of the providers, in order
+    private static void checkLookup(ProviderList list, String type,
+            String algorithm) {
+        List<Service> expected = new ArrayList<>();
+        for (Provider p : list.providers()) {
+            Service s = p.getService(type, algorithm);
+            if (s != null) {
+                expected.add(s);
+            }
+        }
+        List<Service> services = list.getServices(type, algorithm);
+        check(expected.equals(new ArrayList<>(services)),
+                type + "." + algorithm + ": " + services);
+        Service first = list.getService(type, algorithm);
+        check(expected.isEmpty() ? first == null : first == expected.get(0),
+                type + "." + algorithm + ": first " + first);
+    }
+
+    private static void check(boolean condition, String what) {
+        if (!condition) {
+            throw new RuntimeException("Failed: " + what);
+        }
+    }
+
+    public static final class TestProvider extends Provider {
+        TestProvider() {
+            super("ProviderListCacheTest", "1.0", "test provider");
+            putService(new Service(this, "MessageDigest", "SHA-256",
+                    TestDigest.class.getName(), null, null));
+        }
+    }
+
+    public static final class TestDigest extends java.security.MessageDigestSpi {
+        @Override
+        protected void engineUpdate(byte input) { }
+        @Override
+        protected void engineUpdate(byte[] input, int offset, int len) { }
+        @Override
+        protected byte[] engineDigest() {
+            return new byte[32];
+        }
+        @Override
+        protected void engineReset() { }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package jdk.tools.jimage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import jdk.internal.jimage.BasicImageReader;
+
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+import static org.testng.Assert.*;
+
+public class ModuleWalkerTest {
+
+    private static final Path IMAGE =
+            Path.of(System.getProperty("java.home"), "lib", "modules");
+
+    private static void checkImage() {
+        if (!Files.exists(IMAGE)) {
+            throw new SkipException("no runtime image");
+        }
+    }
+
+    @Test
+    public void testExtract() throws IOException {
+        checkImage();
+        for (int parallelism : new int[] { 1, 4 }) {
+            Path dir = Files.createTempDirectory(Path.of("."), "extract");
+            new ModuleWalker(IMAGE, parallelism).extract(dir);
+            try (BasicImageReader reader = BasicImageReader.open(IMAGE)) {
+                int count = 0;
+                for (String name : reader.getEntryNames()) {
+                    // the directory tree is not extracted
+                    if (name.matches("/(modules|packages)(/.*)?")) {
+                        continue;
+                    }
+                    // check every 16th resource, and all of java.base
+                    if (count++ % 16 == 0 || name.startsWith("/java.base/")) {
+                        Path file = dir.resolve(name.substring(1));
+                        assertEquals(Files.readAllBytes(file), reader.getResource(name),
+                                name + ", parallelism " + parallelism);
+                    }
+                }
+                try (Stream<Path> files = Files.walk(dir)) {
+                    assertEquals(files.filter(Files::isRegularFile).count(), count);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testExtractFailure() throws IOException {
+        checkImage();
+        // directories cannot be created below a regular file, so every
+        // module fails, and each worker stops at its first failure
+        Path file = Files.createTempFile(Path.of("."), "extract", null);
+        for (int parallelism : new int[] { 1, 4 }) {
+            try {
+                new ModuleWalker(IMAGE, parallelism).extract(file);
+                fail("IOException expected, parallelism " + parallelism);
+            } catch (IOException ex) {
+                assertTrue(ex.getSuppressed().length < parallelism,
+                        "parallelism " + parallelism);
+            }
+        }
+    }
+
+    @Test
+    public void testVerify() throws IOException {
+        checkImage();
+        List<String> expected = new ArrayList<>();
+        try (BasicImageReader reader = BasicImageReader.open(IMAGE)) {
+            for (String name : reader.getEntryNames()) {
+                if (name.endsWith("Exception.class")) {
+                    expected.add(name);
+                }
+            }
+        }
+        assertFalse(expected.isEmpty());
+        for (int parallelism : new int[] { 1, 2, 8 }) {
+            ModuleWalker walker = new ModuleWalker(IMAGE, parallelism);
+            List<String> failed = walker.verify((name, content) ->
+                    !name.endsWith("Exception.class")
+                    && (!name.endsWith(".class") || content.getInt(0) == 0xCAFEBABE));
+            assertEquals(failed, expected, "parallelism " + parallelism);
+            failed = walker.verify((name, content) -> {
+                if (name.equals(expected.get(0))) {
+                    throw new IllegalStateException();
+                }
+                return true;
+            });
+            assertEquals(failed, List.of(expected.get(0)));
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package jdk.tools.jlink.internal;
+
+import java.util.Random;
+
+import jdk.internal.jimage.ImageLocation;
+import jdk.internal.jimage.ImageStream;
+
+import org.testng.annotations.Test;
+import static org.testng.Assert.*;
+
+public class ParallelLocationsTest {
+
+    private static final int COUNT = 10_000;
+
+    private final String[] names = new String[COUNT];
+    private final long[] offsets = new long[COUNT];
+    private final long[] compressedSizes = new long[COUNT];
+    private final long[] uncompressedSizes = new long[COUNT];
+
+    public ParallelLocationsTest() {
+        Random random = new Random(7);
+        long offset = 0;
+        for (int i = 0; i < COUNT; i++) {
+            switch (i % 10) {
+                case 0 -> names[i] = "/modules/m" + i % 97 + "/p" + i;
+                case 1 -> names[i] = "/packages/p" + i + "/m" + i % 97;
+                case 2 -> names[i] = "/m" + i % 97 + "/META-INF/R" + i;
+                default -> names[i] = "/m" + i % 97 + "/p" + i % 13 + "/q" + i % 7
+                        + "/C" + i + ".class";
+            }
+            long size = random.nextInt(1 << 20);
+            offsets[i] = offset;
+            uncompressedSizes[i] = size;
+            compressedSizes[i] = random.nextBoolean() ? 0 : size / 2;
+            offset += size;
+        }
+    }
+
+    @Test
+    public void testSameAsSequential() {
+        ImageStringsWriter strings = new ImageStringsWriter();
+        ImageStream stream = new ImageStream();
+        int[] locationOffsets = new int[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            ImageLocationWriter location = ImageLocationWriter.newLocation(names[i],
+                    strings, offsets[i], compressedSizes[i], uncompressedSizes[i]);
+            location.writeTo(stream);
+            locationOffsets[i] = location.getLocationOffset();
+        }
+        byte[] expectedStrings = strings.getStream().toArray();
+        byte[] expectedLocations = stream.toArray();
+
+        for (int parallelism : new int[] { 1, 2, 4, 16 }) {
+            ImageStringsWriter parallelStrings = new ImageStringsWriter();
+            ImageStream parallelStream = new ImageStream();
+            ImageLocationWriter[] locations = ImageLocationWriter.newLocations(names,
+                    parallelStrings, offsets, compressedSizes, uncompressedSizes,
+                    parallelism);
+            ImageLocationWriter.writeTo(parallelStream, locations, parallelism);
+            assertEquals(parallelStrings.getStream().toArray(), expectedStrings,
+                    "strings, parallelism " + parallelism);
+            assertEquals(parallelStream.toArray(), expectedLocations,
+                    "locations, parallelism " + parallelism);
+            for (int i = 0; i < COUNT; i++) {
+                assertEquals(locations[i].getLocationOffset(), locationOffsets[i]);
+                if (!names[i].startsWith("/modules/") && !names[i].startsWith("/packages/")) {
+                    assertEquals(locations[i].getFullName(), names[i]);
+                }
+                assertEquals(locations[i].getUncompressedSize(), uncompressedSizes[i]);
+            }
+        }
+    }
+
+    @Test
+    public void testDefaultParallelism() {
+        String value = System.getProperty("jdk.jlink.parallelism");
+        assertEquals(ImageLocationWriter.PARALLELISM, value == null
+                ? Runtime.getRuntime().availableProcessors() : Integer.parseInt(value));
+
+        ImageStringsWriter strings = new ImageStringsWriter();
+        ImageStream stream = new ImageStream();
+        ImageLocationWriter.writeTo(stream, ImageLocationWriter.newLocations(names,
+                strings, offsets, compressedSizes, uncompressedSizes, 1), 1);
+        ImageStringsWriter defaultStrings = new ImageStringsWriter();
+        ImageStream defaultStream = new ImageStream();
+        ImageLocationWriter.writeTo(defaultStream, ImageLocationWriter.newLocations(names,
+                defaultStrings, offsets, compressedSizes, uncompressedSizes));
+        assertEquals(defaultStrings.getStream().toArray(), strings.getStream().toArray());
+        assertEquals(defaultStream.toArray(), stream.toArray());
+    }
+
+    @Test
+    public void testMismatchedAttributes() {
+        expectThrows(IllegalArgumentException.class,
+                () -> ImageLocationWriter.newLocations(names, new ImageStringsWriter(),
+                        offsets, new long[1], uncompressedSizes, 2));
+    }
+}
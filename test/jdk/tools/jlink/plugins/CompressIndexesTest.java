@@ -33,8 +33,11 @@
 import java.io.ByteArrayInputStream;
 import java.io.DataInputStream;
 import java.io.IOException;
+import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import jdk.internal.jimage.decompressor.CompressIndexes;
@@ -94,6 +97,77 @@ public class CompressIndexesTest {
                 ++index;
             }
         }
+        checkBuffers(flow, data);
+    }
+
+    private void checkBuffers(byte[] flow, int[] data) {
+        if (!Arrays.equals(CompressIndexes.decompressFlowToArray(flow), data)) {
+            throw new AssertionError("Invalid array flow");
+        }
+
+        // a direct slice, decompressed in chunks, into heap and direct buffers
+        ByteBuffer direct = ByteBuffer.allocateDirect(flow.length + 5);
+        direct.position(5);
+        direct.put(flow).position(5);
+        ByteBuffer slice = direct.slice();
+        if (CompressIndexes.count(slice) != data.length) {
+            throw new AssertionError("Invalid count " + CompressIndexes.count(slice));
+        }
+        for (IntBuffer chunk : List.of(IntBuffer.allocate(3),
+                ByteBuffer.allocateDirect(12).asIntBuffer())) {
+            ByteBuffer values = slice.duplicate();
+            int[] result = new int[data.length];
+            int n = 0;
+            while (values.hasRemaining()) {
+                chunk.clear();
+                int count = CompressIndexes.decompressFlow(values, chunk);
+                if (count != chunk.position()) {
+                    throw new AssertionError("Invalid chunk count " + count);
+                }
+                chunk.flip();
+                chunk.get(result, n, count);
+                n += count;
+            }
+            if (n != data.length || !Arrays.equals(result, data)) {
+                throw new AssertionError("Invalid buffer flow " + Arrays.toString(result));
+            }
+        }
+
+        // relative reads
+        ByteBuffer values = ByteBuffer.wrap(flow);
+        for (int d : data) {
+            int v = CompressIndexes.readInt(values);
+            if (v != d) {
+                throw new AssertionError("Expected: " + d + ", got: " + v);
+            }
+        }
+
+        // an incomplete value is left in the flow
+        ByteBuffer truncated = ByteBuffer.wrap(flow, 0, flow.length - 1);
+        IntBuffer result = IntBuffer.allocate(data.length);
+        int count = CompressIndexes.decompressFlow(truncated, result);
+        if (count != data.length - 1 || truncated.remaining() != 3
+                || CompressIndexes.count(ByteBuffer.wrap(flow, 0, flow.length - 1)) != count) {
+            throw new AssertionError("Invalid truncated flow " + count);
+        }
+        try {
+            CompressIndexes.readInt(truncated);
+            throw new AssertionError("Expected BufferUnderflowException");
+        } catch (BufferUnderflowException expected) { }
+
+        // the whole flow must be consumed by the array variants
+        byte[] invalid = Arrays.copyOf(flow, flow.length + 1);
+        invalid[flow.length] = (byte) 0x80;  // compressed, with a zero length
+        for (byte[] bad : List.of(Arrays.copyOf(flow, flow.length - 1), invalid)) {
+            try {
+                CompressIndexes.decompressFlowToArray(bad);
+                throw new AssertionError("Expected IllegalArgumentException");
+            } catch (IllegalArgumentException expected) { }
+            try {
+                CompressIndexes.decompressFlow(bad);
+                throw new AssertionError("Expected IllegalArgumentException");
+            } catch (IllegalArgumentException expected) { }
+        }
     }
 
     private void check(byte[] flow, List<byte[]> arrays) {
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.bench.com.sun.net.httpserver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.net.URL;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures loopback throughput and latency of the HTTP server with exchanges
+ * executed on a fixed thread pool, and on a virtual thread per exchange, with
+ * and without a concurrency limit. The exchange handler blocks for the given
+ * time, as a handler doing file or network I/O would.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(64)
+@Fork(value = 2, jvmArgsAppend = {
+        "--add-exports", "jdk.httpserver/sun.net.httpserver=ALL-UNNAMED",
+        "-Dsun.net.httpserver.nodelay=true"})
+public class ExchangeExecutors {
+
+    @Param({"fixed-8", "fixed-64", "virtual", "virtual-32"})
+    String executor;
+
+    @Param({"0", "2"})
+    int handlerMillis;
+
+    private HttpServer server;
+    private ExecutorService pool;
+    private AutoCloseable virtual;
+    private URL url;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        server = HttpServer.create(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        server.createContext("/", e -> {
+            if (handlerMillis > 0) {
+                try {
+                    Thread.sleep(handlerMillis);
+                } catch (InterruptedException ie) {
+                    throw new IOException(ie);
+                }
+            }
+            e.getResponseHeaders().set("Content-Type", "text/plain");
+            e.sendResponseHeaders(200, 2);
+            try (var os = e.getResponseBody()) {
+                os.write(new byte[] {'o', 'k'});
+            }
+        });
+        server.setExecutor(newExecutor(executor));
+        server.start();
+        url = new URL("http://" + InetAddress.getLoopbackAddress().getHostAddress()
+                + ":" + server.getAddress().getPort() + "/");
+    }
+
+    private Executor newExecutor(String name) throws Exception {
+        String[] parts = name.split("-");
+        switch (parts[0]) {
+            case "fixed":
+                pool = Executors.newFixedThreadPool(Integer.parseInt(parts[1]));
+                return pool;
+            case "virtual":
+                // sun.net.httpserver is not exported, the benchmark is run
+                // with --add-exports and the executor is created reflectively
+                int limit = parts.length > 1 ? Integer.parseInt(parts[1]) : 0;
+                Object created = Class.forName("sun.net.httpserver.VirtualThreadExecutor")
+                        .getMethod("create", int.class)
+                        .invoke(null, limit);
+                virtual = (AutoCloseable) created;
+                return (Executor) created;
+            default:
+                throw new IllegalArgumentException(name);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() throws Exception {
+        server.stop(0);
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+        if (virtual != null) {
+            virtual.close();
+        }
+    }
+
+    @Benchmark
+    public int exchange() throws IOException {
+        // keep-alive connections are reused across invocations by each thread
+        var connection = (HttpURLConnection) url.openConnection(Proxy.NO_PROXY);
+        try (InputStream is = connection.getInputStream()) {
+            return is.readAllBytes().length + connection.getResponseCode();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.bench.java.nio;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures the decoding of UTF-16 text, from heap buffers, which are
+ * decoded in blocks of four chars, and from direct buffers, which are
+ * decoded byte-wise.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 3)
+public class UTF16Decode {
+
+    @Param({"UTF-16", "UTF-16BE", "UTF-16LE"})
+    private String charset;
+
+    // ascii: ASCII text; bmp: text of the basic multilingual plane;
+    // supplementary: BMP text with a surrogate pair every 32 chars
+    @Param({"ascii", "bmp", "supplementary"})
+    private String text;
+
+    @Param({"64", "16384"})
+    private int length;
+
+    private CharsetDecoder decoder;
+    private byte[] bytes;
+    private ByteBuffer heap;
+    private ByteBuffer direct;
+    private CharBuffer chars;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        StringBuilder sb = new StringBuilder(length);
+        while (sb.length() < length) {
+            switch (text) {
+                case "ascii" -> sb.append((char) (0x20 + random.nextInt(0x5f)));
+                case "bmp" -> sb.append((char) (0x3040 + random.nextInt(0x1000)));
+                case "supplementary" -> {
+                    if (sb.length() % 32 == 31) {
+                        sb.appendCodePoint(0x1F600 + random.nextInt(0x50));
+                    } else {
+                        sb.append((char) (0x3040 + random.nextInt(0x1000)));
+                    }
+                }
+                default -> throw new IllegalArgumentException(text);
+            }
+        }
+        Charset cs = Charset.forName(charset);
+        decoder = cs.newDecoder();
+        bytes = sb.toString().getBytes(cs);
+        heap = ByteBuffer.wrap(bytes);
+        direct = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+        chars = CharBuffer.allocate(sb.length() + 1);
+    }
+
+    @Benchmark
+    public CharBuffer decodeHeap() {
+        heap.rewind();
+        chars.clear();
+        decoder.reset().decode(heap, chars, true);
+        return chars;
+    }
+
+    @Benchmark
+    public CharBuffer decodeDirect() {
+        direct.rewind();
+        chars.clear();
+        decoder.reset().decode(direct, chars, true);
+        return chars;
+    }
+
+    @Benchmark
+    public String newString() {
+        return new String(bytes, decoder.charset());
+    }
+}
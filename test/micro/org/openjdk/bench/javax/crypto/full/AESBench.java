@@ -1,6 +1,6 @@
 
 /*
- * Copyright (c) 2015, 2018, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2015, 2026, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -24,6 +24,7 @@
 package org.openjdk.bench.javax.crypto.full;
 
 import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
 import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Setup;
 
@@ -31,7 +32,11 @@ import javax.crypto.BadPaddingException;
 import javax.crypto.Cipher;
 import javax.crypto.IllegalBlockSizeException;
 import javax.crypto.NoSuchPaddingException;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.security.AlgorithmParameters;
 import java.security.InvalidAlgorithmParameterException;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
@@ -41,46 +46,136 @@ public class AESBench extends CryptoBase {
 
     public static final int SET_SIZE = 128;
 
-    @Param({"AES/ECB/NoPadding", "AES/ECB/PKCS5Padding", "AES/CBC/NoPadding", "AES/CBC/PKCS5Padding"})
+    // maximum size of a data set, large data sizes use fewer entries
+    private static final int MAX_SET_BYTES = 32 * 1024 * 1024;
+
+    @Param({"AES/ECB/NoPadding", "AES/ECB/PKCS5Padding", "AES/CBC/NoPadding", "AES/CBC/PKCS5Padding",
+            "AES/CTR/NoPadding", "AES/GCM/NoPadding"})
     private String algorithm;
 
     @Param({"128", "192", "256"})
     private int keyLength;
 
-    @Param({"" + 16 * 1024})
+    @Param({"" + 16 * 1024, "" + 1024 * 1024, "" + 8 * 1024 * 1024})
     private int dataSize;
 
+    private int setSize;
+
     byte[][] data;
     byte[][] encryptedData;
+    ByteBuffer[] directData;
+    ByteBuffer[] directEncryptedData;
+    ByteBuffer directOut;
     private Cipher encryptCipher;
     private Cipher decryptCipher;
     int index = 0;
 
+    // GCM does not allow an IV to be reused for encryption, so each GCM
+    // encryption is initialized with the next IV, and each GCM decryption
+    // with the parameters its data was encrypted with
+    private SecretKeySpec ks;
+    private boolean gcm;
+    private byte[] iv;
+    private AlgorithmParameters[] encryptedParams;
+
     @Setup
     public void setup() throws NoSuchAlgorithmException, NoSuchPaddingException, InvalidKeyException, BadPaddingException, IllegalBlockSizeException, InvalidAlgorithmParameterException, InvalidParameterSpecException {
         setupProvider();
+        setSize = Math.max(1, Math.min(SET_SIZE, MAX_SET_BYTES / dataSize));
         byte[] keystring = fillSecureRandom(new byte[keyLength / 8]);
-        SecretKeySpec ks = new SecretKeySpec(keystring, "AES");
+        ks = new SecretKeySpec(keystring, "AES");
+        gcm = algorithm.contains("/GCM/");
+        iv = fillSecureRandom(new byte[12]);
         encryptCipher = makeCipher(prov, algorithm);
-        encryptCipher.init(Cipher.ENCRYPT_MODE, ks);
+        if (gcm) {
+            initEncrypt();
+        } else {
+            encryptCipher.init(Cipher.ENCRYPT_MODE, ks);
+        }
         decryptCipher = makeCipher(prov, algorithm);
         decryptCipher.init(Cipher.DECRYPT_MODE, ks, encryptCipher.getParameters());
-        data = fillRandom(new byte[SET_SIZE][dataSize]);
-        encryptedData = fillEncrypted(data, encryptCipher);
+        data = fillRandom(new byte[setSize][dataSize]);
+        if (gcm) {
+            encryptedData = new byte[setSize][];
+            encryptedParams = new AlgorithmParameters[setSize];
+            for (int i = 0; i < setSize; i++) {
+                initEncrypt();
+                encryptedParams[i] = encryptCipher.getParameters();
+                encryptedData[i] = encryptCipher.doFinal(data[i]);
+            }
+        } else {
+            encryptedData = fillEncrypted(data, encryptCipher);
+        }
+        directData = new ByteBuffer[setSize];
+        directEncryptedData = new ByteBuffer[setSize];
+        for (int i = 0; i < setSize; i++) {
+            directData[i] = ByteBuffer.allocateDirect(dataSize).put(data[i]).flip();
+            directEncryptedData[i] = ByteBuffer.allocateDirect(encryptedData[i].length)
+                    .put(encryptedData[i]).flip();
+        }
+        // room for a padding block or a tag
+        directOut = ByteBuffer.allocateDirect(dataSize + 32);
+    }
+
+    private void initEncrypt() throws InvalidKeyException, InvalidAlgorithmParameterException {
+        if (gcm) {
+            for (int i = iv.length - 1; i >= 0 && ++iv[i] == 0; i--) { }
+            encryptCipher.init(Cipher.ENCRYPT_MODE, ks, new GCMParameterSpec(128, iv));
+        }
+    }
+
+    private void initDecrypt(int i) throws InvalidKeyException, InvalidAlgorithmParameterException {
+        if (gcm) {
+            decryptCipher.init(Cipher.DECRYPT_MODE, ks, encryptedParams[i]);
+        }
     }
 
     @Benchmark
-    public byte[] encrypt() throws BadPaddingException, IllegalBlockSizeException {
+    public byte[] encrypt() throws BadPaddingException, IllegalBlockSizeException, InvalidKeyException, InvalidAlgorithmParameterException {
         byte[] d = data[index];
-        index = (index +1) % SET_SIZE;
+        index = (index +1) % setSize;
+        initEncrypt();
         return encryptCipher.doFinal(d);
     }
 
     @Benchmark
-    public byte[] decrypt() throws BadPaddingException, IllegalBlockSizeException {
+    public byte[] decrypt() throws BadPaddingException, IllegalBlockSizeException, InvalidKeyException, InvalidAlgorithmParameterException {
+        initDecrypt(index);
         byte[] e = encryptedData[index];
-        index = (index +1) % SET_SIZE;
+        index = (index +1) % setSize;
         return decryptCipher.doFinal(e);
     }
 
-}
\ No newline at end of file
+    /**
+     * Decryption with parallel CBC decryption enabled for the data sizes
+     * of 1 MiB and above.
+     */
+    @Benchmark
+    @Fork(jvmArgsAppend = "-Djdk.crypto.cbc.parallelDecryptThreshold=1048576")
+    public byte[] decryptParallel() throws BadPaddingException, IllegalBlockSizeException, InvalidKeyException, InvalidAlgorithmParameterException {
+        return decrypt();
+    }
+
+    @Benchmark
+    public ByteBuffer encryptDirect() throws BadPaddingException, IllegalBlockSizeException, ShortBufferException, InvalidKeyException, InvalidAlgorithmParameterException {
+        ByteBuffer d = directData[index];
+        index = (index +1) % setSize;
+        initEncrypt();
+        d.rewind();
+        directOut.clear();
+        encryptCipher.doFinal(d, directOut);
+        return directOut;
+    }
+
+    @Benchmark
+    public ByteBuffer decryptDirect() throws BadPaddingException, IllegalBlockSizeException, ShortBufferException, InvalidKeyException, InvalidAlgorithmParameterException {
+        initDecrypt(index);
+        ByteBuffer e = directEncryptedData[index];
+        index = (index +1) % setSize;
+        e.rewind();
+        directOut.clear();
+        decryptCipher.doFinal(e, directOut);
+        return directOut;
+    }
+
+}
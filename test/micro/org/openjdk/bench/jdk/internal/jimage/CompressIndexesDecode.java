@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.bench.jdk.internal.jimage;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import jdk.internal.jimage.decompressor.CompressIndexes;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures the decompression of the index flows of compressed resources,
+ * as boxed lists and into int buffers, from a direct buffer standing for
+ * the mapped image. Run with {@code -prof gc} to compare allocation rates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 3, jvmArgsAppend = {
+        "--add-exports", "java.base/jdk.internal.jimage.decompressor=ALL-UNNAMED"})
+public class CompressIndexesDecode {
+
+    // number of indexes in a flow, typical of the strings of a class file
+    @Param({"16", "256"})
+    private int count;
+
+    private byte[] flow;
+    private ByteBuffer mapped;
+    private IntBuffer result;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int i = 0; i < count; i++) {
+            // mostly small indexes, as in the string table of an image
+            int value = random.nextInt(8) == 0 ? random.nextInt(1 << 20)
+                                               : random.nextInt(1 << 12);
+            out.writeBytes(CompressIndexes.compress(value));
+        }
+        flow = out.toByteArray();
+        mapped = ByteBuffer.allocateDirect(flow.length).put(flow).flip();
+        result = IntBuffer.allocate(count);
+    }
+
+    @Benchmark
+    public int list() {
+        int sum = 0;
+        List<Integer> indexes = CompressIndexes.decompressFlow(flow);
+        for (int index : indexes) {
+            sum += index;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int array() {
+        int sum = 0;
+        for (int index : CompressIndexes.decompressFlowToArray(flow)) {
+            sum += index;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int buffer() {
+        result.clear();
+        mapped.clear();
+        CompressIndexes.decompressFlow(mapped, result);
+        int sum = 0;
+        for (int i = 0; i < result.position(); i++) {
+            sum += result.get(i);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.bench.jdk.tools.jlink;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.TimeUnit;
+
+import jdk.internal.jimage.ImageStream;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures the time to build and write the locations table of an image,
+ * as a function of the number of modules in the image and of the number
+ * of threads used by jlink.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 3, jvmArgsAppend = {
+        "--add-modules", "jdk.jlink",
+        "--add-exports", "java.base/jdk.internal.jimage=ALL-UNNAMED",
+        "--add-opens", "jdk.jlink/jdk.tools.jlink.internal=ALL-UNNAMED"})
+public class ImageLocationsBuild {
+
+    // resources per module, about the average of the JDK modules
+    private static final int RESOURCES_PER_MODULE = 400;
+
+    @Param({"10", "70", "300"})
+    private int modules;
+
+    @Param({"1", "4"})
+    private int parallelism;
+
+    private String[] names;
+    private long[] offsets;
+    private long[] compressedSizes;
+    private long[] uncompressedSizes;
+
+    private MethodHandle newStrings;
+    private MethodHandle newLocations;
+    private MethodHandle writeTo;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        Class<?> writerClass = Class.forName("jdk.tools.jlink.internal.ImageLocationWriter");
+        Class<?> stringsClass = Class.forName("jdk.tools.jlink.internal.ImageStringsWriter");
+        MethodHandles.Lookup lookup =
+                MethodHandles.privateLookupIn(writerClass, MethodHandles.lookup());
+        Class<?> locationsClass = writerClass.arrayType();
+        newStrings = lookup.findConstructor(stringsClass, MethodType.methodType(void.class));
+        newLocations = lookup.findStatic(writerClass, "newLocations",
+                MethodType.methodType(locationsClass, String[].class, stringsClass,
+                        long[].class, long[].class, long[].class, int.class));
+        writeTo = lookup.findStatic(writerClass, "writeTo",
+                MethodType.methodType(void.class, ImageStream.class, locationsClass, int.class));
+
+        int count = modules * RESOURCES_PER_MODULE;
+        names = new String[count];
+        offsets = new long[count];
+        compressedSizes = new long[count];
+        uncompressedSizes = new long[count];
+        long offset = 0;
+        for (int i = 0; i < count; i++) {
+            int module = i / RESOURCES_PER_MODULE;
+            names[i] = "/jdk.module" + module + "/jdk/internal/pkg" + (i % 20)
+                    + "/Class" + i + ".class";
+            long size = 1000 + (i * 31 % 8000);
+            offsets[i] = offset;
+            uncompressedSizes[i] = size;
+            compressedSizes[i] = size / 2;
+            offset += size / 2;
+        }
+    }
+
+    @Benchmark
+    public ImageStream build() throws Throwable {
+        Object strings = newStrings.invoke();
+        Object locations = newLocations.invoke(names, strings, offsets,
+                compressedSizes, uncompressedSizes, parallelism);
+        ImageStream stream = new ImageStream();
+        writeTo.invoke(stream, locations, parallelism);
+        return stream;
+    }
+}